@@ -0,0 +1,21 @@
+package com.app.yolla.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sifariş hadisələri bu topic exchange-ə göndərilir. İstehlakçılar öz
+ * növbələrini lazım olan routing key-lərlə (məs. order.# və ya order.shipped)
+ * bağlayır.
+ */
+@Configuration
+public class RabbitConfig {
+
+	public static final String ORDER_EVENTS_EXCHANGE = "yolla.orders";
+
+	@Bean
+	public TopicExchange orderEventsExchange() {
+		return new TopicExchange(ORDER_EVENTS_EXCHANGE, true, false);
+	}
+}
@@ -0,0 +1,97 @@
+package com.app.yolla.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Oxuma replikası (datasource.replica.url verildikdə aktivdir)
+ * <p>
+ * spring.datasource primary pool, datasource.replica isə replika pool-dur.
+ * Tətbiqin istifadə etdiyi DataSource ikisinin üstündə yönləndiricidir:
+ * {@code @Transactional(readOnly = true)} replikaya, qalan hər şey primary-yə
+ * gedir. Schema yaradılması və migration-lar primary-də işləyir.
+ * <p>
+ * Yönləndirmə hər tranzaksiyanın öz bağlantısı olduğunu fərz edir. Açıq
+ * open-in-view ilə Hibernate sorğu boyu bir fiziki bağlantını saxlayır və
+ * readOnly tranzaksiyadan sonrakı yazılar da replikaya gedərdi - ona görə
+ * bağlantı hər tranzaksiyanın sonunda buraxılır.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		ds.setPoolName("primary");
+		return ds;
+	}
+
+	/**
+	 * url/username/password datasource.replica-dan oxunur. Ayrıca
+	 * DataSourceProperties bean-i yaradılmır ki, Boot-un özününkü tək qalsın.
+	 */
+	@Bean
+	@ConfigurationProperties("datasource.replica.hikari")
+	public HikariDataSource replicaDataSource(Environment environment) {
+		DataSourceProperties properties = Binder.get(environment).bind("datasource.replica", DataSourceProperties.class)
+				.get();
+		HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		ds.setPoolName("replica");
+		ds.setReadOnly(true);
+		return ds;
+	}
+
+	@Bean
+	public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica,
+			@Value("${datasource.replica.read-your-writes-ms:2000}") long readYourWritesMs,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(Duration.ofMillis(readYourWritesMs),
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+		routing.setTargetDataSources(Map.of(ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+				ReadWriteRoutingDataSource.Route.REPLICA, replica));
+		routing.setDefaultTargetDataSource(primary);
+		return routing;
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+		return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+
+	/**
+	 * Bağlantı ilk sorğuya qədər götürülmür - bu vaxta qədər tranzaksiyanın
+	 * readOnly bayrağı artıq qoyulmuş olur
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+}
@@ -0,0 +1,116 @@
+package com.app.yolla.config;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * readOnly tranzaksiyaları replikaya, qalan hər şeyi primary bazaya
+ * yönləndirir. Qərar bağlantı ilk dəfə istifadə olunanda verilir, ona görə
+ * LazyConnectionDataSourceProxy arxasında işləməlidir - əks halda readOnly
+ * bayrağı hələ qoyulmamış olur.
+ * <p>
+ * İstifadəçi özü yazandan sonra qısa müddət (read-your-writes pəncərəsi)
+ * onun oxumaları da primary-yə gedir ki, replikasiya gecikməsi öz
+ * dəyişikliyini görməməsinə səbəb olmasın. Keşə yazılacaq oxumalar
+ * readFromPrimary() ilə primary-yə yönləndirilir - əks halda invalidasiyadan
+ * sonra gecikən replikadan köhnə sətir keşə düşüb TTL boyu qalır.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	public enum Route {
+		PRIMARY, REPLICA
+	}
+
+	private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+	private final Cache<String, Boolean> recentWriters;
+
+	private final Counter writes;
+	private final Counter reads;
+	private final Counter readYourWrites;
+	private final Counter primaryReads;
+
+	public ReadWriteRoutingDataSource(Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+		recentWriters = readYourWritesWindow.isZero() ? null
+				: Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).maximumSize(100_000).build();
+		writes = counter(meterRegistry, Route.PRIMARY, "read-write");
+		reads = counter(meterRegistry, Route.REPLICA, "read");
+		readYourWrites = counter(meterRegistry, Route.PRIMARY, "read-your-writes");
+		primaryReads = counter(meterRegistry, Route.PRIMARY, "primary-read");
+	}
+
+	/**
+	 * İş daxilində götürülən readOnly bağlantılar primary-yə gedir. Bağlantı
+	 * işin içində götürülməlidir (məs. yeni tranzaksiya) - artıq götürülmüş
+	 * bağlantının yeri dəyişmir.
+	 */
+	public static <T> T readFromPrimary(Supplier<T> work) {
+		Boolean outer = PRIMARY_READ.get();
+		PRIMARY_READ.set(Boolean.TRUE);
+		try {
+			return work.get();
+		} finally {
+			if (outer == null) {
+				PRIMARY_READ.remove();
+			}
+		}
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			writes.increment();
+			rememberWriter();
+			return Route.PRIMARY;
+		}
+		if (PRIMARY_READ.get() != null) {
+			primaryReads.increment();
+			return Route.PRIMARY;
+		}
+		String user = currentUser();
+		if (user != null && recentWriters != null && recentWriters.getIfPresent(user) != null) {
+			readYourWrites.increment();
+			return Route.PRIMARY;
+		}
+		reads.increment();
+		return Route.REPLICA;
+	}
+
+	/**
+	 * Yazan tranzaksiya commit olunduqdan sonra istifadəçi pəncərəyə düşür
+	 */
+	private void rememberWriter() {
+		String user = currentUser();
+		if (user == null || recentWriters == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				recentWriters.put(user, Boolean.TRUE);
+			}
+		});
+	}
+
+	private static String currentUser() {
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		return auth == null || !auth.isAuthenticated() ? null : auth.getName();
+	}
+
+	private static Counter counter(MeterRegistry registry, Route route, String reason) {
+		return Counter.builder("datasource.routing").tag("route", route.name().toLowerCase()).tag("reason", reason)
+				.description("Bağlantıların primary/replika üzrə bölgüsü").register(registry);
+	}
+}
@@ -0,0 +1,12 @@
+package com.app.yolla.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Fon prosesləri (məs. stok jurnalının write-behind tətbiqi) üçün
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,11 +1,19 @@
 package com.app.yolla.modules.order.controller;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -17,17 +25,36 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.app.yolla.modules.order.dto.OrderBatchResponse;
+import com.app.yolla.modules.order.dto.OrderBulkTransitionRequest;
+import com.app.yolla.modules.order.dto.OrderClaim;
 import com.app.yolla.modules.order.dto.OrderCreateRequest;
 import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.dto.OrderExportFormat;
+import com.app.yolla.modules.order.dto.OrderJournalEntry;
 import com.app.yolla.modules.order.dto.OrderResponse;
+import com.app.yolla.modules.order.dto.OrderTransitionResult;
 import com.app.yolla.modules.order.dto.OrderUpdateRequest;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.service.OrderBatchService;
+import com.app.yolla.modules.order.service.OrderDispatchQueue;
+import com.app.yolla.modules.order.service.OrderEventStream;
+import com.app.yolla.modules.order.service.OrderExportService;
+import com.app.yolla.modules.order.service.OrderIdempotencyService;
+import com.app.yolla.modules.order.service.OrderJournal;
 import com.app.yolla.modules.order.service.OrderService;
+import com.app.yolla.modules.order.service.OrderStatusCounters;
 import com.app.yolla.shared.dto.ApiResponse;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @Tag(name = "Order", description = "Sifarişlərə dair əməliyyatlar")
@@ -41,15 +68,39 @@ public class OrderController {
     @Autowired
 	private OrderService service;
 
+    @Autowired
+	private OrderIdempotencyService idempotencyService;
+
+    @Autowired
+	private OrderBatchService batchService;
+
+    @Autowired
+	private OrderExportService exportService;
+
+    @Autowired
+	private OrderJournal journal;
+
+    @Autowired
+	private OrderEventStream eventStream;
+
+    @Autowired
+	private OrderDispatchQueue dispatchQueue;
+
+    @Autowired
+	private OrderStatusCounters statusCounters;
+
 
     @PostMapping
 	@PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
-	public ResponseEntity<ApiResponse<OrderDTO>> createdOrder(@Valid @RequestBody OrderCreateRequest request) {
+	public ResponseEntity<ApiResponse<OrderDTO>> createdOrder(@Valid @RequestBody OrderCreateRequest request,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
 		// logger.info("Yeni istifadəçi yaratma sorğusu: {}", request.getPhoneNumber());
 
         try {
-			OrderDTO createdOrder = service.createdOrder(request);
+			// Açar göndərilibsə təkrar sorğu ikinci sifariş yaratmır
+			OrderDTO createdOrder = idempotencyKey == null ? service.createdOrder(request)
+					: idempotencyService.execute(idempotencyKey, () -> service.createdOrder(request));
 
 			ApiResponse<OrderDTO> response = new ApiResponse<>(
                     true,
@@ -71,6 +122,60 @@ public class OrderController {
         }
     }
 
+	@PostMapping(path = "/batch")
+	@PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
+	public ResponseEntity<ApiResponse<OrderBatchResponse>> createdOrders(HttpServletRequest request) {
+		try {
+			OrderBatchResponse resp = batchService.importOrders(request.getInputStream());
+
+			if (resp.getError() != null) {
+				// Əvvəlki hissələr yazılıb - nəticələr cavabda qalır
+				ApiResponse<OrderBatchResponse> response = new ApiResponse<>(false, "Toplu sifariş xəta ilə bitdi ("
+						+ resp.getCreated() + "/" + resp.getTotal() + " yaradıldı): " + resp.getError(), resp);
+
+				return ResponseEntity.badRequest().body(response);
+			}
+
+			ApiResponse<OrderBatchResponse> response = new ApiResponse<>(true,
+					"Sifarişlər emal edildi: " + resp.getCreated() + "/" + resp.getTotal(), resp);
+
+			return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+		} catch (Exception e) {
+
+			ApiResponse<OrderBatchResponse> response = new ApiResponse<>(false,
+					"Toplu sifariş zamanı xəta baş verdi: " + e.getMessage(), null);
+
+			return ResponseEntity.badRequest().body(response);
+		}
+	}
+
+	@GetMapping
+	@PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
+	public ResponseEntity<ApiResponse<OrderResponse>> getPage(
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "size", defaultValue = "20") Integer size) {
+		try {
+			OrderResponse resp = service.getPage(cursor, size);
+
+			ApiResponse<OrderResponse> response = new ApiResponse<>(true, "Sifarisler", resp);
+
+			return ResponseEntity.status(HttpStatus.OK).body(response);
+
+		} catch (Exception e) {
+
+			ApiResponse<OrderResponse> response = new ApiResponse<>(false,
+					"Sifarisler getirilerken xəta baş verdi: " + e.getMessage(), null);
+
+			return ResponseEntity.badRequest().body(response);
+		}
+	}
+
+	/**
+	 * Köhnə offset səhifələməsi, mövcud klientlər üçün saxlanılıb.
+	 * Yeni klientlər GET /orders?cursor=... istifadə etməlidir.
+	 */
+	@Deprecated
 	@GetMapping(path = "/begin/{begin}/length/{length}")
 	@PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
 	public ResponseEntity<ApiResponse<OrderResponse>> getAll(@PathVariable("begin") Integer begin,
@@ -91,6 +196,109 @@ public class OrderController {
 		}
 	}
 
+	@GetMapping(path = "/stats/status")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<ApiResponse<Map<OrderStatus, Long>>> statusCounts() {
+		try {
+			// Sayğaclar yaddaşdadır - cədvəl skan edilmir
+			ApiResponse<Map<OrderStatus, Long>> response = new ApiResponse<>(true, "Status üzrə sifarişlər",
+					statusCounters.snapshot());
+
+			return ResponseEntity.ok(response);
+
+		} catch (Exception e) {
+
+			ApiResponse<Map<OrderStatus, Long>> response = new ApiResponse<>(false,
+					"Statistika getirilerken xəta baş verdi: " + e.getMessage(), null);
+
+			return ResponseEntity.badRequest().body(response);
+		}
+	}
+
+	/**
+	 * Sifarişlərin axınla ixracı (NDJSON və ya CSV). Cavab yaddaşda
+	 * toplanmır, sətirlər bazadan oxunduqca yazılır.
+	 */
+	@GetMapping(path = "/export")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<?> export(
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(value = "status", required = false) OrderStatus status,
+			@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+		try {
+			OrderExportFormat exportFormat = OrderExportFormat.of(format);
+			exportService.validate(from, to);
+
+			StreamingResponseBody body = out -> exportService.export(from, to, status, exportFormat, out);
+
+			return ResponseEntity.ok().contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+					.header(HttpHeaders.CONTENT_DISPOSITION,
+							"attachment; filename=orders-" + from + "_" + to + "." + exportFormat.getExtension())
+					.body(body);
+
+		} catch (Exception e) {
+
+			ApiResponse<String> response = new ApiResponse<>(false,
+					"Sifarişlər ixrac edilərkən xəta baş verdi: " + e.getMessage(), null);
+
+			return ResponseEntity.badRequest().body(response);
+		}
+	}
+
+	// Status keçidlərinin SSE axını - sorğu ilə yoxlamaq (polling) əvəzinə.
+	// Yenidən qoşulan müştəri Last-Event-ID başlığı ilə qaldığı yerdən davam edir.
+	@GetMapping(path = "/stream")
+	@PreAuthorize("hasRole('ADMIN') or hasRole('PREPARER') or hasRole('CUSTOMER')")
+	public ResponseEntity<SseEmitter> stream(
+			@RequestParam(value = "status", required = false) Set<OrderStatus> statuses,
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+			Authentication authentication) {
+		try {
+			return ResponseEntity.ok(eventStream.subscribe(authentication.getName(), statuses, lastEventId));
+
+		} catch (Exception e) {
+			// SSE cavabında ApiResponse göndərilə bilmir - yalnız status qaytarılır
+			logger.warn("Sifariş axınına qoşularkən xəta baş verdi: {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	@GetMapping(path = "/{id}")
+	@PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER') or hasRole('PREPARER')")
+	public ResponseEntity<ApiResponse<OrderDTO>> getById(@PathVariable("id") UUID id) {
+		try {
+			OrderDTO order = service.getById(id);
+
+			ApiResponse<OrderDTO> response = new ApiResponse<>(true, "Sifariş", order);
+
+			return ResponseEntity.ok(response);
+
+		} catch (Exception e) {
+
+			ApiResponse<OrderDTO> response = new ApiResponse<>(false,
+					"Sifariş getirilerken xəta baş verdi: " + e.getMessage(), null);
+
+			return ResponseEntity.badRequest().body(response);
+		}
+	}
+
+	// Sifarişin jurnaldan tam dəyişiklik tarixçəsi (audit üçün)
+	@GetMapping(path = "/{id}/history")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<ApiResponse<List<OrderJournalEntry>>> history(@PathVariable("id") UUID id) {
+		try (Stream<OrderJournalEntry> entries = journal.replay(id)) {
+			ApiResponse<List<OrderJournalEntry>> response = new ApiResponse<>(true, "Sifarişin tarixçəsi",
+					entries.toList());
+			return ResponseEntity.ok(response);
+
+		} catch (Exception e) {
+			ApiResponse<List<OrderJournalEntry>> response = new ApiResponse<>(false,
+					"Tarixçə getirilerken xəta baş verdi: " + e.getMessage(), null);
+			return ResponseEntity.badRequest().body(response);
+		}
+	}
+
 	@DeleteMapping(path = "/{id}")
 	@PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER')")
 	public ResponseEntity<?> deleteById(@PathVariable("id") UUID id) {
@@ -200,4 +408,43 @@ public class OrderController {
 			return ResponseEntity.badRequest().body(response);
 		}
 	}
-}
\ No newline at end of file
+
+	// Bir neçə sifarişi eyni statusa keçirir - hər id üçün ayrıca nəticə qaytarılır
+	@PutMapping("/status")
+	@PreAuthorize("hasRole('ADMIN') or hasRole('PREPARER') or hasRole('CUSTOMER')")
+	public ResponseEntity<ApiResponse<List<OrderTransitionResult>>> transitionAll(
+			@Valid @RequestBody OrderBulkTransitionRequest request, Authentication authentication) {
+
+		String currentUserPhone = authentication.getName();
+		try {
+			List<OrderTransitionResult> results = service.transitionAll(request.getIds(), request.getStatus(),
+					currentUserPhone);
+			ApiResponse<List<OrderTransitionResult>> response = new ApiResponse<>(true,
+					"Sifarişlərin statusu yeniləndi", results);
+			return ResponseEntity.ok(response);
+
+		} catch (Exception e) {
+			ApiResponse<List<OrderTransitionResult>> response = new ApiResponse<>(false,
+					"Statuslar yenilənərkən xəta baş verdi: " + e.getMessage(), null);
+			return ResponseEntity.badRequest().body(response);
+		}
+	}
+
+	// Hazırlayıcı növbədən ən təcili CONFIRMED sifarişləri götürür - eyni sifarişi iki nəfər götürə bilməz
+	@PostMapping("/dispatch/claim")
+	@PreAuthorize("hasRole('ADMIN') or hasRole('PREPARER')")
+	public ResponseEntity<ApiResponse<List<OrderClaim>>> claim(
+			@RequestParam(value = "size", defaultValue = "5") int size, Authentication authentication) {
+		try {
+			List<OrderClaim> claims = dispatchQueue.claim(authentication.getName(), size);
+			ApiResponse<List<OrderClaim>> response = new ApiResponse<>(true,
+					claims.isEmpty() ? "Növbədə hazır sifariş yoxdur" : "Sifarişlər götürüldü", claims);
+			return ResponseEntity.ok(response);
+
+		} catch (Exception e) {
+			ApiResponse<List<OrderClaim>> response = new ApiResponse<>(false,
+					"Sifarişlər götürülərkən xəta baş verdi: " + e.getMessage(), null);
+			return ResponseEntity.badRequest().body(response);
+		}
+	}
+}
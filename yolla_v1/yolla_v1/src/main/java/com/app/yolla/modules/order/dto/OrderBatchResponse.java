@@ -0,0 +1,28 @@
+package com.app.yolla.modules.order.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class OrderBatchResponse {
+	private int total;
+	private int created;
+	private int failed;
+	private List<OrderBatchResult> results = new ArrayList<>();
+	// Sorğu yarıda xəta ilə bitibsə - results o ana qədər emal olunanlardır
+	private String error;
+
+	public void add(List<OrderBatchResult> chunk) {
+		for (OrderBatchResult r : chunk) {
+			total++;
+			if (r.isSuccess()) {
+				created++;
+			} else {
+				failed++;
+			}
+			results.add(r);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.app.yolla.modules.order.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Toplu sifarişdə bir sifarişin nəticəsi. index sorğudakı sırasıdır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResult {
+
+	private int index;
+
+	private boolean success;
+
+	private UUID orderId;
+
+	private BigDecimal totalAmount;
+
+	private String message;
+
+	public static OrderBatchResult created(int index, UUID orderId, BigDecimal totalAmount) {
+		return new OrderBatchResult(index, true, orderId, totalAmount, null);
+	}
+
+	public static OrderBatchResult failed(int index, String message) {
+		return new OrderBatchResult(index, false, null, null, message);
+	}
+}
@@ -0,0 +1,30 @@
+package com.app.yolla.modules.order.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bir neçə sifarişi eyni statusa keçirmək üçün (məs. növbənin sonunda
+ * hazır sifarişlərin hamısını SHIPPED etmək)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkTransitionRequest {
+
+	@NotEmpty(message = "Sifariş siyahısı boş ola bilməz")
+	@Size(max = 1000, message = "Bir sorğuda ən çox 1000 sifariş ola bilər")
+	private List<UUID> ids;
+
+	@NotNull(message = "Status boş ola bilməz")
+	private OrderStatus status;
+}
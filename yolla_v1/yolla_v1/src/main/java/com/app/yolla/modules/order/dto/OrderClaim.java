@@ -0,0 +1,11 @@
+package com.app.yolla.modules.order.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Hazırlayıcının götürdüyü sifariş: deadline SLA son tarixi, expiresAt isə
+ * götürmənin bitmə anıdır (bundan sonra sifariş növbəyə qayıdır).
+ */
+public record OrderClaim(UUID orderId, LocalDateTime deadline, LocalDateTime expiresAt) {
+}
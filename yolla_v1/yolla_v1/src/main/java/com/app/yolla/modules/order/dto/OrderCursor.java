@@ -0,0 +1,31 @@
+package com.app.yolla.modules.order.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Sifariş siyahısı üçün keyset mövqeyi: son göstərilən sifarişin
+ * (createdAt, id) cütü. Klientə şəffaf olmayan Base64 sətir kimi verilir.
+ */
+public record OrderCursor(LocalDateTime createdAt, UUID id) {
+
+	public String encode() {
+		String raw = createdAt + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static OrderCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = raw.indexOf('|');
+			return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+					UUID.fromString(raw.substring(separator + 1)));
+		} catch (RuntimeException e) {
+			throw new MyException("Yanlış cursor");
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package com.app.yolla.modules.order.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Hazırlayıcı növbəsi üçün CONFIRMED sifariş: təsdiq anı və bazadakı götürmə
+ */
+public record OrderDispatchRow(UUID id, LocalDateTime since, UUID claimedBy, LocalDateTime claimExpiresAt) {
+}
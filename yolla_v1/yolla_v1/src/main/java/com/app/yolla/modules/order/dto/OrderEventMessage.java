@@ -0,0 +1,27 @@
+package com.app.yolla.modules.order.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Brokerə göndərilən sifariş hadisəsi. id outbox sətrinin id-sidir - hadisə
+ * təkrar gələrsə istehlakçı onu bu id ilə ayırd edir.
+ */
+public record OrderEventMessage(Long id, UUID orderId, UUID userId, OrderStatus from, OrderStatus to,
+		LocalDateTime createdAt) {
+
+	/**
+	 * Routing key: order.created, order.deleted və ya order.<yeni status>
+	 */
+	public String routingKey() {
+		if (from == null) {
+			return "order.created";
+		}
+		if (to == null) {
+			return "order.deleted";
+		}
+		return "order." + to.name().toLowerCase();
+	}
+}
@@ -0,0 +1,37 @@
+package com.app.yolla.modules.order.dto;
+
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Sifariş ixracının formatları. NDJSON-da hər sətir sətirləri ilə birlikdə
+ * bir sifarişdir, CSV-də isə hər sətir sifarişin bir məhsul sətridir.
+ */
+public enum OrderExportFormat {
+
+	NDJSON("application/x-ndjson", "ndjson"), CSV("text/csv", "csv");
+
+	private final String contentType;
+	private final String extension;
+
+	OrderExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public static OrderExportFormat of(String name) {
+		for (OrderExportFormat f : values()) {
+			if (f.extension.equalsIgnoreCase(name)) {
+				return f;
+			}
+		}
+		throw new MyException("Naməlum ixrac formatı: " + name);
+	}
+}
@@ -0,0 +1,15 @@
+package com.app.yolla.modules.order.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Sifariş başlığı ilə bir sətrinin birgə proyeksiyası - səhifə bir sorğu ilə
+ * oxunur. Sətirsiz sifarişdə məhsul sahələri null-dur.
+ */
+public record OrderItemPageRow(UUID userId, OrderStatus status, BigDecimal totalAmount, LocalDateTime createdAt,
+		UUID productId, String productName, Integer quantity, BigDecimal price) {
+}
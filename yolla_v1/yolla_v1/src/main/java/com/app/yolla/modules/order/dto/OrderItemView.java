@@ -0,0 +1,14 @@
+package com.app.yolla.modules.order.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Sifariş sətrinin siyahı görünüşü (OrderItemDTO ilə eyni JSON).
+ * orderId yalnız sətirləri sifarişlərə qruplaşdırmaq üçündür.
+ */
+public record OrderItemView(@JsonIgnore UUID orderId, UUID productId, String productName, BigDecimal unitPrice,
+		Integer quantity) {
+}
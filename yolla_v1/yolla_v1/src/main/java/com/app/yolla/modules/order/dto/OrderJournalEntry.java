@@ -0,0 +1,14 @@
+package com.app.yolla.modules.order.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Sifariş jurnalının bir qeydi. sequence jurnal boyu artan nömrədir, from yeni
+ * sifariş üçün, to isə silinmiş sifariş üçün null-dur.
+ */
+public record OrderJournalEntry(long sequence, LocalDateTime at, UUID orderId, UUID userId, OrderStatus from,
+		OrderStatus to) {
+}
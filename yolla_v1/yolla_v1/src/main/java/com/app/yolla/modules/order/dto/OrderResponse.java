@@ -6,5 +6,8 @@ import lombok.Data;
 
 @Data
 public class OrderResponse {
-	private List<OrderDTO> list;
+	private List<OrderView> list;
+
+	// Növbəti səhifə üçün cursor; son səhifədə null olur
+	private String nextCursor;
 }
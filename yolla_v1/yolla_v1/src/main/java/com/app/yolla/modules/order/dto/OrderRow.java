@@ -0,0 +1,15 @@
+package com.app.yolla.modules.order.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Sifariş siyahısı üçün proyeksiya: yalnız orders cədvəlinin skalyar
+ * sütunları, entity yaradılmadan birbaşa sorğudan doldurulur.
+ */
+public record OrderRow(UUID id, UUID userId, OrderStatus status, BigDecimal totalAmount, LocalDateTime createdAt,
+		String notes, String deliveryAddress, LocalDateTime deliveryTime) {
+}
@@ -0,0 +1,12 @@
+package com.app.yolla.modules.order.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * SLA taymerinin bərpası üçün: sifariş, cari status və statusa keçdiyi an
+ */
+public record OrderSlaRow(UUID id, OrderStatus status, LocalDateTime since) {
+}
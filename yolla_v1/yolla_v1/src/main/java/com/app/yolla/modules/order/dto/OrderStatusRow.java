@@ -0,0 +1,11 @@
+package com.app.yolla.modules.order.dto;
+
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Toplu status keçidi üçün sifarişin yalnız sahibi və statusu
+ */
+public record OrderStatusRow(UUID id, UUID userId, OrderStatus status) {
+}
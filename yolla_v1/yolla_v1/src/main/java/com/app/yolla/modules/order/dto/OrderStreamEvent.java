@@ -0,0 +1,12 @@
+package com.app.yolla.modules.order.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * SSE ilə göndərilən status keçidi. from yeni sifariş üçün null-dur.
+ */
+public record OrderStreamEvent(UUID orderId, OrderStatus from, OrderStatus to, LocalDateTime at) {
+}
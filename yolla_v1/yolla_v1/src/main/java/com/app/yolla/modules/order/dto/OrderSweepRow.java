@@ -0,0 +1,10 @@
+package com.app.yolla.modules.order.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Köhnəlmiş PENDING sifarişlərin təmizlənməsi üçün minimal sətir
+ */
+public record OrderSweepRow(UUID id, UUID userId, LocalDateTime createdAt) {
+}
@@ -0,0 +1,34 @@
+package com.app.yolla.modules.order.dto;
+
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Toplu status keçidində bir sifarişin nəticəsi
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTransitionResult {
+
+	private UUID orderId;
+
+	private boolean success;
+
+	private OrderStatus status;
+
+	private String message;
+
+	public static OrderTransitionResult moved(UUID orderId, OrderStatus status) {
+		return new OrderTransitionResult(orderId, true, status, null);
+	}
+
+	public static OrderTransitionResult failed(UUID orderId, OrderStatus status, String message) {
+		return new OrderTransitionResult(orderId, false, status, message);
+	}
+}
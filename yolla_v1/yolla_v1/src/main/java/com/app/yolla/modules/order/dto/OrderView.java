@@ -0,0 +1,16 @@
+package com.app.yolla.modules.order.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Sifariş siyahısının dəyişməz görünüşü (OrderDTO ilə eyni JSON)
+ */
+public record OrderView(UUID id, UUID userId, String userPhone, String userFullName, OrderStatus status,
+		BigDecimal totalAmount, String deliveryAddress, String notes, LocalDateTime createdAt,
+		List<OrderItemView> items, LocalDateTime deliveryTime) {
+}
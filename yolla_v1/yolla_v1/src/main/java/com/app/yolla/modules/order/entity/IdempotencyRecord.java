@@ -0,0 +1,56 @@
+package com.app.yolla.modules.order.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Idempotency-Key ilə yaradılmış sifarişin saxlanılan cavabı
+ * <p>
+ * Eyni istifadəçi və açarla təkrar gələn sorğuya bu cavab qaytarılır.
+ * Unikal məhdudiyyət bir neçə tətbiq nüsxəsində də təkrarın qarşısını alır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = {
+		"user_phone", "idempotency_key" }), indexes = @Index(name = "idx_idempotency_created", columnList = "created_at"))
+public class IdempotencyRecord {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "user_phone", nullable = false, length = 20)
+	private String userPhone;
+
+	@Column(name = "idempotency_key", nullable = false, length = 64)
+	private String idempotencyKey;
+
+	@Column(name = "order_id", columnDefinition = "VARCHAR(36)", nullable = false)
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID orderId;
+
+	// Cavabın JSON forması
+	@Column(name = "response", nullable = false, columnDefinition = "TEXT")
+	private String response;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+}
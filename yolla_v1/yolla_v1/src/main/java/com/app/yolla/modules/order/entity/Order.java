@@ -19,7 +19,11 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -30,7 +34,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = { @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id"),
+		@Index(name = "idx_orders_created", columnList = "created_at, id"),
+		@Index(name = "idx_orders_status_changed", columnList = "status, status_changed_at"),
+		@Index(name = "idx_orders_status_created", columnList = "status, created_at, id") })
 @EntityListeners(AuditingEntityListener.class) // Avtomatik tarix yazmaq üçün
 public class Order {
 	@Id
@@ -62,5 +69,39 @@ public class Order {
 
 	private LocalDateTime deliveryTime;
 
+	// Statusun son dəyişdiyi an - SLA izləməsi üçün
+	@Column(name = "status_changed_at")
+	private LocalDateTime statusChangedAt;
+
+	// CONFIRMED sifarişi götürmüş hazırlayıcı və götürmənin bitmə anı (OrderDispatchQueue).
+	// Bu sütunlar yalnız OrderRepository-nin UPDATE sorğuları ilə dəyişir - yüklənmiş
+	// sifarişin saxlanması onların bazadakı dəyərini köhnə dəyərlə əvəz etməsin.
+	@Column(name = "claimed_by", columnDefinition = "VARCHAR(36)", updatable = false)
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID claimedBy;
+
+	@Column(name = "claim_expires_at", updatable = false)
+	private LocalDateTime claimExpiresAt;
+
+	// Cari statusda SLA pozuntusunun qeydə alındığı an - yenidən başladıqda təkrar xəbərdarlıq olunmasın
+	@Column(name = "sla_breached_at", updatable = false)
+	private LocalDateTime slaBreachedAt;
+
+	// Bazadan yüklənmiş status - dəyişib-dəyişmədiyini bilmək üçün (persist olunmur)
+	private transient OrderStatus loadedStatus;
+
+	@PostLoad
+	void rememberStatus() {
+		loadedStatus = status;
+	}
+
+	@PrePersist
+	@PreUpdate
+	void touchStatus() {
+		if (status != loadedStatus) {
+			statusChangedAt = LocalDateTime.now();
+			loadedStatus = status;
+		}
+	}
 
 }
\ No newline at end of file
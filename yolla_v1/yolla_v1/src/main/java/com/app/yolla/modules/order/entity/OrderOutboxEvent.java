@@ -0,0 +1,60 @@
+package com.app.yolla.modules.order.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sifariş hadisələrinin outbox cədvəli
+ * <p>
+ * Sifariş dəyişikliyi ilə eyni tranzaksiyada yazılır, OrderOutboxRelay isə
+ * sətirləri id sırası ilə RabbitMQ-ya göndərib silir. id sırası eyni sifarişin
+ * hadisələrinin sırasını saxlayır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(name = "order_outbox")
+public class OrderOutboxEvent {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "order_id", columnDefinition = "VARCHAR(36)", nullable = false)
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID orderId;
+
+	@Column(name = "user_id", columnDefinition = "VARCHAR(36)")
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID userId;
+
+	// Yeni sifariş üçün null
+	@Enumerated(EnumType.STRING)
+	@Column(name = "from_status", length = 20)
+	private OrderStatus fromStatus;
+
+	// Silinmiş sifariş üçün null
+	@Enumerated(EnumType.STRING)
+	@Column(name = "to_status", length = 20)
+	private OrderStatus toStatus;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+}
@@ -0,0 +1,8 @@
+package com.app.yolla.modules.order.entity;
+
+public enum ReservationStatus {
+
+	HELD,       // müvəqqəti rezerv, müddəti bitəndə azad olunur
+	CONFIRMED,  // sifariş təsdiqlənib, stok qalıcı olaraq azaldılıb
+	RELEASED    // ləğv və ya müddət bitməsi ilə stoka qaytarılıb
+}
@@ -0,0 +1,70 @@
+package com.app.yolla.modules.order.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sifariş sətri üçün stok rezervi
+ * <p>
+ * Sifariş yaradılanda hər OrderItem üçün müddətli (HELD) rezerv qoyulur.
+ * Təsdiq rezervi qalıcı edir (CONFIRMED), ləğv və ya müddətin bitməsi isə
+ * miqdarı stoka qaytarır (RELEASED).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(name = "stock_reservations", indexes = {
+		@Index(name = "idx_stock_reservations_order", columnList = "order_id"),
+		@Index(name = "idx_stock_reservations_expiry", columnList = "status, expires_at") })
+public class StockReservation {
+
+	@Id
+	@GeneratedValue(generator = "uuid2")
+	@GenericGenerator(name = "uuid2", strategy = "org.hibernate.id.UUIDGenerator")
+	@Column(name = "id", columnDefinition = "VARCHAR(36)", nullable = false, updatable = false)
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID id;
+
+	@Column(name = "order_id", columnDefinition = "VARCHAR(36)", nullable = false)
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID orderId;
+
+	@Column(name = "order_item_id", columnDefinition = "VARCHAR(36)", nullable = false)
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID orderItemId;
+
+	@Column(name = "product_id", columnDefinition = "VARCHAR(36)", nullable = false)
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID productId;
+
+	@Column(nullable = false)
+	private Integer quantity;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private ReservationStatus status;
+
+	@Column(name = "expires_at", nullable = false)
+	private LocalDateTime expiresAt;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+}
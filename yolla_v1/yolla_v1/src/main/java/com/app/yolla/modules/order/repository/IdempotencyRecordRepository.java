@@ -0,0 +1,21 @@
+package com.app.yolla.modules.order.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.app.yolla.modules.order.entity.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+	Optional<IdempotencyRecord> findByUserPhoneAndIdempotencyKey(String userPhone, String idempotencyKey);
+
+	@Modifying
+	@Query("delete from IdempotencyRecord r where r.createdAt < ?1")
+	int deleteOlderThan(LocalDateTime threshold);
+}
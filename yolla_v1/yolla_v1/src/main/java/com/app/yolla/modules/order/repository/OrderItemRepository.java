@@ -1,11 +1,15 @@
 package com.app.yolla.modules.order.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.app.yolla.modules.order.dto.OrderItemView;
 import com.app.yolla.modules.order.entity.OrderItem;
 
 @Repository
@@ -13,4 +17,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
 
 	List<OrderItem> findByOrderId(UUID id);
 
+	/**
+	 * Siyahı üçün sətirlərin proyeksiyası - bütün səhifə üçün bir sorğu
+	 */
+	@Query("select new com.app.yolla.modules.order.dto.OrderItemView(i.order.id, p.id, p.name, p.price, i.quantity) "
+			+ "from OrderItem i join i.product p where i.order.id in :orderIds")
+	List<OrderItemView> findViews(@Param("orderIds") Collection<UUID> orderIds);
+
 }
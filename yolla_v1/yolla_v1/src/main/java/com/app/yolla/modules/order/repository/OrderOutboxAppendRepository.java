@@ -0,0 +1,16 @@
+package com.app.yolla.modules.order.repository;
+
+import java.util.List;
+
+import com.app.yolla.modules.order.service.OrderChangedEvent;
+
+/**
+ * Outbox-a toplu yazma (IDENTITY açarı ilə Hibernate batch etmədiyi üçün JDBC ilə).
+ */
+public interface OrderOutboxAppendRepository {
+
+	/**
+	 * Hər hadisə üçün bir outbox sətri əlavə edir (bir JDBC batch)
+	 */
+	void append(List<OrderChangedEvent> events);
+}
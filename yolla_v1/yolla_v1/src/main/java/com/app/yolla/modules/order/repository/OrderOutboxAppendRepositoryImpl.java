@@ -0,0 +1,34 @@
+package com.app.yolla.modules.order.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.yolla.modules.order.service.OrderChangedEvent;
+
+public class OrderOutboxAppendRepositoryImpl implements OrderOutboxAppendRepository {
+
+	private static final String INSERT_SQL = "INSERT INTO order_outbox (order_id, user_id, from_status, to_status, created_at) "
+			+ "VALUES (?, ?, ?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void append(List<OrderChangedEvent> events) {
+		if (events.isEmpty()) {
+			return;
+		}
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, e) -> {
+			ps.setString(1, e.orderId().toString());
+			ps.setString(2, e.userId() == null ? null : e.userId().toString());
+			ps.setString(3, e.from() == null ? null : e.from().name());
+			ps.setString(4, e.to() == null ? null : e.to().name());
+			ps.setTimestamp(5, now);
+		});
+	}
+}
@@ -0,0 +1,20 @@
+package com.app.yolla.modules.order.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.app.yolla.modules.order.entity.OrderOutboxEvent;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long>, OrderOutboxAppendRepository {
+
+	/**
+	 * Göndərilməmiş hadisələrin növbəti hissəsi (id sırası ilə)
+	 */
+	@Query("select e from OrderOutboxEvent e order by e.id")
+	List<OrderOutboxEvent> findPending(Pageable pageable);
+}
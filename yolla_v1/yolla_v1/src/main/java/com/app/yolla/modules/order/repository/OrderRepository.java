@@ -1,21 +1,191 @@
 package com.app.yolla.modules.order.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import com.app.yolla.modules.order.dto.OrderRow;
+import com.app.yolla.modules.order.dto.OrderDispatchRow;
+import com.app.yolla.modules.order.dto.OrderSlaRow;
+import com.app.yolla.modules.order.dto.OrderStatusRow;
+import com.app.yolla.modules.order.dto.OrderSweepRow;
 import com.app.yolla.modules.order.entity.Order;
+import com.app.yolla.modules.order.entity.OrderStatus;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
-	@Query(value = "select * from orders where user_id=?1 limit ?2,?3", nativeQuery = true)
-	List<Order> getAll(UUID id, Integer begin, Integer length);
+	/**
+	 * Köhnə offset səhifələməsi - yalnız uyğunluq üçün saxlanılıb, dərin
+	 * səhifələrdə yavaşdır. Yeni kod findFirstPage/findPageAfter istifadə etsin.
+	 */
+	@Query(value = "select id from orders where user_id=?1 order by created_at desc, id desc limit ?2,?3", nativeQuery = true)
+	List<String> getAllIds(UUID id, Integer begin, Integer length);
+
+	@Query("select new com.app.yolla.modules.order.dto.OrderRow(o.id, o.userId, o.status, o.totalAmount, o.createdAt, "
+			+ "o.notes, o.deliveryAddress, o.deliveryTime) from Order o where o.id in :ids "
+			+ "order by o.createdAt desc, o.id desc")
+	List<OrderRow> findRows(@Param("ids") Collection<UUID> ids);
+
+	/**
+	 * Keyset səhifələmə: (created_at, id) üzrə azalan sıra ilə ilk səhifə.
+	 * idx_orders_user_created indeksi ilə səhifə dərinliyindən asılı olmayaraq
+	 * sabit müddətdə işləyir.
+	 */
+	@Query("select new com.app.yolla.modules.order.dto.OrderRow(o.id, o.userId, o.status, o.totalAmount, o.createdAt, "
+			+ "o.notes, o.deliveryAddress, o.deliveryTime) from Order o where o.userId = :userId "
+			+ "order by o.createdAt desc, o.id desc")
+	List<OrderRow> findFirstPage(@Param("userId") UUID userId, Pageable pageable);
+
+	/**
+	 * Verilən (createdAt, id) mövqeyindən sonrakı səhifə
+	 */
+	@Query("select new com.app.yolla.modules.order.dto.OrderRow(o.id, o.userId, o.status, o.totalAmount, o.createdAt, "
+			+ "o.notes, o.deliveryAddress, o.deliveryTime) from Order o where o.userId = :userId and (o.createdAt < :createdAt "
+			+ "or (o.createdAt = :createdAt and o.id < :id)) order by o.createdAt desc, o.id desc")
+	List<OrderRow> findPageAfter(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt,
+			@Param("id") UUID id, Pageable pageable);
 
 	@Query(value = "select * from orders where user_id=?1 ", nativeQuery = true)
 	List<Order> findOrder(UUID id);
 
-}
\ No newline at end of file
+	/**
+	 * Status üzrə sifariş sayı: [OrderStatus, Long] cütləri
+	 */
+	@Query("select o.status, count(o) from Order o group by o.status")
+	List<Object[]> countByStatus();
+
+	@Query("select new com.app.yolla.modules.order.dto.OrderStatusRow(o.id, o.userId, o.status) from Order o "
+			+ "where o.id in :ids")
+	List<OrderStatusRow> findStatuses(@Param("ids") Collection<UUID> ids);
+
+	/**
+	 * since anından sonra statusu dəyişmiş sifarişlər (jurnalın başlanğıcda bərpası üçün)
+	 */
+	@Query("select new com.app.yolla.modules.order.dto.OrderStatusRow(o.id, o.userId, o.status) from Order o "
+			+ "where coalesce(o.statusChangedAt, o.createdAt) >= :since")
+	List<OrderStatusRow> findStatusesChangedSince(@Param("since") LocalDateTime since);
+
+	/**
+	 * Toplu keçid: yalnız hələ də gözlənilən statusda olan sifarişlər dəyişir.
+	 * deliveryTime null deyilsə və sifarişdə boşdursa yazılır. Toplu UPDATE
+	 * entity callback-lərindən keçmədiyi üçün statusChangedAt burada yazılır.
+	 *
+	 * @return dəyişən sifariş sayı
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Order o set o.status = :to, o.deliveryTime = coalesce(o.deliveryTime, :deliveryTime), "
+			+ "o.statusChangedAt = :now where o.id in :ids and o.status in :from")
+	int transition(@Param("ids") Collection<UUID> ids, @Param("from") Collection<OrderStatus> from,
+			@Param("to") OrderStatus to, @Param("deliveryTime") LocalDateTime deliveryTime,
+			@Param("now") LocalDateTime now);
+
+	/**
+	 * Hazırlayıcının toplu göndərməsi: transition kimidir, amma başqa
+	 * hazırlayıcının götürdüyü (müddəti bitməmiş) sifarişlərə toxunmur
+	 *
+	 * @return dəyişən sifariş sayı
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Order o set o.status = :to, o.statusChangedAt = :now where o.id in :ids and o.status in :from "
+			+ "and (o.claimedBy is null or o.claimedBy = :preparer or o.claimExpiresAt < :now)")
+	int transitionUnclaimed(@Param("ids") Collection<UUID> ids, @Param("from") Collection<OrderStatus> from,
+			@Param("to") OrderStatus to, @Param("preparer") UUID preparer, @Param("now") LocalDateTime now);
+
+	/**
+	 * Başqa hazırlayıcının hazırda götürdüyü sifarişlər
+	 */
+	@Query("select o.id from Order o where o.id in :ids and o.claimedBy <> :preparer and o.claimExpiresAt >= :now")
+	List<UUID> findClaimedByOthers(@Param("ids") Collection<UUID> ids, @Param("preparer") UUID preparer,
+			@Param("now") LocalDateTime now);
+
+	/**
+	 * transition-un özü keçirdiyi sifarişlər: status hədəfdədir və statusChangedAt
+	 * həmin UPDATE-in yazdığı andır. Arada başqa sorğunun keçirdiyi sifarişlər
+	 * bura düşmür.
+	 */
+	@Query("select o.id from Order o where o.id in :ids and o.status = :status and o.statusChangedAt = :changedAt")
+	List<UUID> findTransitioned(@Param("ids") Collection<UUID> ids, @Param("status") OrderStatus status,
+			@Param("changedAt") LocalDateTime changedAt);
+
+	/**
+	 * Köhnəlmiş PENDING sifarişlərin ilk hissəsi - (created_at, id) artan sırası
+	 * ilə, idx_orders_status_created indeksi üzrə
+	 */
+	@Query("select new com.app.yolla.modules.order.dto.OrderSweepRow(o.id, o.userId, o.createdAt) from Order o "
+			+ "where o.status = :status and o.createdAt < :before order by o.createdAt, o.id")
+	List<OrderSweepRow> findStaleFirst(@Param("status") OrderStatus status, @Param("before") LocalDateTime before,
+			Pageable pageable);
+
+	/**
+	 * Verilən (createdAt, id) mövqeyindən sonrakı köhnəlmiş sifarişlər
+	 */
+	@Query("select new com.app.yolla.modules.order.dto.OrderSweepRow(o.id, o.userId, o.createdAt) from Order o "
+			+ "where o.status = :status and o.createdAt < :before and (o.createdAt > :createdAt "
+			+ "or (o.createdAt = :createdAt and o.id > :id)) order by o.createdAt, o.id")
+	List<OrderSweepRow> findStaleAfter(@Param("status") OrderStatus status, @Param("before") LocalDateTime before,
+			@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+	/**
+	 * Verilən statuslardakı sifarişlər və statusa keçdikləri an - SLA
+	 * taymerlərinin başlanğıcda bərpası üçün, cursor ilə oxunur. Cari
+	 * statusda pozuntusu artıq qeydə alınmış sifarişlər buraxılır.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new com.app.yolla.modules.order.dto.OrderSlaRow(o.id, o.status, "
+			+ "coalesce(o.statusChangedAt, o.createdAt)) from Order o where o.status in :statuses "
+			+ "and (o.slaBreachedAt is null or o.slaBreachedAt < coalesce(o.statusChangedAt, o.createdAt))")
+	Stream<OrderSlaRow> streamSlaRows(@Param("statuses") Collection<OrderStatus> statuses);
+
+	/**
+	 * SLA pozuntusunu qeyd edir - yalnız sifariş hələ həmin statusdadırsa
+	 */
+	@Modifying
+	@Query("update Order o set o.slaBreachedAt = :at where o.id in :ids and o.status = :status")
+	int markSlaBreached(@Param("ids") Collection<UUID> ids, @Param("status") OrderStatus status,
+			@Param("at") LocalDateTime at);
+
+	/**
+	 * Götürmə: yalnız hələ CONFIRMED olan və başqasının aktiv götürməsi
+	 * olmayan sifarişlər yazılır. Eyni sətri iki nüsxə eyni anda götürməyə
+	 * çalışsa, ikincinin şərti sətir kilidi açıldıqdan sonra ödənmir.
+	 */
+	@Modifying
+	@Query("update Order o set o.claimedBy = :preparer, o.claimExpiresAt = :expiresAt where o.id in :ids "
+			+ "and o.status = com.app.yolla.modules.order.entity.OrderStatus.CONFIRMED "
+			+ "and (o.claimedBy is null or o.claimedBy = :preparer or o.claimExpiresAt < :now)")
+	int claim(@Param("ids") Collection<UUID> ids, @Param("preparer") UUID preparer,
+			@Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+	@Query("select o.id from Order o where o.id in :ids and o.claimedBy = :preparer "
+			+ "and o.status = com.app.yolla.modules.order.entity.OrderStatus.CONFIRMED")
+	List<UUID> findClaimed(@Param("ids") Collection<UUID> ids, @Param("preparer") UUID preparer);
+
+	/**
+	 * Bütün CONFIRMED sifarişlər götürmələri ilə birlikdə - hazırlayıcı
+	 * növbəsinin başlanğıcda qurulması üçün, cursor ilə oxunur
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new com.app.yolla.modules.order.dto.OrderDispatchRow(o.id, "
+			+ "coalesce(o.statusChangedAt, o.createdAt), o.claimedBy, o.claimExpiresAt) from Order o "
+			+ "where o.status = com.app.yolla.modules.order.entity.OrderStatus.CONFIRMED")
+	Stream<OrderDispatchRow> streamDispatchRows();
+
+	@Query("select new com.app.yolla.modules.order.dto.OrderDispatchRow(o.id, "
+			+ "coalesce(o.statusChangedAt, o.createdAt), o.claimedBy, o.claimExpiresAt) from Order o where o.id in :ids "
+			+ "and o.status = com.app.yolla.modules.order.entity.OrderStatus.CONFIRMED")
+	List<OrderDispatchRow> findDispatchRows(@Param("ids") Collection<UUID> ids);
+}
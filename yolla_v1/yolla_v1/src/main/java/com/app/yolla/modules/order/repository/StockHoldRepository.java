@@ -0,0 +1,16 @@
+package com.app.yolla.modules.order.repository;
+
+import java.util.List;
+
+import com.app.yolla.modules.order.entity.StockReservation;
+
+/**
+ * Rezerv sətirlərinin toplu yazılması (persistence context-dən keçmədən, JDBC batch ilə).
+ */
+public interface StockHoldRepository {
+
+	/**
+	 * Rezervləri bir JDBC batch ilə əlavə edir. id boşdursa yaradılır.
+	 */
+	void insertAll(List<StockReservation> reservations);
+}
@@ -0,0 +1,40 @@
+package com.app.yolla.modules.order.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.yolla.modules.order.entity.StockReservation;
+
+public class StockHoldRepositoryImpl implements StockHoldRepository {
+
+	private static final String INSERT_SQL = "INSERT INTO stock_reservations "
+			+ "(id, order_id, order_item_id, product_id, quantity, status, expires_at, created_at) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void insertAll(List<StockReservation> reservations) {
+		if (reservations.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate(INSERT_SQL, reservations, reservations.size(), (ps, r) -> {
+			if (r.getId() == null) {
+				r.setId(UUID.randomUUID());
+			}
+			ps.setString(1, r.getId().toString());
+			ps.setString(2, r.getOrderId().toString());
+			ps.setString(3, r.getOrderItemId().toString());
+			ps.setString(4, r.getProductId().toString());
+			ps.setInt(5, r.getQuantity());
+			ps.setString(6, r.getStatus().name());
+			ps.setTimestamp(7, Timestamp.valueOf(r.getExpiresAt()));
+			ps.setTimestamp(8, Timestamp.valueOf(r.getCreatedAt()));
+		});
+	}
+}
@@ -0,0 +1,81 @@
+package com.app.yolla.modules.order.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.app.yolla.modules.order.entity.ReservationStatus;
+import com.app.yolla.modules.order.entity.StockReservation;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID>, StockHoldRepository {
+
+	/**
+	 * Sifarişin verilən statuslardakı rezervləri; sətirlər kilidlənir ki,
+	 * müddət bitmə prosesi ilə eyni rezervi iki dəfə azad etməsinlər
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from StockReservation r where r.orderId = :orderId and r.status in :statuses")
+	List<StockReservation> lockByOrder(@Param("orderId") UUID orderId,
+			@Param("statuses") Collection<ReservationStatus> statuses);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from StockReservation r where r.orderId in :orderIds and r.status in :statuses")
+	List<StockReservation> lockByOrders(@Param("orderIds") Collection<UUID> orderIds,
+			@Param("statuses") Collection<ReservationStatus> statuses);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from StockReservation r where r.orderItemId = :orderItemId and r.status in :statuses")
+	List<StockReservation> lockByOrderItem(@Param("orderItemId") UUID orderItemId,
+			@Param("statuses") Collection<ReservationStatus> statuses);
+
+	/**
+	 * Müddəti bitmiş HELD rezervlərin növbəti hissəsi
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from StockReservation r where r.status = com.app.yolla.modules.order.entity.ReservationStatus.HELD "
+			+ "and r.expiresAt <= :now order by r.expiresAt")
+	List<StockReservation> lockExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+	long countByOrderId(UUID orderId);
+
+	/**
+	 * Sifarişin vaxtı keçməmiş bütün HELD rezervlərini bir UPDATE ilə qalıcı edir
+	 */
+	@Modifying
+	@Query("update StockReservation r set r.status = com.app.yolla.modules.order.entity.ReservationStatus.CONFIRMED "
+			+ "where r.orderId = :orderId and r.status = com.app.yolla.modules.order.entity.ReservationStatus.HELD "
+			+ "and r.expiresAt > :now")
+	int confirmHeld(@Param("orderId") UUID orderId, @Param("now") LocalDateTime now);
+
+	/**
+	 * Sifariş başına rezerv sayı: [orderId, Long] cütləri
+	 */
+	@Query("select r.orderId, count(r) from StockReservation r where r.orderId in :orderIds group by r.orderId")
+	List<Object[]> countByOrders(@Param("orderIds") Collection<UUID> orderIds);
+
+	@Modifying
+	@Query("update StockReservation r set r.status = com.app.yolla.modules.order.entity.ReservationStatus.CONFIRMED "
+			+ "where r.id in :ids")
+	int markConfirmed(@Param("ids") Collection<UUID> ids);
+
+	@Modifying
+	@Query("update StockReservation r set r.status = com.app.yolla.modules.order.entity.ReservationStatus.RELEASED "
+			+ "where r.id in :ids")
+	int markReleased(@Param("ids") Collection<UUID> ids);
+
+	@Modifying
+	@Query("update StockReservation r set r.quantity = :quantity where r.id = :id")
+	int resize(@Param("id") UUID id, @Param("quantity") int quantity);
+}
@@ -0,0 +1,296 @@
+package com.app.yolla.modules.order.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+import com.app.yolla.modules.order.dto.OrderJournalEntry;
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Jurnalın bir seqmenti - tam ölçüdə yaddaşa xəritələnmiş (mmap) fayl.
+ * <p>
+ * Qeyd formatı: [uzunluq int][crc32c int][zaman long][sequence long]
+ * [orderId 16 bayt][userId 16 bayt][from bayt][to bayt]. Status baytı
+ * ordinal + 1-dir, 0 isə null deməkdir. Faylın yazılmamış hissəsi sıfırdır,
+ * ona görə uzunluğu 0 olan və ya CRC-si uyğun gəlməyən ilk qeyd seqmentin
+ * sonu sayılır (yarımçıq yazılmış qeyd də belə atılır).
+ * <p>
+ * Seqmentdəki orderId-lər yaddaşdakı Bloom filtrində saxlanılır (qeyd başına
+ * ~10 bit, ~1% yanlış müsbət) - bir sifarişin tarixçəsi yalnız onu ehtiva
+ * edə biləcək seqmentlərdə axtarılır. Filtr açılışda faylı yoxlayarkən qurulur.
+ */
+final class JournalSegment {
+
+	static final int HEADER = 8;
+
+	static final int PAYLOAD = 8 + 8 + 16 + 16 + 1 + 1;
+
+	static final int RECORD = HEADER + PAYLOAD;
+
+	private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+	private static final int BLOOM_HASHES = 7;
+
+	private final Path path;
+
+	private final long baseSequence;
+
+	private final MappedByteBuffer buffer;
+
+	// Yazan bitləri writePosition-dan əvvəl qoyur - oxuyan writePosition-u əvvəl oxuyur
+	private final long[] bloom;
+
+	private final int bloomMask;
+
+	// Yazan tək thread-dir (OrderJournal kilidi altında), oxuyanlar bu həddə qədər oxuyur
+	private volatile int writePosition;
+
+	private volatile long firstMillis = Long.MAX_VALUE;
+
+	private volatile long lastMillis = Long.MIN_VALUE;
+
+	private long lastSequence;
+
+	private JournalSegment(Path path, long baseSequence, MappedByteBuffer buffer) {
+		this.path = path;
+		this.baseSequence = baseSequence;
+		this.buffer = buffer;
+		this.lastSequence = baseSequence - 1;
+		int bits = Integer.highestOneBit(Math.max(64, buffer.capacity() / RECORD * 10 - 1)) << 1;
+		this.bloom = new long[bits >>> 6];
+		this.bloomMask = bits - 1;
+	}
+
+	static Path fileName(Path dir, long baseSequence) {
+		return dir.resolve(String.format("%020d.log", baseSequence));
+	}
+
+	static long baseSequence(Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(0, name.length() - ".log".length()));
+	}
+
+	/**
+	 * Seqmenti açır (yoxdursa yaradır) və qeydləri yoxlayaraq yazma mövqeyini tapır
+	 */
+	static JournalSegment open(Path file, int size) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			// Mövcud seqment konfiqurasiyadan böyük ola bilər - faylın öz ölçüsü saxlanılır
+			int mapped = (int) Math.max(size, channel.size());
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped);
+		}
+
+		JournalSegment segment = new JournalSegment(file, baseSequence(file), buffer);
+		segment.recover();
+		return segment;
+	}
+
+	private void recover() {
+		int pos = 0;
+		while (pos + RECORD <= buffer.capacity() && valid(pos)) {
+			long millis = buffer.getLong(pos + HEADER);
+			firstMillis = Math.min(firstMillis, millis);
+			lastMillis = Math.max(lastMillis, millis);
+			lastSequence = buffer.getLong(pos + HEADER + 8);
+			index(buffer.getLong(pos + HEADER + 16), buffer.getLong(pos + HEADER + 24));
+			pos += RECORD;
+		}
+		if (pos + RECORD <= buffer.capacity() && buffer.getInt(pos) != 0) {
+			// Yarımçıq qeyd - növbəti yazı onun üzərinə düşəcək
+			buffer.put(pos, new byte[RECORD]);
+		}
+		writePosition = pos;
+	}
+
+	private boolean valid(int pos) {
+		return buffer.getInt(pos) == PAYLOAD && buffer.getInt(pos + 4) == crc(pos);
+	}
+
+	private int crc(int pos) {
+		CRC32C crc = new CRC32C();
+		crc.update(buffer.slice(pos + HEADER, PAYLOAD));
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * @return seqmentdə yer qalmayıbsa false
+	 */
+	boolean append(long sequence, long millis, UUID orderId, UUID userId, OrderStatus from, OrderStatus to) {
+		int pos = writePosition;
+		if (pos + RECORD > buffer.capacity()) {
+			return false;
+		}
+
+		int p = pos + HEADER;
+		buffer.putLong(p, millis);
+		buffer.putLong(p + 8, sequence);
+		buffer.putLong(p + 16, orderId.getMostSignificantBits());
+		buffer.putLong(p + 24, orderId.getLeastSignificantBits());
+		buffer.putLong(p + 32, userId == null ? 0 : userId.getMostSignificantBits());
+		buffer.putLong(p + 40, userId == null ? 0 : userId.getLeastSignificantBits());
+		buffer.put(p + 48, (byte) (from == null ? 0 : from.ordinal() + 1));
+		buffer.put(p + 49, (byte) (to == null ? 0 : to.ordinal() + 1));
+		buffer.putInt(pos + 4, crc(pos));
+		buffer.putInt(pos, PAYLOAD);
+		index(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+
+		firstMillis = Math.min(firstMillis, millis);
+		lastMillis = Math.max(lastMillis, millis);
+		lastSequence = sequence;
+		writePosition = pos + RECORD;
+		return true;
+	}
+
+	void force() {
+		buffer.force();
+	}
+
+	void delete() throws IOException {
+		Files.deleteIfExists(path);
+	}
+
+	boolean isEmpty() {
+		return writePosition == 0;
+	}
+
+	long baseSequence() {
+		return baseSequence;
+	}
+
+	long lastSequence() {
+		return lastSequence;
+	}
+
+	long firstMillis() {
+		return firstMillis;
+	}
+
+	long lastMillis() {
+		return lastMillis;
+	}
+
+	/**
+	 * Çağırış anına qədər yazılmış qeydlər üzrə iterator
+	 */
+	Iterator<OrderJournalEntry> iterator() {
+		int limit = writePosition;
+		return new Iterator<>() {
+
+			private int pos;
+
+			@Override
+			public boolean hasNext() {
+				return pos < limit;
+			}
+
+			@Override
+			public OrderJournalEntry next() {
+				if (pos >= limit) {
+					throw new NoSuchElementException();
+				}
+				OrderJournalEntry entry = read(pos + HEADER);
+				pos += RECORD;
+				return entry;
+			}
+		};
+	}
+
+	/**
+	 * Çağırış anına qədər yazılmış, yalnız verilən sifarişə aid qeydlər üzrə
+	 * iterator. Filtr sifarişi rədd edirsə seqment oxunmur, əks halda yalnız
+	 * orderId baytları müqayisə olunur.
+	 */
+	Iterator<OrderJournalEntry> iterator(UUID orderId) {
+		int limit = writePosition;
+		long msb = orderId.getMostSignificantBits();
+		long lsb = orderId.getLeastSignificantBits();
+		if (!mightContain(msb, lsb)) {
+			return Collections.emptyIterator();
+		}
+		return new Iterator<>() {
+
+			private int pos = seek(0);
+
+			@Override
+			public boolean hasNext() {
+				return pos < limit;
+			}
+
+			@Override
+			public OrderJournalEntry next() {
+				if (pos >= limit) {
+					throw new NoSuchElementException();
+				}
+				OrderJournalEntry entry = read(pos + HEADER);
+				pos = seek(pos + RECORD);
+				return entry;
+			}
+
+			private int seek(int from) {
+				int p = from;
+				while (p < limit
+						&& (buffer.getLong(p + HEADER + 16) != msb || buffer.getLong(p + HEADER + 24) != lsb)) {
+					p += RECORD;
+				}
+				return p;
+			}
+		};
+	}
+
+	private void index(long msb, long lsb) {
+		int h1 = mix(msb);
+		int h2 = mix(lsb) | 1;
+		for (int i = 0; i < BLOOM_HASHES; i++) {
+			int bit = (h1 + i * h2) & bloomMask;
+			bloom[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	private boolean mightContain(long msb, long lsb) {
+		int h1 = mix(msb);
+		int h2 = mix(lsb) | 1;
+		for (int i = 0; i < BLOOM_HASHES; i++) {
+			int bit = (h1 + i * h2) & bloomMask;
+			if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int mix(long v) {
+		v = (v ^ (v >>> 33)) * 0xff51afd7ed558ccdL;
+		v = (v ^ (v >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return (int) (v ^ (v >>> 33));
+	}
+
+	private OrderJournalEntry read(int p) {
+		long millis = buffer.getLong(p);
+		long sequence = buffer.getLong(p + 8);
+		UUID orderId = new UUID(buffer.getLong(p + 16), buffer.getLong(p + 24));
+		long userMsb = buffer.getLong(p + 32);
+		long userLsb = buffer.getLong(p + 40);
+		UUID userId = userMsb == 0 && userLsb == 0 ? null : new UUID(userMsb, userLsb);
+		LocalDateTime at = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+		return new OrderJournalEntry(sequence, at, orderId, userId, status(buffer.get(p + 48)),
+				status(buffer.get(p + 49)));
+	}
+
+	private static OrderStatus status(byte code) {
+		return code == 0 ? null : STATUSES[code - 1];
+	}
+}
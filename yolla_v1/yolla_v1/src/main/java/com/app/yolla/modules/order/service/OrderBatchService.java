@@ -0,0 +1,137 @@
+package com.app.yolla.modules.order.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.app.yolla.modules.order.dto.OrderBatchResponse;
+import com.app.yolla.modules.order.dto.OrderBatchResult;
+import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.shared.exception.MyException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * POST /orders/batch üçün axın (streaming) emalı
+ * <p>
+ * Sorğu gövdəsi OrderCreateRequest massivi kimi element-element oxunur,
+ * bütün payload yaddaşda saxlanılmır. Sifarişlər hissələrə bölünür və hər
+ * hissə OrderService.createdOrders ilə ayrıca tranzaksiyada yazılır.
+ * <p>
+ * Obyekt olmayan və ya sifarişə çevrilə bilməyən element öz indeksi ilə
+ * səhv nəticə alır, qalanlar emal olunur. Sorğu xəta ilə bitərsə (pozulmuş
+ * JSON, hissənin yazılmaması) əvvəlki hissələr artıq yazılıb - onların
+ * nəticələri cavabda qalır, xəta isə error sahəsində qaytarılır.
+ */
+@Service
+public class OrderBatchService {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private Validator validator;
+
+	@Value("${orders.batch.chunk-size:100}")
+	private int chunkSize;
+
+	public OrderBatchResponse importOrders(InputStream body) {
+		OrderBatchResponse response = new OrderBatchResponse();
+		List<OrderCreateRequest> chunk = new ArrayList<>(chunkSize);
+		List<Integer> indexes = new ArrayList<>(chunkSize);
+		List<OrderBatchResult> invalid = new ArrayList<>();
+
+		try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new MyException("Sorğu gövdəsi sifariş massivi olmalıdır");
+			}
+
+			JsonStreamContext array = parser.getParsingContext();
+			int index = 0;
+			for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+				if (token == null) {
+					throw new MyException("Sorğu gövdəsi yarımçıq bitib");
+				}
+				OrderCreateRequest request = null;
+				String error;
+				if (token != JsonToken.START_OBJECT) {
+					parser.skipChildren();
+					error = "Element sifariş obyekti deyil";
+				} else {
+					try {
+						request = parser.readValueAs(OrderCreateRequest.class);
+						error = validate(request);
+					} catch (JsonMappingException e) {
+						// Elementin qalanı ötürülür - növbəti element massivin içindən oxunur
+						while (parser.getParsingContext() != array) {
+							if (parser.nextToken() == null) {
+								throw new MyException("Sorğu gövdəsi yarımçıq bitib");
+							}
+						}
+						error = "Sifariş oxunmadı: " + e.getOriginalMessage();
+					}
+				}
+				if (error != null) {
+					invalid.add(OrderBatchResult.failed(index, error));
+				} else {
+					chunk.add(request);
+					indexes.add(index);
+				}
+				index++;
+
+				if (chunk.size() == chunkSize) {
+					flush(chunk, indexes, invalid, response);
+				}
+			}
+			flush(chunk, indexes, invalid, response);
+		} catch (IOException | RuntimeException e) {
+			// Yazılmamış hissənin sifarişləri də nəticədə görünür
+			response.add(invalid);
+			for (Integer i : indexes) {
+				response.add(List.of(OrderBatchResult.failed(i, "Sorğu xəta ilə bitdi, sifariş yaradılmadı")));
+			}
+			response.setError(e.getMessage());
+		}
+		return response;
+	}
+
+	private void flush(List<OrderCreateRequest> chunk, List<Integer> indexes, List<OrderBatchResult> invalid,
+			OrderBatchResponse response) {
+		response.add(invalid);
+		invalid.clear();
+		if (chunk.isEmpty()) {
+			return;
+		}
+
+		List<OrderBatchResult> results = orderService.createdOrders(chunk);
+		for (OrderBatchResult r : results) {
+			r.setIndex(indexes.get(r.getIndex()));
+		}
+		response.add(results);
+		chunk.clear();
+		indexes.clear();
+	}
+
+	private String validate(OrderCreateRequest request) {
+		Set<ConstraintViolation<OrderCreateRequest>> violations = validator.validate(request);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.iterator().next().getMessage();
+	}
+}
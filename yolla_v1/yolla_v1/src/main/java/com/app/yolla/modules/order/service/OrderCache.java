@@ -0,0 +1,121 @@
+package com.app.yolla.modules.order.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.config.ReadWriteRoutingDataSource;
+import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.dto.OrderResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * İstifadəçinin ilk sifariş səhifələrinin və ayrı-ayrı sifarişlərin keşi.
+ * Sifariş dəyişdikdə OrderChangedEvent tranzaksiya commit olunduqdan sonra
+ * yalnız həmin sifarişi və sahibinin səhifələrini keşdən çıxarır. Hit/miss
+ * sayları actuator-da cache.gets metrikası kimi görünür.
+ * <p>
+ * Oxuma replikası qoşulubsa keşə yazılan dəyərlər ayrıca readOnly
+ * tranzaksiyada primary-dən yüklənir: invalidasiyadan dərhal sonra gələn
+ * readOnly sorğu gecikən replikadan köhnə sətri oxuyub TTL boyu keşləməsin.
+ */
+@Component
+public class OrderCache {
+
+	@Value("${orders.cache.page-size:10000}")
+	private long pageCacheSize;
+
+	@Value("${orders.cache.order-size:50000}")
+	private long orderCacheSize;
+
+	@Value("${orders.cache.ttl-minutes:10}")
+	private long ttlMinutes;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+
+	@Autowired
+	private ObjectProvider<PlatformTransactionManager> transactionManager;
+
+	// Replika yoxdursa null - yükləmə çağıranın tranzaksiyasında işləyir
+	private TransactionTemplate primaryTx;
+
+	private Cache<PageKey, OrderResponse> pages;
+
+	private Cache<UUID, OrderDTO> orders;
+
+	@PostConstruct
+	void init() {
+		pages = Caffeine.newBuilder().maximumSize(pageCacheSize).expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+				.recordStats().build();
+		orders = Caffeine.newBuilder().maximumSize(orderCacheSize).expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+				.recordStats().build();
+		if (meterRegistry != null) {
+			CaffeineCacheMetrics.monitor(meterRegistry, pages, "orders.pages");
+			CaffeineCacheMetrics.monitor(meterRegistry, orders, "orders.byId");
+		}
+		if (routingDataSource.getIfAvailable() != null) {
+			primaryTx = new TransactionTemplate(transactionManager.getObject());
+			primaryTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+			primaryTx.setReadOnly(true);
+		}
+	}
+
+	/**
+	 * İstifadəçinin verilmiş ölçüdə ilk səhifəsi (cursor olmadan)
+	 */
+	public OrderResponse firstPage(UUID userId, int size, Supplier<OrderResponse> loader) {
+		return pages.get(new PageKey(userId, size), k -> fromPrimary(loader));
+	}
+
+	public OrderDTO order(UUID id, Function<UUID, OrderDTO> loader) {
+		return orders.get(id, k -> fromPrimary(() -> loader.apply(k)));
+	}
+
+	private <T> T fromPrimary(Supplier<T> loader) {
+		if (primaryTx == null) {
+			return loader.get();
+		}
+		return ReadWriteRoutingDataSource.readFromPrimary(() -> primaryTx.execute(status -> loader.get()));
+	}
+
+	/**
+	 * Tranzaksiya xaricində dərc olunsa dərhal işləyir. Səhifə ölçüsü
+	 * 1..MAX_PAGE_SIZE ilə məhdud olduğu üçün istifadəçinin bütün açarları
+	 * birbaşa silinir, keşin tam skan edilməsinə ehtiyac yoxdur.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (event.orderId() != null) {
+			orders.invalidate(event.orderId());
+		}
+		List<PageKey> keys = new ArrayList<>(OrderService.MAX_PAGE_SIZE);
+		for (int size = 1; size <= OrderService.MAX_PAGE_SIZE; size++) {
+			keys.add(new PageKey(event.userId(), size));
+		}
+		pages.invalidateAll(keys);
+	}
+
+	private record PageKey(UUID userId, int size) {
+	}
+}
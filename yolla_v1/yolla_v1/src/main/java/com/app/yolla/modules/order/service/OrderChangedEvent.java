@@ -0,0 +1,14 @@
+package com.app.yolla.modules.order.service;
+
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Sifariş yaradıldıqda, dəyişdikdə və ya silindikdə OrderService tərəfindən
+ * dərc olunur. orderId null ola bilər - onda yalnız istifadəçinin siyahısı
+ * köhnəlmiş sayılır. from yeni sifariş üçün, to isə silinmiş sifariş üçün
+ * null-dur; status dəyişməyibsə ikisi bərabərdir.
+ */
+public record OrderChangedEvent(UUID orderId, UUID userId, OrderStatus from, OrderStatus to) {
+}
@@ -0,0 +1,284 @@
+package com.app.yolla.modules.order.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.order.dto.OrderClaim;
+import com.app.yolla.modules.order.dto.OrderDispatchRow;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.OrderRepository;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.service.UserService;
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Hazırlayıcıların iş növbəsi
+ * <p>
+ * Hazır (CONFIRMED) sifarişlər yaddaşda SLA son tarixinə görə sıralanmış
+ * növbədə saxlanılır - son tarix təsdiq anı + SLA olduğu üçün ən köhnə
+ * sifariş öndədir. Hazırlayıcı bir neçə sifarişi birdən götürür: hər sifariş
+ * üçün yeganə qalib götürmə cədvəlində putIfAbsent (CAS) ilə təyin olunur,
+ * kilid yoxdur. Qazanılmış sifarişlər bazada bir şərtli UPDATE ilə təsdiqlənir
+ * - başqa tətbiq nüsxəsi eyni sifarişi artıq götürübsə, sətir sadəcə
+ * keçilir (SKIP LOCKED əvəzi). Götürmə claim-ttl-minutes müddətində
+ * göndərilməsə sifariş növbəyə qayıdır. Başqasının bazadakı aktiv götürməsi
+ * (başlanğıcda və ya uğursuz götürmədən sonra) götürmə cədvəlinə yazılır, ona
+ * görə sifariş həmin götürmənin müddəti bitəndə növbəyə qayıdır.
+ */
+@Component
+public class OrderDispatchQueue {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderDispatchQueue.class);
+
+	public static final int MAX_CLAIM = 50;
+
+	private record Ready(UUID orderId, long deadlineMillis) {
+	}
+
+	private record Claim(UUID preparerId, long deadlineMillis, long expiresMillis) {
+	}
+
+	private static final Comparator<Ready> BY_DEADLINE = Comparator.comparingLong(Ready::deadlineMillis)
+			.thenComparing(Ready::orderId);
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired
+	private UserService userService;
+
+	@Value("${orders.sla.confirmed-minutes:60}")
+	private long confirmedMinutes;
+
+	@Value("${orders.dispatch.claim-ttl-minutes:15}")
+	private long claimTtlMinutes;
+
+	private final TransactionTemplate tx;
+
+	private final ConcurrentSkipListSet<Ready> ready = new ConcurrentSkipListSet<>(BY_DEADLINE);
+
+	// Növbədəki sifarişlər - silmək üçün son tarixi tapmaq lazımdır
+	private final Map<UUID, Ready> queued = new ConcurrentHashMap<>();
+
+	private final Map<UUID, Claim> claims = new ConcurrentHashMap<>();
+
+	public OrderDispatchQueue(PlatformTransactionManager transactionManager) {
+		this.tx = new TransactionTemplate(transactionManager);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (event.orderId() == null || event.from() == event.to()) {
+			return;
+		}
+		if (event.to() == OrderStatus.CONFIRMED) {
+			enqueue(event.orderId(), System.currentTimeMillis() + Duration.ofMinutes(confirmedMinutes).toMillis());
+		} else if (event.from() == OrderStatus.CONFIRMED) {
+			remove(event.orderId());
+			claims.remove(event.orderId());
+		}
+	}
+
+	/**
+	 * Növbədən ən təcili size qədər sifarişi götürür
+	 */
+	public List<OrderClaim> claim(String preparerPhone, int size) {
+		if (size < 1 || size > MAX_CLAIM) {
+			throw new MyException("Bir dəfəyə 1-" + MAX_CLAIM + " sifariş götürmək olar");
+		}
+		UserDTO preparer = userService.findByPhoneNumber(preparerPhone);
+		long now = System.currentTimeMillis();
+		long expires = now + Duration.ofMinutes(claimTtlMinutes).toMillis();
+
+		List<Ready> won = new ArrayList<>(size);
+		Iterator<Ready> it = ready.iterator();
+		while (won.size() < size && it.hasNext()) {
+			Ready candidate = it.next();
+			Claim claim = new Claim(preparer.getId(), candidate.deadlineMillis(), expires);
+			// Yeganə qalib: yalnız putIfAbsent-i uğurlu olan thread sifarişi növbədən çıxarır
+			if (claims.putIfAbsent(candidate.orderId(), claim) == null) {
+				if (ready.remove(candidate)) {
+					queued.remove(candidate.orderId(), candidate);
+					won.add(candidate);
+				} else {
+					claims.remove(candidate.orderId(), claim);
+				}
+			}
+		}
+		if (won.isEmpty()) {
+			return List.of();
+		}
+
+		Set<UUID> ids = new HashSet<>();
+		for (Ready r : won) {
+			ids.add(r.orderId());
+		}
+		LocalDateTime expiresAt = toDateTime(expires);
+		List<UUID> confirmed = tx.execute(status -> {
+			int updated = repository.claim(ids, preparer.getId(), expiresAt, toDateTime(now));
+			return updated == ids.size() ? List.copyOf(ids) : repository.findClaimed(ids, preparer.getId());
+		});
+
+		List<OrderClaim> result = new ArrayList<>(won.size());
+		Map<UUID, Long> lost = new HashMap<>();
+		for (Ready r : won) {
+			if (confirmed != null && confirmed.contains(r.orderId())) {
+				result.add(new OrderClaim(r.orderId(), toDateTime(r.deadlineMillis()), expiresAt));
+			} else {
+				lost.put(r.orderId(), r.deadlineMillis());
+				logger.debug("Sifariş bazada götürülə bilmədi: {}", r.orderId());
+			}
+		}
+		if (!lost.isEmpty()) {
+			release(lost, now);
+		}
+		return result;
+	}
+
+	/**
+	 * Bazada götürülə bilməyən sifarişlər: başqası götürübsə onun götürməsi
+	 * yadda saxlanılır (müddəti bitəndə expireClaims növbəyə qaytarır),
+	 * götürmə artıq yoxdursa sifariş dərhal növbəyə qayıdır, CONFIRMED
+	 * olmayan sifariş isə növbədən çıxır.
+	 */
+	private void release(Map<UUID, Long> lost, long nowMillis) {
+		Map<UUID, OrderDispatchRow> rows = new HashMap<>(lost.size() * 2);
+		for (OrderDispatchRow row : repository.findDispatchRows(lost.keySet())) {
+			rows.put(row.id(), row);
+		}
+		for (Map.Entry<UUID, Long> e : lost.entrySet()) {
+			OrderDispatchRow row = rows.get(e.getKey());
+			Claim held = row == null ? null : heldClaim(row, e.getValue(), nowMillis);
+			if (held != null) {
+				claims.put(e.getKey(), held);
+			} else {
+				claims.remove(e.getKey());
+				if (row != null) {
+					enqueue(e.getKey(), e.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Müddəti bitmiş götürmələri növbəyə qaytarır (hazırlayıcı yoxa çıxıbsa)
+	 *
+	 * @return qaytarılan sifariş sayı
+	 */
+	@Scheduled(fixedDelayString = "${orders.dispatch.expire-interval-ms:30000}")
+	public int expireClaims() {
+		return expireClaims(System.currentTimeMillis());
+	}
+
+	public int expireClaims(long nowMillis) {
+		int expired = 0;
+		for (Map.Entry<UUID, Claim> e : claims.entrySet()) {
+			Claim claim = e.getValue();
+			if (claim.expiresMillis() <= nowMillis && claims.remove(e.getKey(), claim)) {
+				enqueue(e.getKey(), claim.deadlineMillis());
+				expired++;
+			}
+		}
+		if (expired > 0) {
+			logger.info("{} sifarişin götürmə müddəti bitdi, növbəyə qaytarıldı", expired);
+		}
+		return expired;
+	}
+
+	/**
+	 * Başlanğıcda CONFIRMED sifarişlərdən növbəni qurur. Bazada aktiv götürməsi
+	 * olan sifarişlər növbəyə yox, götürmə cədvəlinə düşür.
+	 *
+	 * @return növbəyə əlavə olunan sifariş sayı
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public int rebuild() {
+		TransactionTemplate readOnly = new TransactionTemplate(tx.getTransactionManager());
+		readOnly.setReadOnly(true);
+		long now = System.currentTimeMillis();
+		Integer count = readOnly.execute(status -> {
+			int n = 0;
+			long sla = Duration.ofMinutes(confirmedMinutes).toMillis();
+			try (Stream<OrderDispatchRow> rows = repository.streamDispatchRows()) {
+				for (OrderDispatchRow row : (Iterable<OrderDispatchRow>) rows::iterator) {
+					if (queued.containsKey(row.id()) || claims.containsKey(row.id())) {
+						continue;
+					}
+					long deadline = toMillis(row.since()) + sla;
+					Claim claim = heldClaim(row, deadline, now);
+					if (claim != null) {
+						claims.putIfAbsent(row.id(), claim);
+					} else {
+						enqueue(row.id(), deadline);
+						n++;
+					}
+				}
+			}
+			return n;
+		});
+		logger.info("Hazırlayıcı növbəsi quruldu: {} sifariş", count);
+		return count == null ? 0 : count;
+	}
+
+	public int size() {
+		return queued.size();
+	}
+
+	private void enqueue(UUID orderId, long deadlineMillis) {
+		Ready entry = new Ready(orderId, deadlineMillis);
+		Ready previous = queued.put(orderId, entry);
+		if (previous != null) {
+			ready.remove(previous);
+		}
+		ready.add(entry);
+	}
+
+	private void remove(UUID orderId) {
+		Ready entry = queued.remove(orderId);
+		if (entry != null) {
+			ready.remove(entry);
+		}
+	}
+
+	private static Claim heldClaim(OrderDispatchRow row, long deadlineMillis, long nowMillis) {
+		if (row.claimedBy() == null || row.claimExpiresAt() == null) {
+			return null;
+		}
+		long expires = toMillis(row.claimExpiresAt());
+		return expires > nowMillis ? new Claim(row.claimedBy(), deadlineMillis, expires) : null;
+	}
+
+	private static LocalDateTime toDateTime(long millis) {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+	}
+
+	private static long toMillis(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
@@ -0,0 +1,15 @@
+package com.app.yolla.modules.order.service;
+
+import java.util.List;
+
+import com.app.yolla.modules.order.dto.OrderEventMessage;
+
+/**
+ * Outbox hadisələrini brokerə çatdırır. Metod yalnız broker bütün hadisələri
+ * qəbul etdikdən (publisher confirm) sonra qayıtmalıdır, əks halda xəta atır.
+ * Hadisələr verilən sıra ilə göndərilməlidir.
+ */
+public interface OrderEventPublisher {
+
+	void publish(List<OrderEventMessage> events);
+}
@@ -0,0 +1,350 @@
+package com.app.yolla.modules.order.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.app.yolla.modules.order.dto.OrderStreamEvent;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sifariş status keçidlərinin SSE axını (hazırlayıcı ekranları üçün)
+ * <p>
+ * Hər commit olunmuş keçid bir dəfə JSON-a çevrilir və hazır SSE çərçivəsi
+ * kimi bütün uyğun abunəçilərə paylanır. Hər abunəçinin öz sərhədli növbəsi
+ * var: yavaş müştəridə növbə dolduqda ən köhnə çərçivə atılır, göndərmə isə
+ * ortaq göndərici thread-lərində gedir - keçidi edən sorğu gözləmir.
+ * Son çərçivələr dairəvi buferdə saxlanılır, Last-Event-ID ilə qoşulan
+ * müştəri buradan davam edir; boşluq buferdən böyükdürsə "reset" hadisəsi
+ * alır və siyahını yenidən yükləməlidir. CUSTOMER yalnız öz sifarişlərini görür.
+ * <p>
+ * emitter.send bloklayan servlet yazısıdır: TCP-si dayanmış müştəri
+ * göndərici thread-ini tutur. Göndərişi send-timeout-ms-dən uzun çəkən
+ * abunəçi atılır, onun ilişmiş thread-i əvəzinə hovuza müvəqqəti thread
+ * əlavə olunur - digər abunəçilərin göndərişi dayanmır.
+ */
+@Component
+public class OrderEventStream {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderEventStream.class);
+
+	private static final long STALLED = -1;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${orders.stream.history-size:1024}")
+	private int historySize;
+
+	@Value("${orders.stream.buffer-size:256}")
+	private int bufferSize;
+
+	@Value("${orders.stream.timeout-ms:1800000}")
+	private long timeoutMs;
+
+	@Value("${orders.stream.sender-threads:4}")
+	private int senderThreads;
+
+	@Value("${orders.stream.send-timeout-ms:10000}")
+	private long sendTimeoutMs;
+
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicLong stalled = new AtomicLong();
+
+	// Ilişmiş göndərişlərin tutduğu thread-lər - hovuz bu qədər böyüdülür
+	private int stuckSenders;
+
+	// Dairəvi bufer - this kilidi altında
+	private Frame[] history;
+
+	private int historyStart;
+
+	private int historyCount;
+
+	private long lastId;
+
+	private Frame heartbeat;
+
+	private Frame reset;
+
+	private ThreadPoolExecutor senders;
+
+	private record Frame(long id, UUID userId, OrderStatus status, Set<DataWithMediaType> payload) {
+	}
+
+	@PostConstruct
+	void init() {
+		history = new Frame[historySize];
+		heartbeat = new Frame(0, null, null, SseEmitter.event().comment("ping").build());
+		reset = new Frame(0, null, null, SseEmitter.event().name("reset").data("").build());
+
+		AtomicInteger threads = new AtomicInteger();
+		senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread t = new Thread(r, "order-stream-" + threads.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				});
+
+		if (meterRegistry != null) {
+			Gauge.builder("orders.stream.subscribers", subscribers, List::size).description("Qoşulu SSE müştəriləri")
+					.register(meterRegistry);
+			Gauge.builder("orders.stream.dropped", dropped, AtomicLong::get)
+					.description("Yavaş müştərilər üçün atılmış hadisələr").register(meterRegistry);
+			Gauge.builder("orders.stream.stalled", stalled, AtomicLong::get)
+					.description("Göndərişi ilişdiyi üçün ayrılmış müştərilər").register(meterRegistry);
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		for (Subscriber s : subscribers) {
+			s.emitter.complete();
+		}
+		senders.shutdownNow();
+	}
+
+	/**
+	 * Yeni abunəçi. statuses boşdursa bütün keçidlər göndərilir, lastEventId
+	 * verilibsə ondan sonrakı yadda qalan hadisələr əvvəlcə göndərilir.
+	 */
+	public SseEmitter subscribe(String phone, Collection<OrderStatus> statuses, Long lastEventId) {
+		UserDTO user = userService.findByPhoneNumber(phone);
+		UUID owner = user.getRole() == UserRole.CUSTOMER ? user.getId() : null;
+		Set<OrderStatus> filter = statuses == null || statuses.isEmpty() ? EnumSet.allOf(OrderStatus.class)
+				: EnumSet.copyOf(statuses);
+
+		SseEmitter emitter = createEmitter(timeoutMs);
+		Subscriber subscriber = new Subscriber(emitter, filter, owner);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(e -> subscribers.remove(subscriber));
+
+		synchronized (this) {
+			if (lastEventId != null) {
+				long oldest = historyCount == 0 ? lastId + 1 : history[historyStart].id();
+				if (lastEventId < oldest - 1) {
+					subscriber.offer(reset);
+				}
+				for (int i = 0; i < historyCount; i++) {
+					Frame frame = history[(historyStart + i) % history.length];
+					if (frame.id() > lastEventId && subscriber.accepts(frame)) {
+						subscriber.offer(frame);
+					}
+				}
+			}
+			subscribers.add(subscriber);
+		}
+		return emitter;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (event.orderId() == null || event.to() == null || event.from() == event.to()) {
+			return;
+		}
+		String json;
+		try {
+			json = objectMapper.writeValueAsString(
+					new OrderStreamEvent(event.orderId(), event.from(), event.to(), LocalDateTime.now()));
+		} catch (JsonProcessingException e) {
+			logger.error("Sifariş hadisəsi JSON-a çevrilmədi: {}", event.orderId(), e);
+			return;
+		}
+
+		synchronized (this) {
+			long id = ++lastId;
+			Frame frame = new Frame(id, event.userId(), event.to(), SseEmitter.event().id(String.valueOf(id))
+					.name("order").data(json, MediaType.APPLICATION_JSON).build());
+			if (historyCount == history.length) {
+				history[historyStart] = frame;
+				historyStart = (historyStart + 1) % history.length;
+			} else {
+				history[(historyStart + historyCount++) % history.length] = frame;
+			}
+			for (Subscriber s : subscribers) {
+				if (s.accepts(frame)) {
+					s.offer(frame);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Proksilərin boş bağlantını kəsməməsi və ölü müştərilərin aşkarlanması üçün
+	 */
+	@Scheduled(fixedRateString = "${orders.stream.heartbeat-ms:15000}")
+	public void heartbeat() {
+		for (Subscriber s : subscribers) {
+			s.offer(heartbeat);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${orders.stream.send-timeout-ms:10000}")
+	public void checkStalled() {
+		dropStalled(System.currentTimeMillis());
+	}
+
+	/**
+	 * Göndərişi sendTimeoutMs-dən çox çəkən abunəçiləri ayırır
+	 *
+	 * @return ayrılan abunəçi sayı
+	 */
+	public int dropStalled(long nowMillis) {
+		int count = 0;
+		for (Subscriber s : subscribers) {
+			long since = s.sendingSince.get();
+			if (since > 0 && nowMillis - since > sendTimeoutMs && s.sendingSince.compareAndSet(since, STALLED)) {
+				subscribers.remove(s);
+				resizeSenders(1);
+				stalled.incrementAndGet();
+				logger.warn("SSE müştərisi {} ms-dən çox cavab vermir, ayrıldı", sendTimeoutMs);
+				s.emitter.completeWithError(new IOException("Göndəriş vaxtı bitdi"));
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public int subscriberCount() {
+		return subscribers.size();
+	}
+
+	/**
+	 * Abunəçinin emitter-i - testlər yavaş müştərini təqlid etmək üçün əvəz edir
+	 */
+	protected SseEmitter createEmitter(long timeoutMs) {
+		return new SseEmitter(timeoutMs);
+	}
+
+	/**
+	 * İlişmiş göndərişin thread-i əvəzinə hovuzu böyüdür, göndəriş qayıdanda kiçildir
+	 */
+	private synchronized void resizeSenders(int delta) {
+		stuckSenders += delta;
+		int size = senderThreads + stuckSenders;
+		if (delta > 0) {
+			senders.setMaximumPoolSize(size);
+			senders.setCorePoolSize(size);
+		} else {
+			senders.setCorePoolSize(size);
+			senders.setMaximumPoolSize(size);
+		}
+	}
+
+	private class Subscriber {
+
+		private final SseEmitter emitter;
+
+		private final Set<OrderStatus> statuses;
+
+		private final UUID owner;
+
+		private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+
+		private final AtomicBoolean draining = new AtomicBoolean();
+
+		// Cari göndərişin başladığı an; göndəriş yoxdursa 0, abunəçi ayrılıbsa STALLED
+		private final AtomicLong sendingSince = new AtomicLong();
+
+		private Subscriber(SseEmitter emitter, Set<OrderStatus> statuses, UUID owner) {
+			this.emitter = emitter;
+			this.statuses = statuses;
+			this.owner = owner;
+		}
+
+		boolean accepts(Frame frame) {
+			return statuses.contains(frame.status()) && (owner == null || owner.equals(frame.userId()));
+		}
+
+		synchronized void offer(Frame frame) {
+			if (queue.size() >= bufferSize) {
+				queue.pollFirst();
+				dropped.incrementAndGet();
+			}
+			queue.addLast(frame);
+			if (draining.compareAndSet(false, true)) {
+				senders.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			while (true) {
+				Frame frame;
+				synchronized (this) {
+					frame = queue.pollFirst();
+					if (frame == null) {
+						draining.set(false);
+						return;
+					}
+				}
+				long started = System.currentTimeMillis();
+				sendingSince.set(started);
+				try {
+					// Əvvəlcədən hazırlanmış çərçivə - bütün abunəçilər eyni obyekti göndərir
+					emitter.send(frame.payload());
+				} catch (IOException | IllegalStateException e) {
+					// Müştəri bağlantını kəsib
+					subscribers.remove(this);
+					synchronized (this) {
+						queue.clear();
+					}
+					return;
+				} finally {
+					if (!sendingSince.compareAndSet(started, 0)) {
+						// Göndəriş zamanı ayrılıb - əlavə thread hovuzdan çıxır, növbə atılır
+						resizeSenders(-1);
+						synchronized (this) {
+							queue.clear();
+						}
+					}
+				}
+				if (sendingSince.get() == STALLED) {
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,275 @@
+package com.app.yolla.modules.order.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.app.yolla.modules.order.dto.OrderExportFormat;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.shared.exception.MyException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Adminlər üçün sifarişlərin axınla (streaming) ixracı
+ * <p>
+ * Sətirlər forward-only JDBC cursor ilə fetch-size qədər hissələrlə oxunur
+ * və dərhal cavaba yazılır - nə entity, nə də DTO siyahısı yaradılır, ona
+ * görə yaddaş istifadəsi sifarişlərin sayından asılı deyil. MySQL-də cursor
+ * yalnız URL-də useCursorFetch=true olduqda işləyir.
+ */
+@Service
+public class OrderExportService {
+
+	private static final String SELECT_SQL = "SELECT o.id, o.user_id, o.status, o.total_amount, o.delivery_address, "
+			+ "o.notes, o.created_at, o.delivery_time, i.product_id, p.name, i.quantity, i.price FROM orders o "
+			+ "LEFT JOIN order_items i ON i.order_id = o.id LEFT JOIN products p ON p.id = i.product_id "
+			+ "WHERE o.created_at >= ? AND o.created_at < ?";
+
+	private static final String ORDER_BY = " ORDER BY o.created_at, o.id";
+
+	private static final String CSV_HEADER = "orderId,userId,status,totalAmount,deliveryAddress,notes,createdAt,"
+			+ "deliveryTime,productId,productName,quantity,price";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${orders.export.fetch-size:1000}")
+	private int fetchSize;
+
+	/**
+	 * Parametrlər cavab axını başlamazdan əvvəl yoxlanılır, çünki sonra xəta
+	 * statusu qaytarmaq mümkün deyil.
+	 */
+	public void validate(LocalDate from, LocalDate to) {
+		if (from == null || to == null) {
+			throw new MyException("Tarix aralığı göstərilməlidir");
+		}
+		if (from.isAfter(to)) {
+			throw new MyException("Başlanğıc tarixi son tarixdən sonra ola bilməz");
+		}
+	}
+
+	/**
+	 * [from, to] günlərinin sifarişlərini yaradılma sırası ilə yazır
+	 *
+	 * @return yazılan sifariş sayı
+	 */
+	public long export(LocalDate from, LocalDate to, OrderStatus status, OrderExportFormat format, OutputStream out)
+			throws IOException {
+		validate(from, to);
+		String sql = SELECT_SQL + (status == null ? "" : " AND o.status = ?") + ORDER_BY;
+
+		RowSink sink = format == OrderExportFormat.CSV ? new CsvSink(out) : new NdjsonSink(out);
+		long[] orders = { 0 };
+		try {
+			jdbcTemplate.query(con -> {
+				PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY);
+				ps.setFetchSize(fetchSize);
+				ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+				ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+				if (status != null) {
+					ps.setString(3, status.name());
+				}
+				return ps;
+			}, rs -> {
+				// Sətirlər sifarişə görə sıralıdır - id dəyişəndə yeni sifariş başlayır
+				String id = rs.getString(1);
+				try {
+					if (!id.equals(sink.currentOrder)) {
+						sink.order(id, rs);
+						orders[0]++;
+					}
+					if (rs.getString(9) != null) {
+						sink.item(rs);
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		sink.finish();
+		return orders[0];
+	}
+
+	/**
+	 * user_id MySQL-də BINARY(16), H2-də UUID tipindədir
+	 */
+	private static String userId(ResultSet rs) throws SQLException {
+		Object value = rs.getObject(2);
+		if (value instanceof byte[] bytes) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			return new UUID(buffer.getLong(), buffer.getLong()).toString();
+		}
+		return value == null ? null : value.toString();
+	}
+
+	private static String timestamp(ResultSet rs, int column) throws SQLException {
+		Timestamp ts = rs.getTimestamp(column);
+		return ts == null ? null : ts.toLocalDateTime().toString();
+	}
+
+	private abstract static class RowSink {
+
+		String currentOrder;
+
+		abstract void order(String id, ResultSet rs) throws SQLException, IOException;
+
+		abstract void item(ResultSet rs) throws SQLException, IOException;
+
+		abstract void finish() throws IOException;
+	}
+
+	/**
+	 * Hər sifariş öz sətirləri ilə bir JSON obyekti və bir sətirdir
+	 */
+	private class NdjsonSink extends RowSink {
+
+		private final JsonGenerator gen;
+
+		NdjsonSink(OutputStream out) throws IOException {
+			gen = objectMapper.getFactory().createGenerator(out);
+			gen.setPrettyPrinter(new MinimalPrettyPrinter(""));
+		}
+
+		@Override
+		void order(String id, ResultSet rs) throws SQLException, IOException {
+			closeOrder();
+			currentOrder = id;
+			gen.writeStartObject();
+			gen.writeStringField("id", id);
+			gen.writeStringField("userId", userId(rs));
+			gen.writeStringField("status", rs.getString(3));
+			gen.writeNumberField("totalAmount", rs.getBigDecimal(4));
+			gen.writeStringField("deliveryAddress", rs.getString(5));
+			gen.writeStringField("notes", rs.getString(6));
+			gen.writeStringField("createdAt", timestamp(rs, 7));
+			gen.writeStringField("deliveryTime", timestamp(rs, 8));
+			gen.writeArrayFieldStart("items");
+		}
+
+		@Override
+		void item(ResultSet rs) throws SQLException, IOException {
+			gen.writeStartObject();
+			gen.writeStringField("productId", rs.getString(9));
+			gen.writeStringField("productName", rs.getString(10));
+			gen.writeNumberField("quantity", rs.getInt(11));
+			gen.writeNumberField("price", rs.getBigDecimal(12));
+			gen.writeEndObject();
+		}
+
+		@Override
+		void finish() throws IOException {
+			closeOrder();
+			gen.flush();
+		}
+
+		private void closeOrder() throws IOException {
+			if (currentOrder != null) {
+				gen.writeEndArray();
+				gen.writeEndObject();
+				gen.writeRaw('\n');
+			}
+		}
+	}
+
+	/**
+	 * Hər məhsul sətri ayrıca CSV sətridir, sifariş sütunları təkrarlanır
+	 */
+	private static class CsvSink extends RowSink {
+
+		private final Writer writer;
+
+		private final String[] order = new String[8];
+
+		CsvSink(OutputStream out) throws IOException {
+			writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+		}
+
+		@Override
+		void order(String id, ResultSet rs) throws SQLException, IOException {
+			currentOrder = id;
+			order[0] = id;
+			order[1] = userId(rs);
+			order[2] = rs.getString(3);
+			order[3] = plain(rs.getBigDecimal(4));
+			order[4] = rs.getString(5);
+			order[5] = rs.getString(6);
+			order[6] = timestamp(rs, 7);
+			order[7] = timestamp(rs, 8);
+			if (rs.getString(9) == null) {
+				// Sətirsiz sifariş də ixracda görünməlidir
+				line(null, null, null, null);
+			}
+		}
+
+		@Override
+		void item(ResultSet rs) throws SQLException, IOException {
+			line(rs.getString(9), rs.getString(10), String.valueOf(rs.getInt(11)), plain(rs.getBigDecimal(12)));
+		}
+
+		@Override
+		void finish() throws IOException {
+			writer.flush();
+		}
+
+		private void line(String productId, String productName, String quantity, String price) throws IOException {
+			for (String value : order) {
+				write(value);
+				writer.write(',');
+			}
+			write(productId);
+			writer.write(',');
+			write(productName);
+			writer.write(',');
+			write(quantity);
+			writer.write(',');
+			write(price);
+			writer.write('\n');
+		}
+
+		private void write(String value) throws IOException {
+			if (value == null) {
+				return;
+			}
+			if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+					&& value.indexOf('\r') < 0) {
+				writer.write(value);
+				return;
+			}
+			writer.write('"');
+			writer.write(value.replace("\"", "\"\""));
+			writer.write('"');
+		}
+
+		private static String plain(BigDecimal value) {
+			return value == null ? null : value.toPlainString();
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package com.app.yolla.modules.order.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.entity.IdempotencyRecord;
+import com.app.yolla.modules.order.repository.IdempotencyRecordRepository;
+import com.app.yolla.modules.user.service.UserService;
+import com.app.yolla.shared.exception.MyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * POST /orders üçün Idempotency-Key dəstəyi
+ * <p>
+ * İstifadəçi və açar üzrə ilk nəticə məhdud Caffeine keşində və
+ * idempotency_keys cədvəlində saxlanılır. Təkrar sorğu sifariş və məhsullara
+ * toxunmadan saxlanılan cavabı alır. Eyni açarla paralel gələn sorğular
+ * birincinin bitməsini gözləyir.
+ */
+@Service
+public class OrderIdempotencyService {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+	private static final int MAX_KEY_LENGTH = 64;
+
+	@Autowired
+	private IdempotencyRecordRepository repository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${idempotency.cache-size:10000}")
+	private long cacheSize;
+
+	@Value("${idempotency.ttl-hours:24}")
+	private long ttlHours;
+
+	@Value("${idempotency.wait-seconds:30}")
+	private long waitSeconds;
+
+	private final TransactionTemplate tx;
+
+	private final ConcurrentHashMap<String, CompletableFuture<OrderDTO>> inFlight = new ConcurrentHashMap<>();
+
+	private Cache<String, OrderDTO> cache;
+
+	public OrderIdempotencyService(PlatformTransactionManager transactionManager) {
+		this.tx = new TransactionTemplate(transactionManager);
+	}
+
+	@PostConstruct
+	void init() {
+		cache = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(Duration.ofHours(ttlHours)).build();
+	}
+
+	/**
+	 * Sifarişi açar üzrə bir dəfə yaradır. Açar əvvəl istifadə olunubsa
+	 * saxlanılan cavab qaytarılır. Sifariş və açar eyni tranzaksiyada yazılır.
+	 */
+	public OrderDTO execute(String key, Supplier<OrderDTO> action) {
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			throw new MyException("Idempotency-Key 1-64 simvol olmalıdır");
+		}
+		String phone = (String) userService.findPhone();
+		String scope = phone + ':' + key;
+
+		while (true) {
+			OrderDTO cached = cache.getIfPresent(scope);
+			if (cached != null) {
+				return cached;
+			}
+
+			CompletableFuture<OrderDTO> mine = new CompletableFuture<>();
+			CompletableFuture<OrderDTO> running = inFlight.putIfAbsent(scope, mine);
+			if (running != null) {
+				OrderDTO result = await(running);
+				if (result != null) {
+					return result;
+				}
+				// Birinci sorğu uğursuz oldu - növbəti cəhd özü icra edir
+				continue;
+			}
+
+			try {
+				OrderDTO result = runOnce(phone, key, action);
+				cache.put(scope, result);
+				mine.complete(result);
+				return result;
+			} catch (RuntimeException e) {
+				mine.complete(null);
+				throw e;
+			} finally {
+				inFlight.remove(scope, mine);
+			}
+		}
+	}
+
+	/**
+	 * Köhnə açarlar cədvəldən silinir ki, cədvəl kiçik qalsın
+	 */
+	@Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+	public void purgeExpired() {
+		Integer deleted = tx.execute(status -> repository.deleteOlderThan(LocalDateTime.now().minusHours(ttlHours)));
+		if (deleted != null && deleted > 0) {
+			logger.debug("Köhnə idempotency açarları silindi: {}", deleted);
+		}
+	}
+
+	private OrderDTO runOnce(String phone, String key, Supplier<OrderDTO> action) {
+		Optional<IdempotencyRecord> stored = repository.findByUserPhoneAndIdempotencyKey(phone, key);
+		if (stored.isPresent()) {
+			return read(stored.get());
+		}
+
+		try {
+			return tx.execute(status -> {
+				OrderDTO result = action.get();
+
+				IdempotencyRecord record = new IdempotencyRecord();
+				record.setUserPhone(phone);
+				record.setIdempotencyKey(key);
+				record.setOrderId(result.getId());
+				record.setResponse(write(result));
+				record.setCreatedAt(LocalDateTime.now());
+				repository.saveAndFlush(record);
+				return result;
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Başqa tətbiq nüsxəsi eyni açarla artıq sifariş yaradıb
+			return read(repository.findByUserPhoneAndIdempotencyKey(phone, key).orElseThrow(() -> e));
+		}
+	}
+
+	private OrderDTO await(CompletableFuture<OrderDTO> running) {
+		try {
+			return running.get(waitSeconds, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MyException("Eyni açarla sorğu hələ icra olunur");
+		} catch (TimeoutException | ExecutionException e) {
+			throw new MyException("Eyni açarla sorğu hələ icra olunur");
+		}
+	}
+
+	private String write(OrderDTO dto) {
+		try {
+			return objectMapper.writeValueAsString(dto);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private OrderDTO read(IdempotencyRecord record) {
+		try {
+			return objectMapper.readValue(record.getResponse(), OrderDTO.class);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -8,22 +8,34 @@ import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.app.yolla.modules.order.dto.OrderItemPageRow;
 import com.app.yolla.modules.order.dto.OrderItemResponse;
 import com.app.yolla.modules.order.dto.OrderItemResponseDTO;
 import com.app.yolla.modules.order.entity.Order;
-import com.app.yolla.modules.order.entity.OrderItem;
 import com.app.yolla.modules.order.repository.OrderItemRepository;
-import com.app.yolla.modules.product.entity.Product;
 import com.app.yolla.modules.product.service.ProductService;
 import com.app.yolla.modules.user.dto.UserDTO;
 import com.app.yolla.modules.user.service.UserService;
+import com.app.yolla.shared.exception.MyException;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
 @Service
 @Transactional
 public class OrderItemService {
 
+	private static final int MAX_PAGE_SIZE = 500;
+
+	/**
+	 * Sətirlər id üzrə sıralanır - (order_id, id) indeksi ilə səhifə indeksdən
+	 * oxunur
+	 */
+	private static final String PAGE_QUERY = "select new com.app.yolla.modules.order.dto.OrderItemPageRow("
+			+ "o.userId, o.status, o.totalAmount, o.createdAt, p.id, p.name, i.quantity, p.price) "
+			+ "from Order o left join o.items i left join i.product p where o.id = :id order by i.id";
+
 	@Autowired
 	private OrderItemRepository repository;
 
@@ -39,38 +51,67 @@ public class OrderItemService {
 	@Autowired
 	private UserService userService;
 
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Sifarişin başlığı və sətirlərinin bir səhifəsi. Hər ikisi bir sorğu ilə
+	 * oxunur, sətirlərin hamısı yüklənmir.
+	 */
+	@org.springframework.transaction.annotation.Transactional(readOnly = true)
 	public OrderItemResponse getOrderItems(UUID id, Integer length, Integer begin) {
+		if (begin == null || begin < 0) {
+			throw new MyException("Başlanğıc mənfi ola bilməz");
+		}
+		if (length == null || length <= 0 || length > MAX_PAGE_SIZE) {
+			throw new MyException("Səhifə ölçüsü 1-" + MAX_PAGE_SIZE + " aralığında olmalıdır");
+		}
 		String phone = (String) userService.findPhone();
 		UserDTO en = userService.findByPhoneNumber(phone);
 
-		List<OrderItem> orderItems = repository.findByOrderId(id);
-		List<OrderItemResponseDTO> list = new ArrayList<OrderItemResponseDTO>();
+		List<OrderItemPageRow> rows = entityManager.createQuery(PAGE_QUERY, OrderItemPageRow.class)
+				.setParameter("id", id).setFirstResult(begin).setMaxResults(length).getResultList();
 
-		Order op = orderService.findByOrder(id);
-		if (!op.getUserId().equals(en.getId())) {
-			throw new RuntimeException("Bu sifariş sizə aid deyil!");
+		OrderItemResponse resp = new OrderItemResponse();
+		resp.setOrderId(id);
+		List<OrderItemResponseDTO> list = new ArrayList<OrderItemResponseDTO>(rows.size());
+		if (rows.isEmpty()) {
+			// Səhifə sətirlərin sonundan kənardadır - başlıq ayrıca oxunur
+			Order op = orderService.findByOrder(id);
+			checkOwner(op.getUserId(), en);
+			resp.setStatus(op.getStatus().name());
+			resp.setCreatedAt(op.getCreatedAt());
+			resp.setTotalAmount(op.getTotalAmount());
+			resp.setItems(list);
+			return resp;
 		}
 
-		for (OrderItem or : orderItems) {
-			// Order or = or.getOrder();
-
+		OrderItemPageRow header = rows.get(0);
+		checkOwner(header.userId(), en);
+		for (OrderItemPageRow row : rows) {
+			if (row.productId() == null) {
+				continue;
+			}
 			OrderItemResponseDTO dto = new OrderItemResponseDTO();
-			Product pr = or.getProduct();
-			dto.setPrice(pr.getPrice());
-			dto.setProductId(pr.getId());
-			dto.setProductName(pr.getName());
-			dto.setQuantity(or.getQuantity());
+			dto.setPrice(row.price());
+			dto.setProductId(row.productId());
+			dto.setProductName(row.productName());
+			dto.setQuantity(row.quantity());
 
 			list.add(dto);
 		}
 
-		OrderItemResponse resp = new OrderItemResponse();
-		resp.setOrderId(id);
-		resp.setStatus("PENDING");
-		resp.setCreatedAt(op.getCreatedAt());
-		resp.setTotalAmount(op.getTotalAmount());
+		resp.setStatus(header.status().name());
+		resp.setCreatedAt(header.createdAt());
+		resp.setTotalAmount(header.totalAmount());
 		resp.setItems(list);
 
 		return resp;
 	}
+
+	private static void checkOwner(UUID ownerId, UserDTO user) {
+		if (!ownerId.equals(user.getId())) {
+			throw new MyException("Bu sifariş sizə aid deyil!");
+		}
+	}
 }
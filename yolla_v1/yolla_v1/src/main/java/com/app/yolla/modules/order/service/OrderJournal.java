@@ -0,0 +1,455 @@
+package com.app.yolla.modules.order.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.yolla.modules.order.dto.OrderJournalEntry;
+import com.app.yolla.modules.order.dto.OrderStatusRow;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.OrderRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sifariş dəyişikliklərinin yalnız əlavə olunan (append-only) jurnalı
+ * <p>
+ * Hər commit olunmuş OrderChangedEvent yaddaşa xəritələnmiş seqment fayllarına
+ * sabit ölçülü, CRC ilə qorunan qeyd kimi yazılır - MySQL-ə əlavə sətir
+ * yazılmır. Hadisələr tranzaksiya boyu toplanır və commit-dən sonra birlikdə
+ * yazılır, ona görə toplu əməliyyat sifariş sayı qədər yox, bir dəfə gözləyir.
+ * Disk sinxronizasiyası (fsync) qrup şəklində edilir: fon thread-i toplanmış
+ * yazıları bir force() ilə diskə salır, sync rejimində yazan thread öz
+ * qeydləri diskə düşənə qədər gözləyir. Seqment dolduqda yenisi açılır, köhnə
+ * seqmentlər saxlama müddəti bitdikdə silinir (compact).
+ * <p>
+ * Jurnal audit və oxuma modellərinin yenidən qurulması üçündür: replay sifariş
+ * və ya zaman aralığı üzrə qeydləri sıra ilə axın (Stream) kimi qaytarır.
+ * Jurnal bir tətbiq nüsxəsi üçün nəzərdə tutulub.
+ * <p>
+ * Qeydlər baza commit-indən sonra yazılır: commit ilə yazı arasında proses
+ * çöksə (və ya yazı xəta versə) dəyişiklik jurnala düşmür. Başlanğıcda
+ * {@link #repair()} jurnalın son qeydindən repair-lookback-minutes əvvələ qədər
+ * statusu dəyişmiş sifarişləri (status_changed_at) jurnaldakı son statusla
+ * müqayisə edir və fərqlər üçün bərpa qeydi yazır. Bu yalnız son statusu
+ * bərpa edir: itmiş aralıq keçidlər, statusu dəyişməyən redaktələr və
+ * silinmələr bərpa olunmur, bərpa qeydinin vaxtı isə yazıldığı andır.
+ */
+@Component
+public class OrderJournal {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderJournal.class);
+
+	private final Path directory;
+
+	private final int segmentBytes;
+
+	private final long flushIntervalMs;
+
+	private final boolean syncCommit;
+
+	private final int retentionDays;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition written = lock.newCondition();
+
+	private final Condition durable = lock.newCondition();
+
+	private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+
+	// Son force()-dan bəri yazılmış seqmentlər (kilid altında)
+	private final Set<JournalSegment> dirty = new LinkedHashSet<>();
+
+	private JournalSegment active;
+
+	private long nextSequence;
+
+	private long durableSequence;
+
+	private boolean running;
+
+	private Thread flusher;
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Value("${orders.journal.repair-lookback-minutes:10}")
+	private long repairLookbackMinutes;
+
+	public OrderJournal(@Value("${orders.journal.dir:data/order-journal}") String directory,
+			@Value("${orders.journal.segment-bytes:67108864}") int segmentBytes,
+			@Value("${orders.journal.flush-interval-ms:5}") long flushIntervalMs,
+			@Value("${orders.journal.sync-commit:true}") boolean syncCommit,
+			@Value("${orders.journal.retention-days:90}") int retentionDays) {
+		this.directory = Paths.get(directory);
+		this.segmentBytes = segmentBytes;
+		this.flushIntervalMs = flushIntervalMs;
+		this.syncCommit = syncCommit;
+		this.retentionDays = retentionDays;
+	}
+
+	/**
+	 * Mövcud seqmentləri açır, sonuncunun yarımçıq qeydini atır və flusher-i başladır
+	 */
+	@PostConstruct
+	public void open() throws IOException {
+		Files.createDirectories(directory);
+		List<Path> files = new ArrayList<>();
+		try (Stream<Path> list = Files.list(directory)) {
+			list.filter(f -> f.getFileName().toString().endsWith(".log")).forEach(files::add);
+		}
+		files.sort((a, b) -> Long.compare(JournalSegment.baseSequence(a), JournalSegment.baseSequence(b)));
+
+		for (Path file : files) {
+			segments.add(JournalSegment.open(file, segmentBytes));
+		}
+		if (segments.isEmpty()) {
+			segments.add(JournalSegment.open(JournalSegment.fileName(directory, 1), segmentBytes));
+		}
+		active = segments.get(segments.size() - 1);
+		nextSequence = active.lastSequence() + 1;
+		durableSequence = nextSequence - 1;
+
+		running = true;
+		flusher = new Thread(this::flushLoop, "order-journal-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+		logger.info("Sifariş jurnalı açıldı: {} seqment, növbəti sequence={}", segments.size(), nextSequence);
+	}
+
+	@PreDestroy
+	public void close() throws InterruptedException {
+		lock.lock();
+		try {
+			running = false;
+			written.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		flusher.join();
+	}
+
+	/**
+	 * Commit olunub jurnala düşməmiş status dəyişikliklərini bazadan bərpa edir
+	 *
+	 * @return yazılan bərpa qeydlərinin sayı
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public int repair() {
+		long last = lastMillis();
+		if (last == Long.MIN_VALUE) {
+			// Boş jurnal - müqayisə ediləcək nöqtə yoxdur
+			return 0;
+		}
+		LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(last), ZoneId.systemDefault())
+				.minusMinutes(repairLookbackMinutes);
+		int repaired = repair(repository.findStatusesChangedSince(since));
+		if (repaired > 0) {
+			logger.warn("Sifariş jurnalında olmayan {} status dəyişikliyi bərpa olundu", repaired);
+		}
+		return repaired;
+	}
+
+	/**
+	 * Hər sifarişin jurnaldakı son statusu bazadakından fərqlidirsə
+	 * (son status → bazadakı status) qeydi yazır
+	 *
+	 * @return yazılan bərpa qeydlərinin sayı
+	 */
+	public int repair(List<OrderStatusRow> current) {
+		List<OrderChangedEvent> missing = new ArrayList<>();
+		for (OrderStatusRow row : current) {
+			OrderStatus journaled = replay(row.id()).reduce((a, b) -> b).map(OrderJournalEntry::to).orElse(null);
+			if (journaled != row.status()) {
+				missing.add(new OrderChangedEvent(row.id(), row.userId(), journaled, row.status()));
+			}
+		}
+		if (!missing.isEmpty()) {
+			appendAll(missing);
+		}
+		return missing.size();
+	}
+
+	@EventListener
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (event.orderId() == null) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			appendCommitted(List.of(event));
+			return;
+		}
+		buffer().events.add(event);
+	}
+
+	/**
+	 * Qeydi aktiv seqmentə yazır. sync-commit aktivdirsə qeyd diskə düşənə qədər
+	 * gözləyir - eyni anda gələn yazılar bir force() ilə sinxronlaşdırılır.
+	 *
+	 * @return qeydin sequence nömrəsi
+	 */
+	public long append(UUID orderId, UUID userId, OrderStatus from, OrderStatus to) {
+		return appendAll(List.of(new OrderChangedEvent(orderId, userId, from, to)));
+	}
+
+	/**
+	 * Qeydləri ardıcıl sequence-lərlə bir kilid altında yazır, sync-commit
+	 * aktivdirsə yalnız sonuncunun diskə düşməsini gözləyir.
+	 *
+	 * @return sonuncu qeydin sequence nömrəsi
+	 */
+	public long appendAll(List<OrderChangedEvent> events) {
+		lock.lock();
+		try {
+			if (!running) {
+				throw new IllegalStateException("Sifariş jurnalı bağlıdır");
+			}
+			long millis = System.currentTimeMillis();
+			for (OrderChangedEvent e : events) {
+				long sequence = nextSequence;
+				if (!active.append(sequence, millis, e.orderId(), e.userId(), e.from(), e.to())) {
+					roll(sequence);
+					active.append(sequence, millis, e.orderId(), e.userId(), e.from(), e.to());
+				}
+				nextSequence++;
+				dirty.add(active);
+			}
+			written.signal();
+
+			long last = nextSequence - 1;
+			if (syncCommit) {
+				while (durableSequence < last) {
+					if (!running) {
+						throw new IllegalStateException("Sifariş jurnalı bağlıdır");
+					}
+					durable.awaitUninterruptibly();
+				}
+			}
+			return last;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Bir sifarişin bütün tarixçəsi (sequence sırası ilə). Sifarişi ehtiva
+	 * etməyən seqmentlər Bloom filtri ilə ötürülür.
+	 */
+	public Stream<OrderJournalEntry> replay(UUID orderId) {
+		return stream(List.copyOf(segments), s -> s.iterator(orderId));
+	}
+
+	/**
+	 * [from, to) aralığında yazılmış qeydlər. Aralığa düşməyən seqmentlər oxunmur.
+	 */
+	public Stream<OrderJournalEntry> replay(LocalDateTime from, LocalDateTime to) {
+		long fromMillis = from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		long toMillis = to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+		List<JournalSegment> selected = new ArrayList<>();
+		for (JournalSegment s : segments) {
+			if (!s.isEmpty() && s.lastMillis() >= fromMillis && s.firstMillis() < toMillis) {
+				selected.add(s);
+			}
+		}
+		return stream(selected, JournalSegment::iterator).filter(e -> !e.at().isBefore(from) && e.at().isBefore(to));
+	}
+
+	/**
+	 * Saxlama müddəti bitmiş bağlı seqmentləri silir (retention-days 0 olduqda söndürülüb)
+	 *
+	 * @return silinən seqmentlərin sayı
+	 */
+	@Scheduled(fixedDelayString = "${orders.journal.compact-interval-ms:3600000}")
+	public int compact() {
+		if (retentionDays <= 0) {
+			return 0;
+		}
+		long cutoff = LocalDateTime.now().minusDays(retentionDays).atZone(ZoneId.systemDefault()).toInstant()
+				.toEpochMilli();
+
+		int removed = 0;
+		for (JournalSegment s : segments) {
+			// Aktiv seqment və ondan sonrakılar heç vaxt silinmir
+			if (s == active) {
+				break;
+			}
+			if (s.lastMillis() >= cutoff) {
+				break;
+			}
+			segments.remove(s);
+			try {
+				s.delete();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			removed++;
+		}
+		if (removed > 0) {
+			logger.info("Sifariş jurnalından {} köhnə seqment silindi", removed);
+		}
+		return removed;
+	}
+
+	private void appendCommitted(List<OrderChangedEvent> events) {
+		if (events.isEmpty()) {
+			return;
+		}
+		try {
+			appendAll(events);
+		} catch (RuntimeException e) {
+			// Sifarişlər artıq commit olunub - jurnal xətası sorğunu pozmamalıdır
+			logger.error("{} sifariş dəyişikliyi jurnala yazılmadı", events.size(), e);
+		}
+	}
+
+	/**
+	 * Cari tranzaksiyanın buferi. Sinxronizasiyalar dayandırılmış (suspended)
+	 * tranzaksiya ilə birlikdə gizləndiyi üçün daxili REQUIRES_NEW öz buferini alır.
+	 */
+	private Buffer buffer() {
+		for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+			if (s instanceof Buffer buffer && buffer.owner() == this) {
+				return buffer;
+			}
+		}
+		Buffer buffer = new Buffer();
+		TransactionSynchronizationManager.registerSynchronization(buffer);
+		return buffer;
+	}
+
+	private class Buffer implements TransactionSynchronization {
+
+		private final List<OrderChangedEvent> events = new ArrayList<>();
+
+		private OrderJournal owner() {
+			return OrderJournal.this;
+		}
+
+		@Override
+		public void afterCommit() {
+			appendCommitted(events);
+		}
+	}
+
+	private long lastMillis() {
+		for (int i = segments.size() - 1; i >= 0; i--) {
+			JournalSegment s = segments.get(i);
+			if (!s.isEmpty()) {
+				return s.lastMillis();
+			}
+		}
+		return Long.MIN_VALUE;
+	}
+
+	private void roll(long sequence) {
+		try {
+			active = JournalSegment.open(JournalSegment.fileName(directory, sequence), segmentBytes);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		segments.add(active);
+		logger.debug("Sifariş jurnalında yeni seqment: {}", sequence);
+	}
+
+	/**
+	 * Qrup commit: yeni yazı gəlməyincə gözləyir, sonra həmin ana qədər yazılmış
+	 * bütün seqmentləri diskə salır və gözləyənləri oyadır.
+	 */
+	private void flushLoop() {
+		while (true) {
+			long target;
+			List<JournalSegment> toForce;
+			lock.lock();
+			try {
+				while (running && dirty.isEmpty()) {
+					written.await(flushIntervalMs, TimeUnit.MILLISECONDS);
+				}
+				if (dirty.isEmpty()) {
+					durable.signalAll();
+					return;
+				}
+				target = nextSequence - 1;
+				toForce = new ArrayList<>(dirty);
+				dirty.clear();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				lock.unlock();
+			}
+
+			for (JournalSegment s : toForce) {
+				s.force();
+			}
+
+			lock.lock();
+			try {
+				durableSequence = target;
+				durable.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private static Stream<OrderJournalEntry> stream(List<JournalSegment> selected,
+			Function<JournalSegment, Iterator<OrderJournalEntry>> entries) {
+		Iterator<OrderJournalEntry> all = new Iterator<>() {
+
+			private int index;
+
+			private Iterator<OrderJournalEntry> current = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext() && index < selected.size()) {
+					current = entries.apply(selected.get(index++));
+				}
+				return current.hasNext();
+			}
+
+			@Override
+			public OrderJournalEntry next() {
+				hasNext();
+				return current.next();
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(all,
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+}
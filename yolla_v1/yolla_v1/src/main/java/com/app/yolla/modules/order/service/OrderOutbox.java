@@ -0,0 +1,66 @@
+package com.app.yolla.modules.order.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.yolla.modules.order.repository.OrderOutboxRepository;
+
+/**
+ * OrderChangedEvent-ləri dəyişikliyi edən tranzaksiyanın içində outbox
+ * cədvəlinə yazır. Hadisələr tranzaksiya boyu toplanır və commit-dən dərhal
+ * əvvəl bir JDBC batch ilə əlavə olunur - toplu əməliyyatlarda sifariş başına
+ * ayrıca INSERT olmur. Tranzaksiya geri qaytarılarsa outbox-a heç nə düşmür.
+ */
+@Component
+public class OrderOutbox {
+
+	@Autowired
+	private OrderOutboxRepository repository;
+
+	@EventListener
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (event.orderId() == null) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			repository.append(List.of(event));
+			return;
+		}
+		buffer().events.add(event);
+	}
+
+	/**
+	 * Cari tranzaksiyanın buferi. Sinxronizasiyalar dayandırılmış (suspended)
+	 * tranzaksiya ilə birlikdə gizləndiyi üçün daxili REQUIRES_NEW öz buferini alır.
+	 */
+	private Buffer buffer() {
+		for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+			if (s instanceof Buffer buffer && buffer.owner() == this) {
+				return buffer;
+			}
+		}
+		Buffer buffer = new Buffer();
+		TransactionSynchronizationManager.registerSynchronization(buffer);
+		return buffer;
+	}
+
+	private class Buffer implements TransactionSynchronization {
+
+		private final List<OrderChangedEvent> events = new ArrayList<>();
+
+		private OrderOutbox owner() {
+			return OrderOutbox.this;
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			repository.append(events);
+		}
+	}
+}
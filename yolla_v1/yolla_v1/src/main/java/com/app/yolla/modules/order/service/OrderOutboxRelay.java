@@ -0,0 +1,71 @@
+package com.app.yolla.modules.order.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.app.yolla.modules.order.dto.OrderEventMessage;
+import com.app.yolla.modules.order.entity.OrderOutboxEvent;
+import com.app.yolla.modules.order.repository.OrderOutboxRepository;
+
+/**
+ * Outbox cədvəlini fonda boşaldır: növbəti hissə id sırası ilə oxunur,
+ * brokerə göndərilir və broker təsdiqlədikdən sonra bir DELETE ilə silinir.
+ * <p>
+ * Göndərmə uğursuz olarsa sətirlər yerində qalır və növbəti dövrdə eyni
+ * sıra ilə yenidən göndərilir - çatdırılma "ən azı bir dəfə"dir, istehlakçı
+ * təkrarları messageId (outbox id) ilə ayırd edir. Bir hissə tam göndərilmədən
+ * növbətisinə keçilmədiyi üçün eyni sifarişin hadisələrinin sırası pozulmur.
+ * Relay bir tətbiq nüsxəsi üçün nəzərdə tutulub.
+ */
+@Service
+public class OrderOutboxRelay {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+	@Autowired
+	private OrderOutboxRepository repository;
+
+	@Autowired
+	private OrderEventPublisher publisher;
+
+	@Value("${orders.outbox.batch-size:500}")
+	private int batchSize;
+
+	/**
+	 * @return göndərilən hadisələrin sayı
+	 */
+	@Scheduled(fixedDelayString = "${orders.outbox.interval-ms:1000}")
+	public int relay() {
+		List<OrderOutboxEvent> batch = repository.findPending(PageRequest.of(0, batchSize));
+		if (batch.isEmpty()) {
+			return 0;
+		}
+
+		List<OrderEventMessage> messages = new ArrayList<>(batch.size());
+		List<Long> ids = new ArrayList<>(batch.size());
+		for (OrderOutboxEvent e : batch) {
+			messages.add(new OrderEventMessage(e.getId(), e.getOrderId(), e.getUserId(), e.getFromStatus(),
+					e.getToStatus(), e.getCreatedAt()));
+			ids.add(e.getId());
+		}
+
+		try {
+			publisher.publish(messages);
+		} catch (RuntimeException e) {
+			logger.warn("Sifariş hadisələri göndərilmədi, növbəti dövrdə təkrarlanacaq: {} hadisə", batch.size(), e);
+			return 0;
+		}
+		repository.deleteAllByIdInBatch(ids);
+
+		logger.debug("Sifariş hadisələri göndərildi: {}", ids.size());
+		return ids.size();
+	}
+}
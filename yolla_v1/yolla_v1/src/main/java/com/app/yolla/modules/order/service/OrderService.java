@@ -2,42 +2,73 @@ package com.app.yolla.modules.order.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.app.yolla.modules.order.dto.OrderBatchResult;
 import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.modules.order.dto.OrderCursor;
 import com.app.yolla.modules.order.dto.OrderDTO;
 import com.app.yolla.modules.order.dto.OrderItemDTO;
+import com.app.yolla.modules.order.dto.OrderItemView;
 import com.app.yolla.modules.order.dto.OrderItemRequest;
 import com.app.yolla.modules.order.dto.OrderItemUpdateRequest;
 import com.app.yolla.modules.order.dto.OrderResponse;
+import com.app.yolla.modules.order.dto.OrderRow;
+import com.app.yolla.modules.order.dto.OrderStatusRow;
+import com.app.yolla.modules.order.dto.OrderTransitionResult;
 import com.app.yolla.modules.order.dto.OrderUpdateRequest;
+import com.app.yolla.modules.order.dto.OrderView;
 import com.app.yolla.modules.order.entity.Order;
 import com.app.yolla.modules.order.entity.OrderItem;
 import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.OrderItemRepository;
 import com.app.yolla.modules.order.repository.OrderRepository;
 import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.service.InventoryLedger;
 import com.app.yolla.modules.product.service.ProductService;
 import com.app.yolla.modules.user.dto.UserDTO;
 import com.app.yolla.modules.user.entity.UserRole;
 import com.app.yolla.modules.user.service.UserService;
 import com.app.yolla.shared.exception.MyException;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
 @Service
 @Transactional
 public class OrderService {
 
+	static final int MAX_PAGE_SIZE = 100;
+
+	private static final String CLAIMED_BY_OTHER = "Sifariş başqa hazırlayıcı tərəfindən götürülüb";
+
 	@Autowired
 	private OrderRepository repository;
 
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
 	@Autowired
 	private ModelMapper mapper;
 
@@ -47,6 +78,21 @@ public class OrderService {
 	@Autowired
 	private ProductService productService;
 
+	@Autowired
+	private StockReservationService reservationService;
+
+	@Autowired
+	private InventoryLedger inventoryLedger;
+
+	@Autowired
+	private OrderCache orderCache;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	public OrderDTO createdOrder(OrderCreateRequest request) {
 		String phone = (String) userService.findPhone();
 		UserDTO byPhoneNumber = userService.findByPhoneNumber(phone);
@@ -57,35 +103,155 @@ public class OrderService {
 		order.setUserId(byPhoneNumber.getId());
 		
 
-		List<OrderItemRequest> items2 = request.getItems();
-		List<OrderItem> items = new ArrayList<>();
+		// Eyni məhsul bir neçə sətirdə gələ bilər - miqdarları birləşdiririk
+		Map<UUID, Integer> requested = new LinkedHashMap<>();
+		for (OrderItemRequest req : request.getItems()) {
+			if (req.getQuantity() == null || req.getQuantity() <= 0) {
+				throw new MyException("Stokda kifayət qədər məhsul yoxdur");
+			}
+			requested.merge(req.getProductId(), req.getQuantity(), Integer::sum);
+		}
 
+		// Bütün məhsullar bir sorğu ilə yüklənir
+		Map<UUID, Product> products = productService.findProducts(requested.keySet());
+
+		List<OrderItem> items = new ArrayList<>();
 		BigDecimal totalAmount = BigDecimal.ZERO;
-		for (OrderItemRequest req : items2) {
-			Product product = productService.findProduct(req.getProductId());
+		for (OrderItemRequest req : request.getItems()) {
+			Product product = products.get(req.getProductId());
 
 		    OrderItem orderItem = new OrderItem();
 		    orderItem.setOrder(order);
 		    orderItem.setProduct(product);
-			if (!(req.getQuantity() <= product.getStockQuantity() && req.getQuantity() > 0)) {
-				throw new MyException("Stokda kifayət qədər məhsul yoxdur");
-			}
 			orderItem.setQuantity(req.getQuantity());
 			BigDecimal itemTotal = product.getPrice().multiply(BigDecimal.valueOf(req.getQuantity()));
+			orderItem.setPrice(itemTotal);
 			totalAmount = totalAmount.add(itemTotal);
 		    items.add(orderItem);
-			product.setStockQuantity(product.getStockQuantity() - req.getQuantity());
-			productService.savePro(product);
 		}
+
 		order.setTotalAmount(totalAmount);
 		order.setItems(items);
 
 		repository.save(order);
 
+		// Hər sətir üçün müddətli stok rezervi qoyulur (stok reyestrdən dərhal çıxılır)
+		reservationService.hold(order, requested);
+
+		eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), order.getUserId(), null, order.getStatus()));
 		return convertToDTO(order);
 	}
 
+	/**
+	 * Toplu sifariş: bütün sifarişlərin məhsulları bir sorğu ilə yüklənir,
+	 * stok bir dəfəyə rezerv olunur, sifariş/sətir/rezerv insert-ləri JDBC
+	 * batch kimi gedir. Hər sifariş ayrıca uğurlu və ya uğursuz olur;
+	 * nəticənin index-i siyahıdakı sırasıdır.
+	 */
+	public List<OrderBatchResult> createdOrders(List<OrderCreateRequest> requests) {
+		String phone = (String) userService.findPhone();
+		UserDTO byPhoneNumber = userService.findByPhoneNumber(phone);
+
+		OrderBatchResult[] results = new OrderBatchResult[requests.size()];
+		List<Map<UUID, Integer>> requested = new ArrayList<>(requests.size());
+		Set<UUID> productIds = new HashSet<>();
+		for (int i = 0; i < requests.size(); i++) {
+			Map<UUID, Integer> quantities = new LinkedHashMap<>();
+			for (OrderItemRequest req : requests.get(i).getItems()) {
+				if (req.getQuantity() == null || req.getQuantity() <= 0) {
+					results[i] = OrderBatchResult.failed(i, "Miqdar sıfırdan böyük olmalıdır");
+					break;
+				}
+				quantities.merge(req.getProductId(), req.getQuantity(), Integer::sum);
+			}
+			requested.add(quantities);
+			productIds.addAll(quantities.keySet());
+		}
+
+		// Bütün batch üçün məhsullar bir sorğu ilə yüklənir
+		Map<UUID, Product> products = productService.findExistingProducts(productIds);
+
+		List<Integer> candidates = new ArrayList<>();
+		for (int i = 0; i < requests.size(); i++) {
+			if (results[i] != null) {
+				continue;
+			}
+			if (!products.keySet().containsAll(requested.get(i).keySet())) {
+				results[i] = OrderBatchResult.failed(i, "Bu id'li məhsul yoxdur");
+				continue;
+			}
+			candidates.add(i);
+		}
+
+		List<Map<UUID, Integer>> toReserve = new ArrayList<>(candidates.size());
+		for (int i : candidates) {
+			toReserve.add(requested.get(i));
+		}
+		boolean[] reserved = inventoryLedger.reserveAll(toReserve);
+
+		List<Order> orders = new ArrayList<>(candidates.size());
+		List<Integer> orderIndexes = new ArrayList<>(candidates.size());
+		LocalDateTime now = LocalDateTime.now();
+		for (int c = 0; c < candidates.size(); c++) {
+			int i = candidates.get(c);
+			if (!reserved[c]) {
+				results[i] = OrderBatchResult.failed(i, "Stokda kifayət qədər məhsul yoxdur");
+				continue;
+			}
+			OrderCreateRequest request = requests.get(i);
+
+			Order order = new Order();
+			order.setStatus(request.getStatus() == null ? OrderStatus.PENDING : request.getStatus());
+			order.setDeliveryAddress(request.getDeliveryAddress());
+			order.setNotes(request.getNotes());
+			order.setCreatedAt(now);
+			order.setUserId(byPhoneNumber.getId());
+
+			List<OrderItem> items = new ArrayList<>(request.getItems().size());
+			BigDecimal totalAmount = BigDecimal.ZERO;
+			for (OrderItemRequest req : request.getItems()) {
+				Product product = products.get(req.getProductId());
+
+				OrderItem orderItem = new OrderItem();
+				orderItem.setOrder(order);
+				orderItem.setProduct(product);
+				orderItem.setQuantity(req.getQuantity());
+				BigDecimal itemTotal = product.getPrice().multiply(BigDecimal.valueOf(req.getQuantity()));
+				orderItem.setPrice(itemTotal);
+				totalAmount = totalAmount.add(itemTotal);
+				items.add(orderItem);
+			}
+			order.setTotalAmount(totalAmount);
+			order.setItems(items);
+
+			orders.add(order);
+			orderIndexes.add(i);
+		}
+
+		repository.saveAll(orders);
+		reservationService.recordHolds(orders);
+		for (Order order : orders) {
+			eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), order.getUserId(), null, order.getStatus()));
+		}
+
+		for (int o = 0; o < orders.size(); o++) {
+			Order order = orders.get(o);
+			int i = orderIndexes.get(o);
+			results[i] = OrderBatchResult.created(i, order.getId(), order.getTotalAmount());
+		}
+
+		// Bir HTTP sorğusunda çoxlu hissə olduğu üçün (open-in-view) persistence
+		// context hər hissədən sonra təmizlənir, əks halda flush getdikcə yavaşlayır
+		entityManager.flush();
+		entityManager.clear();
+		return Arrays.asList(results);
+	}
+
 	private OrderDTO convertToDTO(Order order) {
+		return convertToDTO(order, userService.findById(order.getUserId()));
+	}
+
+	private OrderDTO convertToDTO(Order order, UserDTO op) {
 		List<OrderItemDTO> itemDTOs = new ArrayList<OrderItemDTO>();
 		List<OrderItem> items = order.getItems();
 
@@ -100,8 +266,7 @@ public class OrderService {
 			dto.setUnitPrice(o.getProduct().getPrice());
 			itemDTOs.add(dto);
 		}
-		
-		UserDTO op = userService.findById(order.getUserId());
+
 		OrderDTO dto = new OrderDTO();
 		dto.setId(order.getId());
 		dto.setUserId(order.getUserId());
@@ -118,22 +283,111 @@ public class OrderService {
 		return dto;
 	}
 
+	@org.springframework.transaction.annotation.Transactional(readOnly = true)
 	public OrderResponse getAll(Integer begin, Integer length) {
 		String phone = (String) userService.findPhone();
 		UserDTO en = userService.findByPhoneNumber(phone);
 
+		List<UUID> ids = new ArrayList<>();
+		for (String id : repository.getAllIds(en.getId(), begin, length)) {
+			ids.add(UUID.fromString(id));
+		}
+		List<OrderRow> rows = ids.isEmpty() ? List.of() : repository.findRows(ids);
+
+		// Sifarişlər cari istifadəçiyə aiddir - sahib yenidən axtarılmır
 		OrderResponse response = new OrderResponse();
-		List<Order> all = repository.getAll(en.getId(), begin, length);
-		List<OrderDTO> list = new ArrayList<OrderDTO>();
+		response.setList(toViews(rows, en));
+		return response;
+	}
+
+	/**
+	 * Cursor əsaslı səhifələmə. cursor boşdursa ilk səhifə qaytarılır; növbəti
+	 * səhifə varsa cavabda nextCursor doldurulur.
+	 */
+	@org.springframework.transaction.annotation.Transactional(readOnly = true)
+	public OrderResponse getPage(String cursor, Integer size) {
+		if (size == null || size <= 0 || size > MAX_PAGE_SIZE) {
+			throw new MyException("Səhifə ölçüsü 1-" + MAX_PAGE_SIZE + " aralığında olmalıdır");
+		}
+		String phone = (String) userService.findPhone();
+		UserDTO en = userService.findByPhoneNumber(phone);
 
-		for (Order order : all) {
-			OrderDTO convertToDTO = convertToDTO(order);
-			list.add(convertToDTO);
+		if (cursor == null || cursor.isBlank()) {
+			// İlk səhifə ən çox açılandır - sifariş dəyişənə qədər keşdən verilir
+			return orderCache.firstPage(en.getId(), size, () -> loadPage(en, null, size));
 		}
-		response.setList(list);
+		return loadPage(en, OrderCursor.decode(cursor), size);
+	}
+
+	private OrderResponse loadPage(UserDTO en, OrderCursor after, int size) {
+		// Növbəti səhifənin olub-olmadığını bilmək üçün bir sətir artıq oxunur
+		PageRequest limit = PageRequest.of(0, size + 1);
+		List<OrderRow> page;
+		if (after == null) {
+			page = repository.findFirstPage(en.getId(), limit);
+		} else {
+			page = repository.findPageAfter(en.getId(), after.createdAt(), after.id(), limit);
+		}
+
+		OrderResponse response = new OrderResponse();
+		if (page.size() > size) {
+			page = page.subList(0, size);
+			OrderRow last = page.get(size - 1);
+			response.setNextCursor(new OrderCursor(last.createdAt(), last.id()).encode());
+		}
+
+		response.setList(toViews(page, en));
 		return response;
 	}
 
+	/**
+	 * Siyahı görünüşü proyeksiyalardan qurulur: entity yaradılmır, persistence
+	 * context-ə heç nə düşmür. Sətirlər səhifə üçün bir sorğu ilə oxunur,
+	 * sahibi isə səhifə başına bir dəfə ötürülür.
+	 */
+	private List<OrderView> toViews(List<OrderRow> rows, UserDTO owner) {
+		if (rows.isEmpty()) {
+			return List.of();
+		}
+		Map<UUID, List<OrderItemView>> items = new HashMap<>(rows.size() * 2);
+		for (OrderRow row : rows) {
+			items.put(row.id(), new ArrayList<>());
+		}
+		for (OrderItemView item : orderItemRepository.findViews(items.keySet())) {
+			items.get(item.orderId()).add(item);
+		}
+
+		List<OrderView> list = new ArrayList<>(rows.size());
+		for (OrderRow row : rows) {
+			List<OrderItemView> lines = items.get(row.id());
+			if (lines.isEmpty()) {
+				throw new MyException("Sifariş detalları yoxdur");
+			}
+			list.add(new OrderView(row.id(), row.userId(), owner.getPhoneNumber(), owner.getFullName(), row.status(),
+					row.totalAmount(), row.deliveryAddress(), row.notes(), row.createdAt(), lines, row.deliveryTime()));
+		}
+		return list;
+	}
+
+	/**
+	 * Tək sifariş - sahibi, admin və hazırlayıcı görə bilər. Sifariş keşdən
+	 * verilir, icazə isə hər dəfə yoxlanılır.
+	 */
+	@org.springframework.transaction.annotation.Transactional(readOnly = true)
+	public OrderDTO getById(UUID id) {
+		String phone = (String) userService.findPhone();
+		UserDTO currentUser = userService.findByPhoneNumber(phone);
+
+		OrderDTO dto = orderCache.order(id, k -> convertToDTO(findByOrder(k)));
+
+		boolean isOwner = dto.getUserId().equals(currentUser.getId());
+		boolean isStaff = currentUser.getRole() == UserRole.ADMIN || currentUser.getRole() == UserRole.PREPARER;
+		if (!isOwner && !isStaff) {
+			throw new MyException("Bu əməliyyatı icra etmək üçün icazəniz yoxdur");
+		}
+		return dto;
+	}
+
 	public List<Order> findOrder(UUID id) {
 		List<Order> p=repository.findOrder(id);
 		return p;
@@ -159,6 +413,7 @@ public class OrderService {
 		}
 
 		repository.deleteById(id);
+		eventPublisher.publishEvent(new OrderChangedEvent(id, order.getUserId(), order.getStatus(), null));
 
 	}
 
@@ -170,13 +425,12 @@ public class OrderService {
 		if (!order.getUserId().equals(currentUser.getId())) {
 			throw new MyException("Başqasının sifarişi redaktə edilə bilməz");
 		}
-
-		if (req.getStatus() != null) {
-			order.setStatus(req.getStatus());
-			if (req.getStatus() == OrderStatus.DELIVERED && order.getDeliveryTime() == null) {
-				order.setDeliveryTime(LocalDateTime.now());
-			}
+		if (req.getStatus() != null && req.getStatus() != order.getStatus()) {
+			// Status yalnız keçid cədvəli ilə dəyişir - icazə, mənbə status və rezervlər
+			// tək keçidlərdəki kimidir, keçid öz hadisəsini dərc edir
+			applyTransition(order, currentUser, req.getStatus());
 		}
+		OrderStatus previous = order.getStatus();
 		if (req.getNotes() != null && !req.getNotes().trim().isEmpty()) {
 			order.setNotes(req.getNotes());
 		}
@@ -196,34 +450,20 @@ public class OrderService {
 				if (existingItemOpt.isPresent()) {
 					OrderItem existingItem = existingItemOpt.get();
 
-					int oldQuantity = existingItem.getQuantity(); // köhnə miqdar
 					int newQuantity = o.getQuantity(); // yenilənmiş miqdar
 
-					int difference = newQuantity - oldQuantity;
-					int currentStock = product.getStockQuantity();
-
 					if (newQuantity <= 0) {
 						throw new MyException("Miqdar sıfırdan böyük olmalıdır");
 					}
 
-					if (difference > 0) {
-						// stokda kifayət qədər məhsul yoxdursa, xətaya səbəb olur
-						if (currentStock < difference) {
-							throw new MyException("Stokda kifayət qədər məhsul yoxdur");
-						}
-						product.setStockQuantity(currentStock - difference);
-					} else if (difference < 0) {
-						// artan stok miqdarı
-						product.setStockQuantity(currentStock + (-difference));
-					}
+					// Rezerv fərq qədər artırılır və ya azaldılır
+					reservationService.resize(existingItem, newQuantity);
 
 					// Miqdarı yenilə (stok yoxlamasından sonra)
 					existingItem.setQuantity(newQuantity);
 
 					// Qiyməti yenilə (məsələn, ədədi * vahid qiymət)
 					existingItem.setPrice(product.getPrice().multiply(BigDecimal.valueOf(newQuantity)));
-
-					productService.savePro(product);
 				} else {
 					// Yeni OrderItem əlavə etmək üçün buraya kod əlavə edə bilərsən
 				}
@@ -237,98 +477,193 @@ public class OrderService {
 			order.setTotalAmount(totalAmount);
 		}
 
+		eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), order.getUserId(), previous, order.getStatus()));
 		return convertToDTO(order);
 	}
 
 	public OrderDTO confirmOrder(UUID orderId, String currentUserPhone) {
-		Order order = findByOrder(orderId);
-
-		UserDTO currentUser = userService.findByPhoneNumber(currentUserPhone);
-
-		boolean isAdmin = currentUser.getRole().equals(UserRole.ADMIN);
-		boolean isOwner = order.getUserId().equals(currentUser.getId());
-
-		if (!isAdmin && !isOwner) {
-			throw new MyException("Bu əməliyyatı icra etmək üçün icazəniz yoxdur");
-		}
+		return transition(orderId, currentUserPhone, OrderStatus.CONFIRMED);
+	}
 
-		if (order.getStatus() != OrderStatus.PENDING) {
-			throw new MyException("Yalnız PENDING statusundakı sifariş təsdiqlənə bilər");
-		}
+	public OrderDTO shipOrder(UUID orderId, String currentUserPhone) {
+		return transition(orderId, currentUserPhone, OrderStatus.SHIPPED);
+	}
 
-		order.setStatus(OrderStatus.CONFIRMED);
-		repository.save(order);
+	public OrderDTO deliverOrder(UUID id, String currentUserPhone) {
+		return transition(id, currentUserPhone, OrderStatus.DELIVERED);
+	}
 
-		return convertToDTO(order);
+	public OrderDTO cancelOrder(UUID id, String currentUserPhone) {
+		return transition(id, currentUserPhone, OrderStatus.CANCELLED);
 	}
 
-	public OrderDTO shipOrder(UUID orderId, String currentUserPhone) {
+	/**
+	 * Tək sifarişin status keçidi - icazə və mənbə status OrderTransitions
+	 * cədvəlindən yoxlanılır
+	 */
+	private OrderDTO transition(UUID orderId, String currentUserPhone, OrderStatus target) {
 		Order order = findByOrder(orderId);
 
 		UserDTO currentUser = userService.findByPhoneNumber(currentUserPhone);
 
-		boolean isAdmin = currentUser.getRole() == UserRole.ADMIN;
-		boolean isPreparer = currentUser.getRole() == UserRole.PREPARER;
+		applyTransition(order, currentUser, target);
+		return convertToDTO(order);
+	}
 
-		if (!isAdmin && !isPreparer) {
-			throw new MyException("Bu əməliyyatı icra etmək üçün icazəniz yoxdur");
+	private void applyTransition(Order order, UserDTO currentUser, OrderStatus target) {
+		OrderTransitions.Rule rule = OrderTransitions.rule(target);
+		if (!rule.permits(currentUser.getRole(), order.getUserId().equals(currentUser.getId()))) {
+			throw new MyException(OrderTransitions.NO_PERMISSION);
 		}
-
-		if (order.getStatus() != OrderStatus.CONFIRMED) {
-			throw new MyException("Yalnız CONFIRMED statusundakı sifariş göndərilə bilər");
+		if (!rule.from().contains(order.getStatus())) {
+			throw new MyException(rule.message());
+		}
+		if (target == OrderStatus.SHIPPED && currentUser.getRole() == UserRole.PREPARER && claimedByOther(order,
+				currentUser.getId())) {
+			throw new MyException(CLAIMED_BY_OTHER);
 		}
 
-		order.setStatus(OrderStatus.SHIPPED);
+		OrderStatus previous = order.getStatus();
+		if (target == OrderStatus.CONFIRMED) {
+			// Müvəqqəti rezervlər qalıcı olur
+			reservationService.confirm(order.getId());
+		} else if (target == OrderStatus.CANCELLED) {
+			// Sifarişin rezervləri toplu şəkildə stoka qaytarılır
+			reservationService.release(order.getId());
+		}
 
+		order.setStatus(target);
+		if (target == OrderStatus.DELIVERED) {
+			order.setDeliveryTime(LocalDateTime.now());
+		}
 		repository.save(order);
 
-		return convertToDTO(order);
+		eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), order.getUserId(), previous, target));
 	}
 
-	public OrderDTO deliverOrder(UUID id, String currentUserPhone) {
-		Order order = findByOrder(id);
+	private static boolean claimedByOther(Order order, UUID userId) {
+		return order.getClaimedBy() != null && !order.getClaimedBy().equals(userId)
+				&& order.getClaimExpiresAt() != null && order.getClaimExpiresAt().isAfter(LocalDateTime.now());
+	}
 
+	/**
+	 * Toplu status keçidi. Sifariş başına yükləmə və save əvəzinə: statuslar
+	 * bir SELECT ilə oxunur, keçid bir UPDATE ... WHERE id IN (...) AND status
+	 * IN (...) ilə edilir, rezervlər də toplu təsdiqlənir və ya azad edilir.
+	 * Hər id üçün ayrıca nəticə qaytarılır, sıra sorğudakı kimidir.
+	 */
+	public List<OrderTransitionResult> transitionAll(Collection<UUID> ids, OrderStatus target,
+			String currentUserPhone) {
 		UserDTO currentUser = userService.findByPhoneNumber(currentUserPhone);
+		OrderTransitions.Rule rule = OrderTransitions.rule(target);
 
-		boolean isAdmin = currentUser.getRole() == UserRole.ADMIN;
-		boolean isPreparer = currentUser.getRole() == UserRole.PREPARER;
-
-		if (!isAdmin && !isPreparer) {
-			throw new MyException("Bu əməliyyatı icra etmək üçün icazəniz yoxdur");
+		Set<UUID> requested = new LinkedHashSet<>(ids);
+		Map<UUID, OrderStatusRow> rows = new HashMap<>(requested.size() * 2);
+		for (OrderStatusRow row : repository.findStatuses(requested)) {
+			rows.put(row.id(), row);
 		}
 
-		if (order.getStatus() != OrderStatus.SHIPPED) {
-			throw new MyException("Yalnız SHIPPED statusundakı sifariş çatdırıla bilər");
+		Map<UUID, OrderTransitionResult> results = new HashMap<>(requested.size() * 2);
+		List<UUID> eligible = new ArrayList<>(requested.size());
+		for (UUID id : requested) {
+			OrderStatusRow row = rows.get(id);
+			if (row == null) {
+				results.put(id, OrderTransitionResult.failed(id, null, "Bu id'li sifariş yoxdur"));
+			} else if (!rule.permits(currentUser.getRole(), row.userId().equals(currentUser.getId()))) {
+				results.put(id, OrderTransitionResult.failed(id, row.status(), OrderTransitions.NO_PERMISSION));
+			} else if (!rule.from().contains(row.status())) {
+				results.put(id, OrderTransitionResult.failed(id, row.status(), rule.message()));
+			} else {
+				eligible.add(id);
+			}
 		}
 
-		order.setStatus(OrderStatus.DELIVERED);
-		order.setDeliveryTime(LocalDateTime.now());
-
-		repository.save(order);
-
-		return convertToDTO(order);
-	}
-
-	public OrderDTO cancelOrder(UUID id, String currentUserPhone) {
-		Order order = findByOrder(id);
-
-		UserDTO currentUser = userService.findByPhoneNumber(currentUserPhone);
-
-		boolean isAdmin = currentUser.getRole() == UserRole.ADMIN;
-		boolean isCustomer = currentUser.getRole() == UserRole.CUSTOMER;
+		Map<UUID, List<UUID>> holds = Map.of();
+		if (target == OrderStatus.CONFIRMED && !eligible.isEmpty()) {
+			// Rezervinin müddəti bitmiş sifarişlər təsdiqlənmir
+			holds = reservationService.lockConfirmable(eligible);
+			for (Iterator<UUID> it = eligible.iterator(); it.hasNext();) {
+				UUID id = it.next();
+				if (!holds.containsKey(id)) {
+					it.remove();
+					results.put(id, OrderTransitionResult.failed(id, rows.get(id).status(),
+							"Sifarişin stok rezervinin müddəti bitib"));
+				}
+			}
+		}
 
-		if (!isAdmin && !isCustomer) {
-			throw new MyException("Bu əməliyyatı icra etmək üçün icazəniz yoxdur");
+		// Bazada dəqiq saxlanılsın deyə mikrosaniyəyə qədər - aşağıda bu qiymətlə müqayisə olunur
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		// transition() kimi: hazırlayıcı başqasının götürdüyü sifarişi göndərə bilməz
+		UUID preparer = target == OrderStatus.SHIPPED && currentUser.getRole() == UserRole.PREPARER
+				? currentUser.getId()
+				: null;
+		if (preparer != null && !eligible.isEmpty()) {
+			Set<UUID> claimed = new HashSet<>(repository.findClaimedByOthers(eligible, preparer, now));
+			for (Iterator<UUID> it = eligible.iterator(); it.hasNext();) {
+				UUID id = it.next();
+				if (claimed.contains(id)) {
+					it.remove();
+					results.put(id, OrderTransitionResult.failed(id, rows.get(id).status(), CLAIMED_BY_OTHER));
+				}
+			}
 		}
 
-		if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.CONFIRMED) {
-			throw new MyException("Yalnız SHIPPED  və CONFIRMED statusundakı sifariş ləğv oluna bilər");
+		// Hər mənbə statusu üçün ayrıca UPDATE: dərc olunan hadisənin from-u
+		// sətrin UPDATE anındakı statusudur, findStatuses-dakı köhnə oxunuş yox
+		Map<OrderStatus, List<UUID>> bySource = new EnumMap<>(OrderStatus.class);
+		for (UUID id : eligible) {
+			bySource.computeIfAbsent(rows.get(id).status(), s -> new ArrayList<>()).add(id);
+		}
+		LocalDateTime deliveryTime = target == OrderStatus.DELIVERED ? now : null;
+		List<UUID> moved = new ArrayList<>(eligible.size());
+		for (Map.Entry<OrderStatus, List<UUID>> group : bySource.entrySet()) {
+			List<UUID> batch = group.getValue();
+			List<OrderStatus> from = List.of(group.getKey());
+			// Yoxlamadan sonra götürülmüş sifarişləri UPDATE özü ötürür
+			int updated = preparer == null
+					? repository.transition(batch, from, target, deliveryTime, now)
+					: repository.transitionUnclaimed(batch, from, target, preparer, now);
+			if (updated == batch.size()) {
+				moved.addAll(batch);
+				continue;
+			}
+			// Arada başqa sorğu statusu dəyişib. Yalnız bu UPDATE-in keçirdikləri
+			// sayılır - başqasının keçirdiyi sifariş üçün hadisə ikinci dəfə dərc olunmur
+			Set<UUID> changed = new HashSet<>(repository.findTransitioned(batch, target, now));
+			Map<UUID, OrderStatus> current = new HashMap<>(batch.size() * 2);
+			for (OrderStatusRow row : repository.findStatuses(batch)) {
+				current.put(row.id(), row.status());
+			}
+			for (UUID id : batch) {
+				if (changed.contains(id)) {
+					moved.add(id);
+				} else {
+					results.put(id, OrderTransitionResult.failed(id, current.get(id), "Sifarişin statusu dəyişib"));
+				}
+			}
 		}
 
-		order.setStatus(OrderStatus.CANCELLED);
+		if (target == OrderStatus.CONFIRMED) {
+			List<UUID> reservations = new ArrayList<>();
+			for (UUID id : moved) {
+				reservations.addAll(holds.get(id));
+			}
+			reservationService.confirmLocked(reservations);
+		} else if (target == OrderStatus.CANCELLED) {
+			reservationService.releaseOrders(moved);
+		}
 
-		repository.save(order);
+		for (UUID id : moved) {
+			OrderStatusRow row = rows.get(id);
+			results.put(id, OrderTransitionResult.moved(id, target));
+			eventPublisher.publishEvent(new OrderChangedEvent(id, row.userId(), row.status(), target));
+		}
 
-		return convertToDTO(order);
+		List<OrderTransitionResult> list = new ArrayList<>(requested.size());
+		for (UUID id : requested) {
+			list.add(results.get(id));
+		}
+		return list;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.app.yolla.modules.order.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+
+/**
+ * Sifariş status üçün verilmiş müddətdən (SLA) artıq eyni statusda qaldıqda
+ * OrderSlaWatchdog tərəfindən dərc olunur - bildiriş göndərənlər bunu dinləyir.
+ */
+public record OrderSlaBreachedEvent(UUID orderId, OrderStatus status, LocalDateTime deadline) {
+}
@@ -0,0 +1,242 @@
+package com.app.yolla.modules.order.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.order.dto.OrderSlaRow;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.OrderRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Çatdırılma SLA nəzarətçisi
+ * <p>
+ * Sifariş SLA-sı olan statusa (CONFIRMED, SHIPPED) keçdikdə yaddaşdakı taymer
+ * çarxına son tarix yazılır, növbəti keçiddə isə ləğv olunur - orders
+ * cədvəli dövri olaraq skan edilmir. Son tarix keçdikdə
+ * orders.sla.breaches metriki artırılır və OrderSlaBreachedEvent dərc olunur.
+ * Başlanğıcda taymerlər bazadan (status_changed_at) bir cursor sorğusu ilə
+ * bərpa olunur. Pozuntu sla_breached_at ilə bazada qeyd edilir ki, hər
+ * yenidən başlama eyni pozuntunu təkrar xəbər verməsin. Nəzarətçi bir
+ * tətbiq nüsxəsi üçün nəzərdə tutulub.
+ */
+@Component
+public class OrderSlaWatchdog {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderSlaWatchdog.class);
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${orders.sla.confirmed-minutes:60}")
+	private long confirmedMinutes;
+
+	@Value("${orders.sla.shipped-minutes:240}")
+	private long shippedMinutes;
+
+	@Value("${orders.sla.tick-ms:1000}")
+	private long tickMs;
+
+	@Value("${orders.sla.wheel-size:4096}")
+	private int wheelSize;
+
+	@Value("${orders.sla.max-timers:1000000}")
+	private int maxTimers;
+
+	private final TransactionTemplate readOnlyTx;
+
+	private final TransactionTemplate writeTx;
+
+	private final Map<OrderStatus, Duration> slas = new EnumMap<>(OrderStatus.class);
+
+	private final Map<OrderStatus, AtomicInteger> breaches = new EnumMap<>(OrderStatus.class);
+
+	private final AtomicInteger dropped = new AtomicInteger();
+
+	// Bərpa zamanı dəyişən sifarişlər - bazadan oxunmuş köhnə status onların taymerini əvəz etməsin
+	private final Set<UUID> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean rebuilding;
+
+	private TimingWheel<UUID, OrderStatus> wheel;
+
+	public OrderSlaWatchdog(PlatformTransactionManager transactionManager) {
+		this.readOnlyTx = new TransactionTemplate(transactionManager);
+		this.readOnlyTx.setReadOnly(true);
+		this.writeTx = new TransactionTemplate(transactionManager);
+	}
+
+	@PostConstruct
+	void init() {
+		slas.put(OrderStatus.CONFIRMED, Duration.ofMinutes(confirmedMinutes));
+		slas.put(OrderStatus.SHIPPED, Duration.ofMinutes(shippedMinutes));
+		wheel = new TimingWheel<>(wheelSize, tickMs, System.currentTimeMillis(), maxTimers);
+
+		for (OrderStatus status : slas.keySet()) {
+			breaches.put(status, new AtomicInteger());
+		}
+		if (meterRegistry == null) {
+			return;
+		}
+		Gauge.builder("orders.sla.pending", wheel, TimingWheel::size).description("SLA taymeri olan sifariş sayı")
+				.register(meterRegistry);
+		Gauge.builder("orders.sla.dropped", dropped, AtomicInteger::get)
+				.description("Limit dolduğu üçün qoyulmamış SLA taymerləri").register(meterRegistry);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (event.orderId() == null || event.from() == event.to()) {
+			return;
+		}
+		if (rebuilding) {
+			changedDuringRebuild.add(event.orderId());
+		}
+		wheel.cancel(event.orderId());
+		Duration sla = event.to() == null ? null : slas.get(event.to());
+		if (sla != null) {
+			schedule(event.orderId(), event.to(), System.currentTimeMillis() + sla.toMillis(), false);
+		}
+	}
+
+	/**
+	 * Taymerləri SLA-lı statuslardakı sifarişlərdən bərpa edir
+	 *
+	 * @return qoyulan taymer sayı
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public int rebuild() {
+		rebuilding = true;
+		try {
+			Integer restored = readOnlyTx.execute(status -> {
+				int count = 0;
+				try (Stream<OrderSlaRow> rows = repository.streamSlaRows(slas.keySet())) {
+					for (OrderSlaRow row : (Iterable<OrderSlaRow>) rows::iterator) {
+						if (changedDuringRebuild.contains(row.id())) {
+							continue;
+						}
+						long deadline = toMillis(row.since()) + slas.get(row.status()).toMillis();
+						if (schedule(row.id(), row.status(), deadline, true)) {
+							count++;
+						}
+					}
+				}
+				return count;
+			});
+			logger.info("SLA taymerləri bərpa olundu: {}", restored);
+			return restored == null ? 0 : restored;
+		} finally {
+			rebuilding = false;
+			changedDuringRebuild.clear();
+		}
+	}
+
+	@Scheduled(fixedRateString = "${orders.sla.tick-ms:1000}")
+	public int check() {
+		return check(System.currentTimeMillis());
+	}
+
+	/**
+	 * Çarxı verilən ana qədər fırladır və vaxtı keçmiş sifarişlər üçün xəbərdarlıq edir
+	 *
+	 * @return SLA-nı pozan sifariş sayı
+	 */
+	public int check(long nowMillis) {
+		List<TimingWheel.Expired<UUID, OrderStatus>> expired = wheel.advance(nowMillis);
+		if (expired.isEmpty()) {
+			return 0;
+		}
+		markBreached(expired);
+		for (TimingWheel.Expired<UUID, OrderStatus> e : expired) {
+			breached(e.key(), e.value(), e.deadlineMillis());
+		}
+		return expired.size();
+	}
+
+	public int pending() {
+		return wheel.size();
+	}
+
+	public Map<OrderStatus, Integer> breaches() {
+		Map<OrderStatus, Integer> result = new EnumMap<>(OrderStatus.class);
+		breaches.forEach((status, count) -> result.put(status, count.get()));
+		return result;
+	}
+
+	private boolean schedule(UUID orderId, OrderStatus status, long deadline, boolean ifAbsent) {
+		boolean scheduled = ifAbsent ? wheel.scheduleIfAbsent(orderId, status, deadline)
+				: wheel.schedule(orderId, status, deadline);
+		if (!scheduled && wheel.size() >= maxTimers) {
+			dropped.incrementAndGet();
+			logger.warn("SLA taymer limiti dolub, sifariş izlənmir: {}", orderId);
+		}
+		return scheduled;
+	}
+
+	/**
+	 * Pozuntuları status üzrə bir UPDATE ilə qeyd edir. Yazılmasa da
+	 * xəbərdarlıq edilir - təkrar xəbərdarlıq itirilmiş xəbərdarlıqdan yaxşıdır.
+	 */
+	private void markBreached(List<TimingWheel.Expired<UUID, OrderStatus>> expired) {
+		Map<OrderStatus, List<UUID>> byStatus = new EnumMap<>(OrderStatus.class);
+		for (TimingWheel.Expired<UUID, OrderStatus> e : expired) {
+			byStatus.computeIfAbsent(e.value(), s -> new ArrayList<>()).add(e.key());
+		}
+		LocalDateTime now = LocalDateTime.now();
+		try {
+			writeTx.executeWithoutResult(status -> byStatus
+					.forEach((orderStatus, ids) -> repository.markSlaBreached(ids, orderStatus, now)));
+		} catch (RuntimeException e) {
+			logger.warn("SLA pozuntuları bazada qeyd olunmadı: {}", e.getMessage());
+		}
+	}
+
+	private void breached(UUID orderId, OrderStatus status, long deadlineMillis) {
+		breaches.get(status).incrementAndGet();
+		if (meterRegistry != null) {
+			Counter.builder("orders.sla.breaches").tag("status", status.name())
+					.description("SLA müddətini keçmiş sifarişlər").register(meterRegistry).increment();
+		}
+		LocalDateTime deadline = LocalDateTime.ofInstant(Instant.ofEpochMilli(deadlineMillis), ZoneId.systemDefault());
+		logger.warn("Sifariş {} statusunda SLA müddətini keçdi: {} (son tarix {})", status, orderId, deadline);
+		eventPublisher.publishEvent(new OrderSlaBreachedEvent(orderId, status, deadline));
+	}
+
+	private static long toMillis(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
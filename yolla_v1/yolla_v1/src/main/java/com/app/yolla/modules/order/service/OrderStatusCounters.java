@@ -0,0 +1,206 @@
+package com.app.yolla.modules.order.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.OrderRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Status üzrə sifariş sayları yaddaşda saxlanılır və hər keçiddə (commit
+ * olunduqdan sonra) artırılıb-azaldılır, ona görə oxumaq orders cədvəlini
+ * skan etmir. Başlanğıcda bazadan doldurulur və vaxtaşırı bazaya uyğunlaşdırılır.
+ * <p>
+ * Commit bazada sayğaclar yenilənməzdən əvvəl görünür. Ona görə keçidli
+ * tranzaksiya commit-dən əvvəl "icrada" sayılır və versiyanı artırır,
+ * sayğaclar isə commit-dən sonra tətbiq olunur. Uyğunlaşdırma icrada keçid
+ * olduqda və ya versiya dəyişəndə nəticəni tətbiq etmir - əks halda eyni
+ * keçid həm GROUP BY-da, həm də sayğacda iki dəfə sayılardı.
+ */
+@Component
+public class OrderStatusCounters {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderStatusCounters.class);
+
+	private static final int RECONCILE_ATTEMPTS = 3;
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	private final Map<OrderStatus, LongAdder> counters = new EnumMap<>(OrderStatus.class);
+
+	/**
+	 * Başlamış və bitmiş keçid commit-lərinin sayı - uyğunlaşdırma zamanı
+	 * paralel keçid olub-olmadığını bilmək üçün. this ilə qorunur.
+	 */
+	private long version;
+
+	// Commit-i başlamış, sayğaclara hələ tətbiq olunmamış tranzaksiyalar. this ilə qorunur.
+	private int inFlight;
+
+	public OrderStatusCounters() {
+		for (OrderStatus status : OrderStatus.values()) {
+			counters.put(status, new LongAdder());
+		}
+	}
+
+	@PostConstruct
+	void registerGauges() {
+		if (meterRegistry == null) {
+			return;
+		}
+		for (Map.Entry<OrderStatus, LongAdder> e : counters.entrySet()) {
+			Gauge.builder("orders.status", e.getValue(), LongAdder::sum).tag("status", e.getKey().name())
+					.description("Status üzrə sifariş sayı").register(meterRegistry);
+		}
+	}
+
+	@EventListener
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (event.from() == event.to()) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			synchronized (this) {
+				apply(List.of(event));
+				version++;
+			}
+			return;
+		}
+		buffer().events.add(event);
+	}
+
+	private void apply(List<OrderChangedEvent> events) {
+		for (OrderChangedEvent event : events) {
+			if (event.from() != null) {
+				counters.get(event.from()).decrement();
+			}
+			if (event.to() != null) {
+				counters.get(event.to()).increment();
+			}
+		}
+	}
+
+	public Map<OrderStatus, Long> snapshot() {
+		Map<OrderStatus, Long> result = new EnumMap<>(OrderStatus.class);
+		for (Map.Entry<OrderStatus, LongAdder> e : counters.entrySet()) {
+			result.put(e.getKey(), e.getValue().sum());
+		}
+		return result;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void seed() {
+		reconcile();
+	}
+
+	/**
+	 * Sayğacları GROUP BY nəticəsi ilə əvəz edir. Sorğu işləyərkən keçid
+	 * tətbiq olunubsa nəticə köhnə ola bilər - onda yenidən cəhd edilir,
+	 * alınmasa növbəti dövrə saxlanılır.
+	 *
+	 * @return sayğaclar yeniləndisə true
+	 */
+	@Scheduled(fixedDelayString = "${orders.status-counters.reconcile-interval-ms:300000}",
+			initialDelayString = "${orders.status-counters.reconcile-interval-ms:300000}")
+	public boolean reconcile() {
+		for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+			long before;
+			synchronized (this) {
+				if (inFlight > 0) {
+					continue;
+				}
+				before = version;
+			}
+			Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+			for (Object[] row : repository.countByStatus()) {
+				counts.put((OrderStatus) row[0], (Long) row[1]);
+			}
+			synchronized (this) {
+				if (version != before || inFlight > 0) {
+					continue;
+				}
+				for (OrderStatus status : OrderStatus.values()) {
+					LongAdder adder = counters.get(status);
+					long drift = counts.getOrDefault(status, 0L) - adder.sum();
+					if (drift != 0) {
+						adder.add(drift);
+						logger.debug("{} sayğacı {} qədər düzəldildi", status, drift);
+					}
+				}
+				return true;
+			}
+		}
+		logger.info("Status sayğacları uyğunlaşdırılmadı - paralel keçidlər davam edir");
+		return false;
+	}
+
+	/**
+	 * Cari tranzaksiyanın buferi. Sinxronizasiyalar dayandırılmış (suspended)
+	 * tranzaksiya ilə birlikdə gizləndiyi üçün daxili REQUIRES_NEW öz buferini alır.
+	 */
+	private Buffer buffer() {
+		for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+			if (s instanceof Buffer buffer && buffer.owner() == this) {
+				return buffer;
+			}
+		}
+		Buffer buffer = new Buffer();
+		TransactionSynchronizationManager.registerSynchronization(buffer);
+		return buffer;
+	}
+
+	private class Buffer implements TransactionSynchronization {
+
+		private final List<OrderChangedEvent> events = new ArrayList<>();
+
+		private boolean committing;
+
+		private OrderStatusCounters owner() {
+			return OrderStatusCounters.this;
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			synchronized (OrderStatusCounters.this) {
+				inFlight++;
+				version++;
+			}
+			committing = true;
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			if (!committing) {
+				return;
+			}
+			synchronized (OrderStatusCounters.this) {
+				if (status == STATUS_COMMITTED) {
+					apply(events);
+				}
+				inFlight--;
+				version++;
+			}
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.app.yolla.modules.order.service;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Sifariş statuslarının keçid cədvəli: hər hədəf status üçün hansı
+ * statusdan keçilə biləcəyi və hansı rolun buna icazəsi olduğu. Cədvəl bir
+ * dəfə qurulur, həm tək, həm də toplu keçidlər onu istifadə edir.
+ */
+final class OrderTransitions {
+
+	static final String NO_PERMISSION = "Bu əməliyyatı icra etmək üçün icazəniz yoxdur";
+
+	/**
+	 * Rolun keçidə icazəsi: hər sifarişə, yalnız özününkünə, və ya heç birinə
+	 */
+	enum Access {
+		ANY, OWN, NONE
+	}
+
+	record Rule(Set<OrderStatus> from, Map<UserRole, Access> access, String message) {
+
+		boolean permits(UserRole role, boolean owner) {
+			Access a = access.getOrDefault(role, Access.NONE);
+			return a == Access.ANY || (a == Access.OWN && owner);
+		}
+	}
+
+	private static final Map<OrderStatus, Rule> RULES = new EnumMap<>(OrderStatus.class);
+
+	static {
+		RULES.put(OrderStatus.CONFIRMED, rule(EnumSet.of(OrderStatus.PENDING),
+				access(Access.ANY, Access.OWN, Access.OWN), "Yalnız PENDING statusundakı sifariş təsdiqlənə bilər"));
+		RULES.put(OrderStatus.SHIPPED, rule(EnumSet.of(OrderStatus.CONFIRMED),
+				access(Access.ANY, Access.ANY, Access.NONE), "Yalnız CONFIRMED statusundakı sifariş göndərilə bilər"));
+		RULES.put(OrderStatus.DELIVERED, rule(EnumSet.of(OrderStatus.SHIPPED),
+				access(Access.ANY, Access.ANY, Access.NONE), "Yalnız SHIPPED statusundakı sifariş çatdırıla bilər"));
+		RULES.put(OrderStatus.CANCELLED, rule(EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED),
+				access(Access.ANY, Access.NONE, Access.OWN),
+				"Yalnız PENDING və CONFIRMED statusundakı sifariş ləğv oluna bilər"));
+	}
+
+	private OrderTransitions() {
+	}
+
+	static Rule rule(OrderStatus target) {
+		Rule rule = RULES.get(target);
+		if (rule == null) {
+			throw new MyException("Sifariş " + target + " statusuna keçirilə bilməz");
+		}
+		return rule;
+	}
+
+	private static Rule rule(Set<OrderStatus> from, Map<UserRole, Access> access, String message) {
+		return new Rule(from, access, message);
+	}
+
+	private static Map<UserRole, Access> access(Access admin, Access preparer, Access customer) {
+		Map<UserRole, Access> map = new EnumMap<>(UserRole.class);
+		map.put(UserRole.ADMIN, admin);
+		map.put(UserRole.PREPARER, preparer);
+		map.put(UserRole.CUSTOMER, customer);
+		return map;
+	}
+}
@@ -0,0 +1,173 @@
+package com.app.yolla.modules.order.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.order.dto.OrderSweepRow;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.OrderRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Təsdiqlənməmiş köhnə PENDING sifarişləri avtomatik ləğv edir və stoklarını qaytarır
+ * <p>
+ * Sifarişlər entity kimi yüklənmir: (created_at, id) keyset cursor-u ilə
+ * hissə-hissə oxunur, hər hissə öz qısa tranzaksiyasında bir UPDATE ... WHERE
+ * id IN (...) AND status = PENDING ilə ləğv olunur və rezervləri toplu
+ * azad edilir. Hissələr arasında fasilə verilir ki, süpürgə istehsalda
+ * davamlı işləyəndə kilid fırtınası yaratmasın.
+ */
+@Component
+public class PendingOrderSweeper {
+
+	private static final Logger logger = LoggerFactory.getLogger(PendingOrderSweeper.class);
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired
+	private StockReservationService reservationService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${orders.pending-sweep.max-age-minutes:60}")
+	private long maxAgeMinutes;
+
+	@Value("${orders.pending-sweep.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${orders.pending-sweep.pause-ms:200}")
+	private long pauseMs;
+
+	private final TransactionTemplate tx;
+
+	private Counter cancelledCounter;
+
+	private Counter chunkCounter;
+
+	public PendingOrderSweeper(PlatformTransactionManager transactionManager) {
+		this.tx = new TransactionTemplate(transactionManager);
+	}
+
+	@PostConstruct
+	void registerMeters() {
+		if (meterRegistry == null) {
+			return;
+		}
+		cancelledCounter = Counter.builder("orders.pending_sweep.cancelled")
+				.description("Avtomatik ləğv olunan PENDING sifarişlər").register(meterRegistry);
+		chunkCounter = Counter.builder("orders.pending_sweep.chunks")
+				.description("Süpürgənin emal etdiyi hissələr").register(meterRegistry);
+	}
+
+	/**
+	 * @return ləğv olunan sifariş sayı
+	 */
+	@Scheduled(fixedDelayString = "${orders.pending-sweep.interval-ms:60000}",
+			initialDelayString = "${orders.pending-sweep.interval-ms:60000}")
+	public int sweep() {
+		LocalDateTime before = LocalDateTime.now().minusMinutes(maxAgeMinutes);
+		OrderSweepRow cursor = null;
+		int total = 0;
+		int chunks = 0;
+
+		while (true) {
+			OrderSweepRow last = cursor;
+			List<OrderSweepRow> rows = last == null
+					? repository.findStaleFirst(OrderStatus.PENDING, before, PageRequest.of(0, chunkSize))
+					: repository.findStaleAfter(OrderStatus.PENDING, before, last.createdAt(), last.id(),
+							PageRequest.of(0, chunkSize));
+			if (rows.isEmpty()) {
+				break;
+			}
+
+			Integer cancelled = tx.execute(status -> cancel(rows));
+			total += cancelled == null ? 0 : cancelled;
+			chunks++;
+			if (chunkCounter != null) {
+				chunkCounter.increment();
+				cancelledCounter.increment(cancelled == null ? 0 : cancelled);
+			}
+			logger.debug("PENDING süpürgəsi: hissə {}, ləğv olundu {}, cəmi {}", chunks, cancelled, total);
+
+			if (rows.size() < chunkSize) {
+				break;
+			}
+			cursor = rows.get(rows.size() - 1);
+			if (!pause()) {
+				break;
+			}
+		}
+
+		if (total > 0) {
+			logger.info("{} köhnə PENDING sifariş avtomatik ləğv olundu ({} hissə)", total, chunks);
+		}
+		return total;
+	}
+
+	/**
+	 * Bir hissə: status yalnız hələ də PENDING olanlarda dəyişir, stok yalnız
+	 * həqiqətən ləğv olunanlar üçün qaytarılır.
+	 */
+	private int cancel(List<OrderSweepRow> rows) {
+		List<UUID> ids = new ArrayList<>(rows.size());
+		Map<UUID, UUID> owners = new HashMap<>(rows.size() * 2);
+		for (OrderSweepRow row : rows) {
+			ids.add(row.id());
+			owners.put(row.id(), row.userId());
+		}
+
+		// findTransitioned bu qiymətlə müqayisə edir - bazada dəqiq saxlanılsın deyə mikrosaniyəyə qədər
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		int updated = repository.transition(ids, List.of(OrderStatus.PENDING), OrderStatus.CANCELLED, null, now);
+		List<UUID> cancelled = ids;
+		if (updated < ids.size()) {
+			// Arada təsdiqlənmiş, silinmiş və ya başqa sorğunun ləğv etdiyi sifarişlər
+			// çıxarılır - onların hadisəsi həmin sorğu tərəfindən dərc olunub
+			cancelled = repository.findTransitioned(ids, OrderStatus.CANCELLED, now);
+		}
+
+		reservationService.releaseOrders(cancelled);
+		for (UUID id : cancelled) {
+			eventPublisher.publishEvent(new OrderChangedEvent(id, owners.get(id), OrderStatus.PENDING,
+					OrderStatus.CANCELLED));
+		}
+		return cancelled.size();
+	}
+
+	private boolean pause() {
+		if (pauseMs <= 0) {
+			return true;
+		}
+		try {
+			Thread.sleep(pauseMs);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
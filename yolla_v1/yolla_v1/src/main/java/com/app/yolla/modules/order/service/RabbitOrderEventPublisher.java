@@ -0,0 +1,59 @@
+package com.app.yolla.modules.order.service;
+
+import java.util.List;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.app.yolla.config.RabbitConfig;
+import com.app.yolla.modules.order.dto.OrderEventMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Hadisələri bir kanal üzərindən ardıcıl göndərir və sonda broker
+ * təsdiqlərini (publisher confirms) gözləyir. Bir kanal sıranı saxlayır.
+ * spring.rabbitmq.publisher-confirm-type: simple tələb olunur.
+ */
+@Component
+public class RabbitOrderEventPublisher implements OrderEventPublisher {
+
+	@Autowired
+	private RabbitTemplate rabbitTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${orders.outbox.confirm-timeout-ms:5000}")
+	private long confirmTimeoutMs;
+
+	@Override
+	public void publish(List<OrderEventMessage> events) {
+		rabbitTemplate.invoke(ops -> {
+			for (OrderEventMessage event : events) {
+				ops.send(RabbitConfig.ORDER_EVENTS_EXCHANGE, event.routingKey(), toMessage(event));
+			}
+			ops.waitForConfirmsOrDie(confirmTimeoutMs);
+			return null;
+		});
+	}
+
+	private Message toMessage(OrderEventMessage event) {
+		try {
+			return MessageBuilder.withBody(objectMapper.writeValueAsBytes(event))
+					.setContentType(MessageProperties.CONTENT_TYPE_JSON)
+					.setMessageId(event.id().toString())
+					.setHeader("orderId", event.orderId().toString())
+					.setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+					.build();
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Sifariş hadisəsi JSON-a çevrilmədi", e);
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package com.app.yolla.modules.order.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.order.entity.Order;
+import com.app.yolla.modules.order.entity.OrderItem;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.entity.ReservationStatus;
+import com.app.yolla.modules.order.entity.StockReservation;
+import com.app.yolla.modules.order.repository.StockReservationRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Sifariş sətirləri üçün müddətli stok rezervləri
+ * <p>
+ * Rezerv qoyulanda stok InventoryLedger-dən dərhal çıxılır. Təsdiq yalnız
+ * statusu dəyişir, ləğv və müddət bitməsi isə rezervləri toplu şəkildə
+ * RELEASED edib miqdarları bir çağırışla stoka qaytarır.
+ */
+@Service
+public class StockReservationService {
+
+	private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+	private static final EnumSet<ReservationStatus> ACTIVE = EnumSet.of(ReservationStatus.HELD,
+			ReservationStatus.CONFIRMED);
+
+	@Autowired
+	private StockReservationRepository repository;
+
+	@Autowired
+	private InventoryLedger inventoryLedger;
+
+	@Value("${inventory.reservation.ttl-minutes:15}")
+	private long ttlMinutes;
+
+	@Value("${inventory.reservation.sweep-batch-size:500}")
+	private int sweepBatchSize;
+
+	private final TransactionTemplate tx;
+
+	public StockReservationService(PlatformTransactionManager transactionManager) {
+		this.tx = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Sifarişin bütün sətirləri üçün rezerv qoyur. Order və sətirlər artıq
+	 * saxlanılmış olmalıdır (id-ləri lazımdır). PENDING olmayan sifariş üçün
+	 * rezerv birbaşa CONFIRMED yazılır.
+	 */
+	public void hold(Order order, Map<UUID, Integer> quantities) {
+		inventoryLedger.reserve(quantities);
+		recordHolds(List.of(order));
+	}
+
+	/**
+	 * Stoku InventoryLedger-də artıq rezerv olunmuş sifarişlər üçün rezerv
+	 * sətirlərini yazır (bir JDBC batch)
+	 */
+	public void recordHolds(List<Order> orders) {
+		LocalDateTime now = LocalDateTime.now();
+		List<StockReservation> reservations = new ArrayList<>();
+		for (Order order : orders) {
+			ReservationStatus status = order.getStatus() == OrderStatus.PENDING ? ReservationStatus.HELD
+					: ReservationStatus.CONFIRMED;
+			for (OrderItem item : order.getItems()) {
+				StockReservation r = new StockReservation();
+				r.setOrderId(order.getId());
+				r.setOrderItemId(item.getId());
+				r.setProductId(item.getProduct().getId());
+				r.setQuantity(item.getQuantity());
+				r.setStatus(status);
+				r.setExpiresAt(now.plusMinutes(ttlMinutes));
+				r.setCreatedAt(now);
+				reservations.add(r);
+			}
+		}
+		repository.insertAll(reservations);
+	}
+
+	/**
+	 * Sifarişin bütün rezervlərini bir UPDATE ilə qalıcı edir. Hər hansı
+	 * rezervin müddəti bitibsə xəta atılır (tranzaksiya geri qaytarılır).
+	 */
+	public void confirm(UUID orderId) {
+		int confirmed = repository.confirmHeld(orderId, LocalDateTime.now());
+		if (confirmed != repository.countByOrderId(orderId)) {
+			throw new MyException("Sifarişin stok rezervinin müddəti bitib");
+		}
+	}
+
+	/**
+	 * Toplu təsdiq üçün: sifarişlərin HELD rezervlərini kilidləyir və yalnız
+	 * bütün rezervləri hələ vaxtı keçməmiş sifarişləri qaytarır. Kilid
+	 * tranzaksiyanın sonuna qədər qalır, müddət bitmə prosesi onları bu arada
+	 * azad edə bilməz.
+	 *
+	 * @return sifariş id -> təsdiqlənəcək rezerv id-ləri
+	 */
+	public Map<UUID, List<UUID>> lockConfirmable(Collection<UUID> orderIds) {
+		Map<UUID, List<UUID>> held = new HashMap<>();
+		LocalDateTime now = LocalDateTime.now();
+		for (StockReservation r : repository.lockByOrders(orderIds, EnumSet.of(ReservationStatus.HELD))) {
+			if (r.getExpiresAt().isAfter(now)) {
+				held.computeIfAbsent(r.getOrderId(), k -> new ArrayList<>()).add(r.getId());
+			}
+		}
+		Map<UUID, List<UUID>> confirmable = new HashMap<>();
+		if (held.isEmpty()) {
+			return confirmable;
+		}
+		for (Object[] row : repository.countByOrders(held.keySet())) {
+			List<UUID> ids = held.get((UUID) row[0]);
+			if (ids.size() == (Long) row[1]) {
+				confirmable.put((UUID) row[0], ids);
+			}
+		}
+		return confirmable;
+	}
+
+	/**
+	 * lockConfirmable ilə seçilmiş rezervləri bir UPDATE ilə qalıcı edir
+	 */
+	public void confirmLocked(Collection<UUID> reservationIds) {
+		if (!reservationIds.isEmpty()) {
+			repository.markConfirmed(reservationIds);
+		}
+	}
+
+	/**
+	 * Sifarişin aktiv (HELD və CONFIRMED) rezervlərini azad edir
+	 */
+	public void release(UUID orderId) {
+		releaseAll(repository.lockByOrder(orderId, ACTIVE));
+	}
+
+	/**
+	 * Bir neçə sifarişin aktiv rezervlərini bir SELECT, bir UPDATE və bir
+	 * jurnal batch-i ilə azad edir
+	 */
+	public void releaseOrders(Collection<UUID> orderIds) {
+		if (!orderIds.isEmpty()) {
+			releaseAll(repository.lockByOrders(orderIds, ACTIVE));
+		}
+	}
+
+	/**
+	 * Sətrin miqdarı dəyişəndə rezervi də fərq qədər dəyişir
+	 */
+	public void resize(OrderItem item, int newQuantity) {
+		List<StockReservation> active = repository.lockByOrderItem(item.getId(), ACTIVE);
+		if (active.isEmpty()) {
+			throw new MyException("Sifarişin stok rezervinin müddəti bitib");
+		}
+		StockReservation r = active.get(0);
+
+		int difference = newQuantity - r.getQuantity();
+		if (difference > 0) {
+			// stokda kifayət qədər məhsul yoxdursa, xətaya səbəb olur
+			inventoryLedger.reserve(Map.of(r.getProductId(), difference));
+		} else if (difference < 0) {
+			inventoryLedger.release(Map.of(r.getProductId(), -difference));
+		}
+		repository.resize(r.getId(), newQuantity);
+	}
+
+	/**
+	 * Müddəti bitmiş rezervləri hissə-hissə azad edir. Hər hissə üçün bir
+	 * SELECT, bir toplu UPDATE və bir jurnal batch-i icra olunur.
+	 *
+	 * @return azad edilən rezervlərin sayı
+	 */
+	@Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:30000}")
+	public int releaseExpired() {
+		int total = 0;
+		int released;
+		do {
+			Integer batch = tx.execute(status -> releaseAll(
+					repository.lockExpired(LocalDateTime.now(), PageRequest.of(0, sweepBatchSize))));
+			released = batch == null ? 0 : batch;
+			total += released;
+		} while (released == sweepBatchSize);
+
+		if (total > 0) {
+			logger.info("Müddəti bitmiş {} stok rezervi azad edildi", total);
+		}
+		return total;
+	}
+
+	private int releaseAll(List<StockReservation> reservations) {
+		if (reservations.isEmpty()) {
+			return 0;
+		}
+		Map<UUID, Integer> quantities = new LinkedHashMap<>();
+		List<UUID> ids = new ArrayList<>(reservations.size());
+		for (StockReservation r : reservations) {
+			quantities.merge(r.getProductId(), r.getQuantity(), Integer::sum);
+			ids.add(r.getId());
+		}
+		repository.markReleased(ids);
+		inventoryLedger.release(quantities);
+		return ids.size();
+	}
+}
@@ -0,0 +1,162 @@
+package com.app.yolla.modules.order.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heşlənmiş taymer çarxı (hashed timing wheel)
+ * <p>
+ * Çarx wheelSize ölçülü dairəvi massivdir, hər xana tickMillis-lik zaman
+ * dilimidir. Taymer son tarixinin tick nömrəsinə görə xanaya düşür
+ * (tick & mask), çarxın bir dövründən uzaq olan taymerlər sadəcə növbəti
+ * dövrlərdə yenə həmin xanada qalır. Əlavə etmə və ləğv etmə O(1)-dir
+ * (xana daxilində ikitərəfli siyahı + açar üzrə indeks), hər tick yalnız bir
+ * xananı gəzir. Taymer sayı maxTimers ilə məhdudlaşdırılır ki, yaddaş sərhədli
+ * qalsın.
+ * <p>
+ * Thread-safe-dir; vaxtı bitmiş taymerlər kilid xaricində emal olunsun deyə
+ * advance() onları siyahı kimi qaytarır.
+ */
+public final class TimingWheel<K, V> {
+
+	public record Expired<K, V>(K key, V value, long deadlineMillis) {
+	}
+
+	private static final class Timer<K, V> {
+
+		private final K key;
+
+		private final V value;
+
+		private final long deadlineMillis;
+
+		private final long deadlineTick;
+
+		private Timer<K, V> prev;
+
+		private Timer<K, V> next;
+
+		private Timer(K key, V value, long deadlineMillis, long deadlineTick) {
+			this.key = key;
+			this.value = value;
+			this.deadlineMillis = deadlineMillis;
+			this.deadlineTick = deadlineTick;
+		}
+	}
+
+	private final Timer<K, V>[] buckets;
+
+	private final int mask;
+
+	private final long tickMillis;
+
+	private final long startMillis;
+
+	private final int maxTimers;
+
+	private final Map<K, Timer<K, V>> index = new HashMap<>();
+
+	// Son emal olunmuş tick
+	private long tick;
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(int wheelSize, long tickMillis, long startMillis, int maxTimers) {
+		if (Integer.bitCount(wheelSize) != 1) {
+			throw new IllegalArgumentException("wheelSize 2-nin qüvvəti olmalıdır");
+		}
+		this.buckets = new Timer[wheelSize];
+		this.mask = wheelSize - 1;
+		this.tickMillis = tickMillis;
+		this.startMillis = startMillis;
+		this.maxTimers = maxTimers;
+	}
+
+	/**
+	 * Açar üçün taymer qoyur, əvvəlki taymeri varsa əvəz edir. Keçmiş son
+	 * tarixli taymer növbəti tick-də işə düşür.
+	 *
+	 * @return limit dolubsa false
+	 */
+	public synchronized boolean schedule(K key, V value, long deadlineMillis) {
+		Timer<K, V> old = index.remove(key);
+		if (old != null) {
+			unlink(old);
+		} else if (index.size() >= maxTimers) {
+			return false;
+		}
+
+		long deadlineTick = Math.max(tick + 1, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+		Timer<K, V> timer = new Timer<>(key, value, deadlineMillis, deadlineTick);
+		int bucket = (int) (deadlineTick & mask);
+		timer.next = buckets[bucket];
+		if (timer.next != null) {
+			timer.next.prev = timer;
+		}
+		buckets[bucket] = timer;
+		index.put(key, timer);
+		return true;
+	}
+
+	/**
+	 * Açarda taymer yoxdursa qoyur (mövcud taymer dəyişdirilmir)
+	 */
+	public synchronized boolean scheduleIfAbsent(K key, V value, long deadlineMillis) {
+		return !index.containsKey(key) && schedule(key, value, deadlineMillis);
+	}
+
+	public synchronized boolean cancel(K key) {
+		Timer<K, V> timer = index.remove(key);
+		if (timer == null) {
+			return false;
+		}
+		unlink(timer);
+		return true;
+	}
+
+	public synchronized int size() {
+		return index.size();
+	}
+
+	/**
+	 * Çarxı nowMillis anına qədər fırladır
+	 *
+	 * @return vaxtı bitmiş (və çarxdan çıxarılmış) taymerlər
+	 */
+	public List<Expired<K, V>> advance(long nowMillis) {
+		List<Expired<K, V>> expired = new ArrayList<>();
+		synchronized (this) {
+			long target = Math.floorDiv(nowMillis - startMillis, tickMillis);
+			// Geri qalma çarxın ölçüsündən çoxdursa bir tam dövr bütün xanaları əhatə edir
+			long steps = Math.min(target - tick, buckets.length);
+			for (long i = 1; i <= steps; i++) {
+				Timer<K, V> timer = buckets[(int) ((tick + i) & mask)];
+				while (timer != null) {
+					Timer<K, V> next = timer.next;
+					if (timer.deadlineTick <= target) {
+						index.remove(timer.key);
+						unlink(timer);
+						expired.add(new Expired<>(timer.key, timer.value, timer.deadlineMillis));
+					}
+					timer = next;
+				}
+			}
+			tick = Math.max(tick, target);
+		}
+		return expired;
+	}
+
+	private void unlink(Timer<K, V> timer) {
+		if (timer.prev != null) {
+			timer.prev.next = timer.next;
+		} else {
+			buckets[(int) (timer.deadlineTick & mask)] = timer.next;
+		}
+		if (timer.next != null) {
+			timer.next.prev = timer.prev;
+		}
+		timer.prev = null;
+		timer.next = null;
+	}
+}
@@ -1,24 +1,34 @@
 package com.app.yolla.modules.product.controller;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.app.yolla.modules.product.dto.ProductAddRequest;
 import com.app.yolla.modules.product.dto.ProductDTO;
+import com.app.yolla.modules.product.dto.ProductImportReport;
 import com.app.yolla.modules.product.dto.ProductUpdateRequest;
+import com.app.yolla.modules.product.service.ProductCatalog;
+import com.app.yolla.modules.product.service.ProductImporter;
+import com.app.yolla.modules.product.service.ProductSearchIndex;
 import com.app.yolla.modules.product.service.ProductService;
 import com.app.yolla.shared.dto.ApiResponse;
 
@@ -34,6 +44,15 @@ public class ProductController {
 	@Autowired
 	private ProductService service;
 
+	@Autowired
+	private ProductCatalog catalog;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private ProductImporter importer;
+
 	@PostMapping
 	@PreAuthorize("hasRole('ADMIN')")
 	public ResponseEntity<ApiResponse<ProductDTO>> add(@Valid @RequestBody ProductAddRequest req,
@@ -101,4 +120,119 @@ public class ProductController {
 				return ResponseEntity.badRequest().body(response);
 			}
 		}
+
+		/**
+		 * CSV-dən toplu idxal (sütunlar: id, name, description, price,
+		 * stock_quantity; id ixtiyaridir). Fonda işləyir, gedişat
+		 * GET /products/import/{jobId} ilə izlənilir.
+		 */
+		@PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+		@PreAuthorize("hasRole('ADMIN')")
+		public ResponseEntity<ApiResponse<ProductImportReport>> importCsv(@RequestPart("file") MultipartFile file) {
+
+			try {
+				ProductImportReport report = importer.start(file);
+
+				return ResponseEntity.status(HttpStatus.ACCEPTED)
+						.body(new ApiResponse<>(true, "Məhsul idxalı başladı", report));
+
+			} catch (Exception e) {
+				ApiResponse<ProductImportReport> response = new ApiResponse<>(false,
+						"İdxal başladılarkən xəta baş verdi: " + e.getMessage(), null);
+
+				return ResponseEntity.badRequest().body(response);
+			}
+		}
+
+		@GetMapping(path = "/import/{jobId}")
+		@PreAuthorize("hasRole('ADMIN')")
+		public ResponseEntity<ApiResponse<ProductImportReport>> importStatus(@PathVariable("jobId") UUID jobId) {
+
+			try {
+				ProductImportReport report = importer.report(jobId);
+
+				return ResponseEntity.ok(new ApiResponse<>(true, "İdxalın vəziyyəti", report));
+
+			} catch (Exception e) {
+				ApiResponse<ProductImportReport> response = new ApiResponse<>(false,
+						"İdxalın vəziyyəti alınarkən xəta baş verdi: " + e.getMessage(), null);
+
+				return ResponseEntity.badRequest().body(response);
+			}
+		}
+
+		/**
+		 * Kataloq siyahısı yaddaşdakı snapshot-dan verilir, bazaya getmir
+		 */
+		@GetMapping
+		public ResponseEntity<ApiResponse<List<ProductDTO>>> list(
+				@RequestParam(value = "sort", defaultValue = "NAME") ProductCatalog.Sort sort,
+				@RequestParam(value = "page", defaultValue = "0") int page,
+				@RequestParam(value = "size", defaultValue = "20") int size) {
+
+			try {
+				List<ProductDTO> products = catalog.list(sort, page, size);
+
+				return ResponseEntity.ok(new ApiResponse<>(true, "Məhsullar uğurla tapıldı", products));
+
+			} catch (Exception e) {
+				ApiResponse<List<ProductDTO>> response = new ApiResponse<>(false,
+						"Məhsullar alınarkən xəta baş verdi: " + e.getMessage(), null);
+
+				return ResponseEntity.badRequest().body(response);
+			}
+		}
+
+		/**
+		 * Ad və təsvir üzrə hissəvi axtarış - yaddaşdakı trigram indeksi ilə
+		 */
+		@GetMapping(path = "/search")
+		public ResponseEntity<ApiResponse<List<ProductDTO>>> search(@RequestParam("q") String query,
+				@RequestParam(value = "limit", defaultValue = "20") int limit) {
+
+			try {
+				List<ProductDTO> products = catalog.findAll(searchIndex.search(query, limit));
+
+				return ResponseEntity.ok(new ApiResponse<>(true, "Axtarış uğurla tamamlandı", products));
+
+			} catch (Exception e) {
+				ApiResponse<List<ProductDTO>> response = new ApiResponse<>(false,
+						"Axtarış zamanı xəta baş verdi: " + e.getMessage(), null);
+
+				return ResponseEntity.badRequest().body(response);
+			}
+		}
+
+		@GetMapping(path = "/suggest")
+		public ResponseEntity<ApiResponse<List<String>>> suggest(@RequestParam("q") String query,
+				@RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+			try {
+				List<String> names = searchIndex.suggest(query, limit);
+
+				return ResponseEntity.ok(new ApiResponse<>(true, "Təkliflər uğurla tapıldı", names));
+
+			} catch (Exception e) {
+				ApiResponse<List<String>> response = new ApiResponse<>(false,
+						"Təkliflər alınarkən xəta baş verdi: " + e.getMessage(), null);
+
+				return ResponseEntity.badRequest().body(response);
+			}
+		}
+
+		@GetMapping(path = "/{id}")
+		public ResponseEntity<ApiResponse<ProductDTO>> findById(@PathVariable("id") UUID id) {
+
+			try {
+				ProductDTO product = catalog.get(id);
+
+				return ResponseEntity.ok(new ApiResponse<>(true, "Məhsul uğurla tapıldı", product));
+
+			} catch (Exception e) {
+				ApiResponse<ProductDTO> response = new ApiResponse<>(false,
+						"Məhsul alınarkən xəta baş verdi: " + e.getMessage(), null);
+
+				return ResponseEntity.badRequest().body(response);
+			}
+		}
 }
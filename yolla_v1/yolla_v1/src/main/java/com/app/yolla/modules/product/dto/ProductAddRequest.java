@@ -32,6 +32,9 @@ public class ProductAddRequest {
 	@Min(value = 0, message = "Stok miqdarı mənfi ola bilməz")
 	private Integer stockQuantity;
 
+	@Min(value = 0, message = "Minimum stok həddi mənfi ola bilməz")
+	private Integer reorderThreshold;
+
 
 
 
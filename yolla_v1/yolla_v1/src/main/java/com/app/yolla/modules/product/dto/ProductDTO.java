@@ -7,6 +7,8 @@ import java.util.UUID;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import jakarta.persistence.Column;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
@@ -36,6 +38,10 @@ public class ProductDTO {
 
 	private Boolean active;
 
+	// Yalnız admin cavablarında doldurulur, açıq kataloqda null-dur və JSON-a düşmür
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Integer reorderThreshold;
+
 	@CreatedDate
 	@Column(name = "created_at", nullable = false, updatable = false)
 	private LocalDateTime createdAt;
@@ -113,6 +119,14 @@ public class ProductDTO {
 		this.active = active;
 	}
 
+	public Integer getReorderThreshold() {
+		return reorderThreshold;
+	}
+
+	public void setReorderThreshold(Integer reorderThreshold) {
+		this.reorderThreshold = reorderThreshold;
+	}
+
 	public LocalDateTime getCreatedAt() {
 		return createdAt;
 	}
@@ -0,0 +1,7 @@
+package com.app.yolla.modules.product.dto;
+
+/**
+ * İdxal olunmayan CSV sətri - line faylda qeydin başladığı sətirdir
+ */
+public record ProductImportError(long line, String message) {
+}
@@ -0,0 +1,17 @@
+package com.app.yolla.modules.product.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * CSV idxalının vəziyyəti: oxunan, əlavə olunan, yenilənən və səhv sətirlər.
+ * errors ən çox ProductImporter.MAX_ERRORS sətir saxlayır, failed isə hamısını sayır.
+ */
+public record ProductImportReport(UUID jobId, Status status, long rows, long inserted, long updated, long failed,
+		List<ProductImportError> errors, LocalDateTime startedAt, LocalDateTime finishedAt) {
+
+	public enum Status {
+		RUNNING, DONE, FAILED
+	}
+}
@@ -14,4 +14,6 @@ public class ProductUpdateRequest {
 	private BigDecimal price;
 
 	private Integer stockQuantity;
+
+	private Integer reorderThreshold;
 }
@@ -0,0 +1,49 @@
+package com.app.yolla.modules.product.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stok jurnalı
+ * <p>
+ * Hər rezerv/azad etmə əməliyyatı products cədvəlinə yazılmadan əvvəl burada
+ * saxlanılır. Write-behind prosesi bu sətirləri toplayıb products.stock_quantity
+ * sütununa tətbiq edir və silir. Qəza zamanı yaddaşdakı sayğaclar
+ * stock_quantity + SUM(delta) kimi bərpa olunur.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(name = "inventory_deltas", indexes = @Index(name = "idx_inventory_deltas_product", columnList = "product_id"))
+public class InventoryDelta {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "product_id", columnDefinition = "VARCHAR(36)", nullable = false)
+	@JdbcTypeCode(SqlTypes.CHAR)
+	private UUID productId;
+
+	@Column(nullable = false)
+	private Integer delta;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+}
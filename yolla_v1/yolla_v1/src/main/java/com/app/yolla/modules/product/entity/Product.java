@@ -42,6 +42,9 @@ public class Product {
 
 	private Integer stockQuantity;
 
+	// Mövcud stok bu həddə düşdükdə LowStockWatcher xəbərdarlıq edir, null - izlənmir
+	private Integer reorderThreshold;
+
 	private Boolean active;
 
 	@CreatedDate
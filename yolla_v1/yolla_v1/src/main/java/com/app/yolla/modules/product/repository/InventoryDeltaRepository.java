@@ -0,0 +1,30 @@
+package com.app.yolla.modules.product.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.app.yolla.modules.product.entity.InventoryDelta;
+
+@Repository
+public interface InventoryDeltaRepository extends JpaRepository<InventoryDelta, Long>, InventoryJournalRepository {
+
+	/**
+	 * Tətbiq olunmamış jurnal sətirlərinin növbəti hissəsi (id sırası ilə)
+	 */
+	@Query("select d from InventoryDelta d order by d.id")
+	List<InventoryDelta> findPending(Pageable pageable);
+
+	/**
+	 * Məhsulların real mövcud stoku: products.stock_quantity + tətbiq olunmamış jurnal.
+	 * Bir statement olduğu üçün write-behind tranzaksiyası ilə ziddiyyət yaratmır.
+	 */
+	@Query(value = "select p.id, coalesce(p.stock_quantity, 0) + coalesce((select sum(d.delta) from inventory_deltas d "
+			+ "where d.product_id = p.id), 0) from products p where p.id in (:ids)", nativeQuery = true)
+	List<Object[]> findAvailableStock(@Param("ids") Collection<String> ids);
+}
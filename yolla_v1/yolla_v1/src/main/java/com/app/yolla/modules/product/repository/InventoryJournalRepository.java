@@ -0,0 +1,17 @@
+package com.app.yolla.modules.product.repository;
+
+import java.util.List;
+
+import com.app.yolla.modules.product.repository.ProductStockRepository.StockChange;
+
+/**
+ * Stok jurnalına toplu yazma (IDENTITY açarı ilə Hibernate batch etmədiyi üçün JDBC ilə).
+ */
+public interface InventoryJournalRepository {
+
+	/**
+	 * Hər dəyişiklik üçün bir jurnal sətri əlavə edir (bir JDBC batch). Miqdar
+	 * işarəlidir: rezerv mənfi, azad etmə müsbətdir.
+	 */
+	void append(List<StockChange> changes);
+}
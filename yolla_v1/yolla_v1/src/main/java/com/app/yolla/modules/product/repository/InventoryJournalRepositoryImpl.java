@@ -0,0 +1,31 @@
+package com.app.yolla.modules.product.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.yolla.modules.product.repository.ProductStockRepository.StockChange;
+
+public class InventoryJournalRepositoryImpl implements InventoryJournalRepository {
+
+	private static final String INSERT_SQL = "INSERT INTO inventory_deltas (product_id, delta, created_at) VALUES (?, ?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void append(List<StockChange> changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, c) -> {
+			ps.setString(1, c.productId().toString());
+			ps.setInt(2, c.quantity());
+			ps.setTimestamp(3, now);
+		});
+	}
+}
@@ -0,0 +1,34 @@
+package com.app.yolla.modules.product.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * CSV idxalı üçün JDBC batch əməliyyatları - entity və ModelMapper
+ * yaradılmadan birbaşa products cədvəlinə yazılır.
+ */
+public interface ProductImportRepository {
+
+	/**
+	 * Verilən id-lərdən bazada olanlar (1000 id-lik IN sorğuları ilə)
+	 */
+	List<UUID> findExistingIds(List<UUID> ids);
+
+	/**
+	 * id üzrə mövcud məhsulların ad, təsvir, qiymət və stokunu yeniləyir
+	 *
+	 * @return hər sətir üçün yenilənən sətir sayı (0 - belə məhsul yoxdur)
+	 */
+	int[] updateImported(List<ImportedProduct> products, LocalDateTime now);
+
+	/**
+	 * Çoxsətirli INSERT ... VALUES (...), (...) ilə əlavə edir - hər sətir üçün
+	 * ayrıca statement icra olunmur
+	 */
+	void insertImported(List<ImportedProduct> products, UUID userId, LocalDateTime now);
+
+	record ImportedProduct(UUID id, String name, String description, BigDecimal price, int stockQuantity) {
+	}
+}
@@ -0,0 +1,107 @@
+package com.app.yolla.modules.product.repository;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class ProductImportRepositoryImpl implements ProductImportRepository {
+
+	private static final int BATCH_SIZE = 1000;
+
+	// Bir INSERT statement-dəki sətir sayı (9 parametr - 4500 yer tutucu)
+	private static final int ROWS_PER_INSERT = 500;
+
+	private static final String UPDATE_SQL = "UPDATE products SET name = ?, description = ?, price = ?, "
+			+ "stock_quantity = ?, active = TRUE, updated_at = ? WHERE id = ?";
+
+	private static final String INSERT_SQL = "INSERT INTO products (id, name, description, price, stock_quantity, "
+			+ "active, created_at, updated_at, user_id) VALUES ";
+
+	private static final String INSERT_ROW = "(?, ?, ?, ?, ?, TRUE, ?, ?, ?)";
+
+	private static final String FULL_INSERT_SQL = insertSql(ROWS_PER_INSERT);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public List<UUID> findExistingIds(List<UUID> ids) {
+		List<UUID> result = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+			List<UUID> batch = ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE));
+			String sql = "SELECT id FROM products WHERE id IN ("
+					+ String.join(", ", Collections.nCopies(batch.size(), "?")) + ")";
+			Object[] args = new Object[batch.size()];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = batch.get(i).toString();
+			}
+			for (String id : jdbcTemplate.queryForList(sql, String.class, args)) {
+				result.add(UUID.fromString(id));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public int[] updateImported(List<ImportedProduct> products, LocalDateTime now) {
+		int[] result = new int[products.size()];
+		if (products.isEmpty()) {
+			return result;
+		}
+		Timestamp ts = Timestamp.valueOf(now);
+		int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, products, BATCH_SIZE, (ps, p) -> {
+			ps.setString(1, p.name());
+			ps.setString(2, p.description());
+			ps.setBigDecimal(3, p.price());
+			ps.setInt(4, p.stockQuantity());
+			ps.setTimestamp(5, ts);
+			ps.setString(6, p.id().toString());
+		});
+		int i = 0;
+		for (int[] batch : counts) {
+			for (int count : batch) {
+				result[i++] = count;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void insertImported(List<ImportedProduct> products, UUID userId, LocalDateTime now) {
+		if (products.isEmpty()) {
+			return;
+		}
+		Timestamp ts = Timestamp.valueOf(now);
+		// user_id Hibernate-in UUID üçün standart ikili (16 bayt) formasındadır
+		byte[] user = ByteBuffer.allocate(16).putLong(userId.getMostSignificantBits())
+				.putLong(userId.getLeastSignificantBits()).array();
+		for (int from = 0; from < products.size(); from += ROWS_PER_INSERT) {
+			List<ImportedProduct> rows = products.subList(from, Math.min(products.size(), from + ROWS_PER_INSERT));
+			String sql = rows.size() == ROWS_PER_INSERT ? FULL_INSERT_SQL : insertSql(rows.size());
+			jdbcTemplate.update(sql, ps -> {
+				int i = 1;
+				for (ImportedProduct p : rows) {
+					ps.setString(i++, p.id().toString());
+					ps.setString(i++, p.name());
+					ps.setString(i++, p.description());
+					ps.setBigDecimal(i++, p.price());
+					ps.setInt(i++, p.stockQuantity());
+					ps.setTimestamp(i++, ts);
+					ps.setTimestamp(i++, ts);
+					ps.setBytes(i++, user);
+				}
+			});
+		}
+	}
+
+	private static String insertSql(int rows) {
+		return INSERT_SQL + String.join(", ", Collections.nCopies(rows, INSERT_ROW));
+	}
+}
@@ -1,15 +1,32 @@
 package com.app.yolla.modules.product.repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.app.yolla.modules.product.entity.Product;
 
-@Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+import jakarta.persistence.LockModeType;
 
+@Repository
+public interface ProductRepository
+		extends JpaRepository<Product, UUID>, ProductStockRepository, ProductImportRepository {
 
+	/**
+	 * Stok birbaşa yenilənəndə write-behind ilə yarışmamaq üçün sətir kilidlənir
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select p from Product p where p.id = ?1")
+	Optional<Product> findByIdForUpdate(UUID id);
 
+	/**
+	 * Minimum stok həddi qoyulmuş məhsullar: [UUID, Integer] cütləri
+	 */
+	@Query("select p.id, p.reorderThreshold from Product p where p.reorderThreshold is not null")
+	List<Object[]> findReorderThresholds();
 }
@@ -0,0 +1,20 @@
+package com.app.yolla.modules.product.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Məhsul stokunun JDBC batch ilə dəyişdirilməsi - InventoryLedger-in
+ * write-behind prosesi üçün.
+ */
+public interface ProductStockRepository {
+
+	/**
+	 * Hər sətir üçün stoku verilən miqdar qədər dəyişir (bir JDBC batch).
+	 * Miqdar mənfi də ola bilər - write-behind xalis fərqləri belə yazır.
+	 */
+	void incrementStock(List<StockChange> changes);
+
+	record StockChange(UUID productId, int quantity) {
+	}
+}
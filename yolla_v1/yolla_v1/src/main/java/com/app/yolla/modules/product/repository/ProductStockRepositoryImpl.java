@@ -0,0 +1,25 @@
+package com.app.yolla.modules.product.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+	private static final String INCREMENT_SQL = "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void incrementStock(List<StockChange> changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate(INCREMENT_SQL, changes, changes.size(), (ps, c) -> {
+			ps.setInt(1, c.quantity());
+			ps.setString(2, c.productId().toString());
+		});
+	}
+}
@@ -0,0 +1,487 @@
+package com.app.yolla.modules.product.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.product.entity.InventoryDelta;
+import com.app.yolla.modules.product.repository.InventoryDeltaRepository;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.repository.ProductStockRepository.StockChange;
+import com.app.yolla.shared.exception.MyException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Yaddaşda saxlanılan stok reyestri
+ * <p>
+ * Hər məhsul üçün mövcud stok lock-free sayğacda (CAS) saxlanılır, buna görə
+ * rezerv və azad etmə products sətrinə kilid qoymadan yaddaş sürətində işləyir.
+ * Hər dəyişiklik sifarişin öz tranzaksiyasında inventory_deltas jurnalına
+ * yazılır, write-behind prosesi isə jurnalı dövri olaraq toplayıb
+ * products.stock_quantity sütununa batch şəklində tətbiq edir.
+ * <p>
+ * Sayğaclar ilk müraciətdə stock_quantity + SUM(jurnal) kimi bazadan
+ * yüklənir; qəzadan sonra bərpa da eyni yolla olur. Hər commit olunmuş
+ * dəyişiklikdən sonra yaddaşdakı sayğac LowStockWatcher-ə verilir (minimum
+ * stok həddi). Reyestr bir tətbiq nüsxəsi üçün nəzərdə tutulub.
+ * <p>
+ * Commit olunmamış rezervlər pending-də saxlanılır və yükləmə onları bazadakı
+ * cəmdən çıxır - əks halda rezervlə commit arasında sayğac çıxarılıb (evict)
+ * yenidən yüklənsə, rezerv sayğacda itər və commit-dən sonra stok artıq
+ * satılardı. Sayğacın dəyişdirilməsi, çıxarılması və pending-in azaldılması
+ * zolaq kilidləri altında olur, commit-in özü də kilid altında keçir.
+ */
+@Service
+public class InventoryLedger {
+
+	private static final Logger logger = LoggerFactory.getLogger(InventoryLedger.class);
+
+	private static final int STRIPES = 64;
+
+	private final ConcurrentHashMap<UUID, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+	private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+	// Məhsul üzrə commit olunmamış rezerv miqdarı - zolaq kilidi ilə qorunur
+	private final ConcurrentHashMap<UUID, Integer> pending = new ConcurrentHashMap<>();
+
+	@Autowired
+	private InventoryDeltaRepository journal;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private LowStockWatcher lowStockWatcher;
+
+	@Value("${inventory.write-behind.batch-size:1000}")
+	private int flushBatchSize;
+
+	private final TransactionTemplate tx;
+
+	public InventoryLedger(PlatformTransactionManager transactionManager) {
+		this.tx = new TransactionTemplate(transactionManager);
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Bütün sətirləri ya tam rezerv edir, ya da heç birini. Kifayət qədər stok
+	 * olmadıqda xəta atılır. Tranzaksiya geri qaytarılarsa rezerv də ləğv olunur.
+	 */
+	public void reserve(Map<UUID, Integer> quantities) {
+		if (!take(List.of(quantities))[0]) {
+			throw new MyException("Stokda kifayət qədər məhsul yoxdur");
+		}
+
+		List<StockChange> reserved = new ArrayList<>(quantities.size());
+		quantities.forEach((id, qty) -> reserved.add(new StockChange(id, -qty)));
+		append(reserved, quantities);
+	}
+
+	/**
+	 * Toplu sifariş üçün: hər sifariş ayrıca ya tam rezerv olunur, ya da heç
+	 * rezerv olunmur. Sayğaclar bir sorğu ilə yüklənir, uğurlu rezervlər
+	 * məhsul üzrə toplanıb bir jurnal batch-i ilə yazılır.
+	 *
+	 * @return hər sifariş üçün rezervin uğurlu olub-olmadığı
+	 */
+	public boolean[] reserveAll(List<Map<UUID, Integer>> orders) {
+		boolean[] result = take(orders);
+
+		// Jurnala sətir başına deyil, məhsul başına xalis fərq yazılır
+		Map<UUID, Integer> net = new LinkedHashMap<>();
+		for (int i = 0; i < orders.size(); i++) {
+			if (result[i]) {
+				orders.get(i).forEach((id, qty) -> net.merge(id, qty, Integer::sum));
+			}
+		}
+		if (!net.isEmpty()) {
+			List<StockChange> changes = new ArrayList<>(net.size());
+			net.forEach((id, qty) -> changes.add(new StockChange(id, -qty)));
+
+			append(changes, net);
+		}
+		return result;
+	}
+
+	/**
+	 * Hər sifarişi ayrıca ya tam götürür, ya da heç götürmür. Götürmə zolaq
+	 * kilidləri altında cari sayğaclardan edilir və pending-ə yazılır; sayğac
+	 * yükləmə ilə kilid arasında çıxarılıbsa yenidən yüklənir.
+	 */
+	private boolean[] take(List<Map<UUID, Integer>> orders) {
+		Set<UUID> ids = new LinkedHashSet<>();
+		for (Map<UUID, Integer> quantities : orders) {
+			ids.addAll(quantities.keySet());
+		}
+		while (true) {
+			load(ids);
+			TreeSet<Integer> locked = lock(ids);
+			try {
+				Map<UUID, AtomicInteger> current = new HashMap<>(ids.size() * 2);
+				for (UUID id : ids) {
+					AtomicInteger counter = counters.get(id);
+					if (counter == null) {
+						break;
+					}
+					current.put(id, counter);
+				}
+				if (current.size() < ids.size()) {
+					continue;
+				}
+
+				boolean[] result = new boolean[orders.size()];
+				for (int i = 0; i < orders.size(); i++) {
+					List<StockChange> taken = new ArrayList<>(orders.get(i).size());
+					boolean ok = true;
+					for (Map.Entry<UUID, Integer> e : orders.get(i).entrySet()) {
+						if (!tryTake(current.get(e.getKey()), e.getValue())) {
+							ok = false;
+							break;
+						}
+						taken.add(new StockChange(e.getKey(), -e.getValue()));
+					}
+					if (ok) {
+						orders.get(i).forEach((id, qty) -> pending.merge(id, qty, Integer::sum));
+					} else {
+						undo(current, taken);
+					}
+					result[i] = ok;
+				}
+				return result;
+			} finally {
+				unlock(locked);
+			}
+		}
+	}
+
+	/**
+	 * Əvvəl rezerv olunmuş miqdarları geri qaytarır. Sayğaclar tranzaksiya
+	 * uğurla bitdikdən sonra artırılır.
+	 */
+	public void release(Map<UUID, Integer> quantities) {
+		List<StockChange> released = new ArrayList<>(quantities.size());
+		quantities.forEach((id, qty) -> released.add(new StockChange(id, qty)));
+
+		journal.append(released);
+		applyOnCommit(quantities.keySet(), () -> quantities.forEach(this::addIfLoaded));
+	}
+
+	/**
+	 * Stok birbaşa bazada dəyişdirildikdə (məs. admin yeniləməsi) sayğacı fərq
+	 * qədər düzəldir. Fərq sətir kilidi altında hesablanmalıdır.
+	 */
+	public void adjust(UUID productId, int difference) {
+		applyOnCommit(List.of(productId), () -> addIfLoaded(productId, difference));
+	}
+
+	public void evict(UUID productId) {
+		applyOnCommit(List.of(productId), () -> counters.remove(productId));
+	}
+
+	public int available(UUID productId) {
+		return load(List.of(productId)).get(productId).get();
+	}
+
+	/**
+	 * Write-behind: jurnalın növbəti hissəsini məhsul üzrə toplayıb bir batch
+	 * UPDATE ilə products cədvəlinə yazır və tətbiq olunan sətirləri eyni
+	 * tranzaksiyada silir.
+	 *
+	 * @return tətbiq olunan jurnal sətirlərinin sayı
+	 */
+	@Scheduled(fixedDelayString = "${inventory.write-behind.interval-ms:500}")
+	public int flush() {
+		Integer applied = tx.execute(status -> {
+			List<InventoryDelta> batch = journal.findPending(PageRequest.of(0, flushBatchSize));
+			if (batch.isEmpty()) {
+				return 0;
+			}
+
+			Map<UUID, Integer> net = new LinkedHashMap<>();
+			List<Long> ids = new ArrayList<>(batch.size());
+			for (InventoryDelta d : batch) {
+				net.merge(d.getProductId(), d.getDelta(), Integer::sum);
+				ids.add(d.getId());
+			}
+
+			List<StockChange> changes = new ArrayList<>(net.size());
+			net.forEach((id, delta) -> {
+				if (delta != 0) {
+					changes.add(new StockChange(id, delta));
+				}
+			});
+			productRepository.incrementStock(changes);
+			journal.deleteAllByIdInBatch(ids);
+
+			logger.debug("Stok jurnalı tətbiq edildi: sətir={}, məhsul={}", ids.size(), changes.size());
+			return ids.size();
+		});
+		return applied == null ? 0 : applied;
+	}
+
+	/**
+	 * Qəzadan sonra bərpa: əvvəlki işləmədən qalan jurnal products cədvəlinə
+	 * tətbiq olunur. Sayğaclar isə ilk müraciətdə bazadan yenidən qurulur.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void recover() {
+		int total = drain();
+		if (total > 0) {
+			logger.info("Stok jurnalı bərpa edildi: {} sətir tətbiq olundu", total);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		try {
+			drain();
+		} catch (RuntimeException e) {
+			logger.warn("Stok jurnalı bağlanma zamanı tətbiq olunmadı, növbəti başlanğıcda bərpa olunacaq", e);
+		}
+	}
+
+	private int drain() {
+		int total = 0;
+		int applied;
+		while ((applied = flush()) > 0) {
+			total += applied;
+		}
+		return total;
+	}
+
+	/**
+	 * Çatışmayan sayğacları bir sorğu ilə yükləyir. Eyni məhsulun paralel
+	 * yüklənməsinin qarşısını zolaqlı (striped) kilidlər alır.
+	 */
+	private Map<UUID, AtomicInteger> load(Collection<UUID> ids) {
+		Map<UUID, AtomicInteger> result = new LinkedHashMap<>();
+		List<UUID> missing = new ArrayList<>();
+		for (UUID id : ids) {
+			AtomicInteger counter = counters.get(id);
+			if (counter != null) {
+				result.put(id, counter);
+			} else {
+				missing.add(id);
+			}
+		}
+		if (missing.isEmpty()) {
+			return result;
+		}
+
+		TreeSet<Integer> locked = lock(missing);
+		try {
+			List<String> toQuery = new ArrayList<>();
+			for (UUID id : missing) {
+				AtomicInteger counter = counters.get(id);
+				if (counter != null) {
+					result.put(id, counter);
+				} else {
+					toQuery.add(id.toString());
+				}
+			}
+			if (!toQuery.isEmpty()) {
+				for (Object[] row : journal.findAvailableStock(toQuery)) {
+					UUID id = UUID.fromString(row[0].toString());
+					// Bazadakı cəmə hələ commit olunmamış rezervlər daxil deyil
+					int available = ((Number) row[1]).intValue() - pending.getOrDefault(id, 0);
+					AtomicInteger counter = new AtomicInteger(available);
+					counters.put(id, counter);
+					result.put(id, counter);
+				}
+			}
+		} finally {
+			unlock(locked);
+		}
+
+		if (result.size() != ids.size()) {
+			throw new MyException("Bu id'li məhsul yoxdur");
+		}
+		return result;
+	}
+
+	private static boolean tryTake(AtomicInteger counter, int quantity) {
+		while (true) {
+			int current = counter.get();
+			if (current < quantity) {
+				return false;
+			}
+			if (counter.compareAndSet(current, current - quantity)) {
+				return true;
+			}
+		}
+	}
+
+	private static void undo(Map<UUID, AtomicInteger> loaded, List<StockChange> reserved) {
+		for (StockChange c : reserved) {
+			loaded.get(c.productId()).addAndGet(-c.quantity());
+		}
+	}
+
+	private void addIfLoaded(UUID productId, int quantity) {
+		AtomicInteger counter = counters.get(productId);
+		if (counter != null) {
+			counter.addAndGet(quantity);
+		}
+	}
+
+	/**
+	 * Kilidlər həmişə eyni sırada alınır ki, deadlock olmasın.
+	 */
+	private TreeSet<Integer> lock(Collection<UUID> ids) {
+		TreeSet<Integer> indexes = new TreeSet<>();
+		for (UUID id : ids) {
+			indexes.add((id.hashCode() & 0x7fffffff) % STRIPES);
+		}
+		for (int i : indexes) {
+			stripes[i].lock();
+		}
+		return indexes;
+	}
+
+	private void unlock(TreeSet<Integer> indexes) {
+		for (int i : indexes.descendingSet()) {
+			stripes[i].unlock();
+		}
+	}
+
+	/**
+	 * Yaddaş dəyişikliyini commit anında tətbiq edir. Zolaq kilidləri commit
+	 * boyunca saxlanılır ki, paralel yüklənmə bazanı commit-dən əvvəl oxuyub
+	 * sayğacı commit-dən sonra qoymasın (və ya əksinə, dəyişiklik iki dəfə
+	 * sayılmasın).
+	 */
+	private void applyOnCommit(Collection<UUID> ids, Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			TreeSet<Integer> locked = lock(ids);
+			try {
+				action.run();
+			} finally {
+				unlock(locked);
+			}
+			checkThresholds(ids);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			private TreeSet<Integer> locked;
+
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				locked = lock(ids);
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (locked == null) {
+					return;
+				}
+				try {
+					if (status == STATUS_COMMITTED) {
+						action.run();
+					}
+				} finally {
+					unlock(locked);
+				}
+				if (status == STATUS_COMMITTED) {
+					checkThresholds(ids);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Rezerv commit olunanda pending-dən çıxır (artıq bazadakı cəmdədir), geri
+	 * qaytarılanda isə miqdar cari sayğaca qayıdır. Kilidlər applyOnCommit-dəki
+	 * kimi commit boyunca saxlanılır. Commit olunarsa minimum stok hədləri
+	 * yoxlanılır - geri qaytarılan rezerv xəbərdarlıq yaratmır.
+	 */
+	private void append(List<StockChange> changes, Map<UUID, Integer> reserved) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			// Jurnal öz tranzaksiyasında commit olunur - kilid yazı boyunca saxlanılır
+			TreeSet<Integer> locked = lock(reserved.keySet());
+			boolean committed = false;
+			try {
+				journal.append(changes);
+				committed = true;
+			} finally {
+				try {
+					settle(reserved, committed);
+				} finally {
+					unlock(locked);
+				}
+			}
+			checkThresholds(reserved.keySet());
+			return;
+		}
+		// Yazı xəta ilə bitsə də rezerv geri qaytarılsın deyə əvvəlcə qeydiyyat
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			private TreeSet<Integer> locked;
+
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				locked = lock(reserved.keySet());
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (locked == null) {
+					locked = lock(reserved.keySet());
+				}
+				try {
+					settle(reserved, status == STATUS_COMMITTED);
+				} finally {
+					unlock(locked);
+				}
+				if (status == STATUS_COMMITTED) {
+					checkThresholds(reserved.keySet());
+				}
+			}
+		});
+		journal.append(changes);
+	}
+
+	private void settle(Map<UUID, Integer> reserved, boolean committed) {
+		reserved.forEach((id, qty) -> {
+			pending.computeIfPresent(id, (k, left) -> left - qty == 0 ? null : left - qty);
+			if (!committed) {
+				addIfLoaded(id, qty);
+			}
+		});
+	}
+
+	private void checkThresholds(Collection<UUID> ids) {
+		for (UUID id : ids) {
+			AtomicInteger counter = counters.get(id);
+			if (counter != null) {
+				lowStockWatcher.check(id, counter.get());
+			}
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.app.yolla.modules.product.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Məhsulun mövcud stoku minimum həddə (reorderThreshold) düşdükdə
+ * LowStockWatcher tərəfindən dərc olunur - təchizat və bildiriş göndərənlər
+ * bunu dinləyir.
+ */
+public record LowStockEvent(UUID productId, int available, int threshold, LocalDateTime at) {
+}
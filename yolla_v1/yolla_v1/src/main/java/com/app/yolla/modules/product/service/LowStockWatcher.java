@@ -0,0 +1,152 @@
+package com.app.yolla.modules.product.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.app.yolla.modules.product.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Minimum stok həddi nəzarətçisi
+ * <p>
+ * Hədlər (products.reorder_threshold) yaddaşda saxlanılır. InventoryLedger hər
+ * commit olunmuş stok dəyişikliyindən sonra check() çağırır - bir map axtarışı
+ * və müqayisə, bazaya sorğu yoxdur, products cədvəli dövri olaraq skan edilmir.
+ * Mövcud stok həddə və ya altına düşdükdə bir dəfə xəbərdarlıq edilir
+ * (products.low_stock.alerts metriki və LowStockEvent); stok həddən yuxarı
+ * qalxana qədər təkrar xəbərdarlıq olmur. Eyni məhsul üçün iki xəbərdarlıq
+ * arasında ən azı cooldown-minutes keçməlidir - bu müddətdə baş verən keçid
+ * növbəti stok dəyişikliyində yenidən yoxlanılır. Nəzarətçi bir tətbiq
+ * nüsxəsi üçün nəzərdə tutulub.
+ */
+@Component
+public class LowStockWatcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(LowStockWatcher.class);
+
+	private static final class Watch {
+		final int threshold;
+		// Xəbərdarlıq edilib, stok hələ həddən yuxarı qalxmayıb
+		volatile boolean low;
+		long lastAlertMillis;
+
+		Watch(int threshold, long lastAlertMillis) {
+			this.threshold = threshold;
+			this.lastAlertMillis = lastAlertMillis;
+		}
+	}
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry;
+
+	@Value("${inventory.low-stock.cooldown-minutes:30}")
+	private long cooldownMinutes;
+
+	private final ConcurrentHashMap<UUID, Watch> watches = new ConcurrentHashMap<>();
+
+	private final AtomicInteger alerts = new AtomicInteger();
+
+	/**
+	 * @return izlənən məhsul sayı
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public int load() {
+		for (Object[] row : repository.findReorderThresholds()) {
+			watch((UUID) row[0], ((Number) row[1]).intValue());
+		}
+		logger.info("Minimum stok hədləri yükləndi: {} məhsul", watches.size());
+		return watches.size();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		watch(event.productId(), event.product() == null ? null : event.product().getReorderThreshold());
+	}
+
+	/**
+	 * Həddi qoyur və ya (null) silir. Hədd dəyişmirsə xəbərdarlıq vəziyyəti
+	 * saxlanılır, dəyişirsə cooldown saxlanılmaqla yenidən qurulur.
+	 */
+	public void watch(UUID productId, Integer threshold) {
+		if (threshold == null) {
+			watches.remove(productId);
+			return;
+		}
+		watches.compute(productId, (id, old) -> {
+			if (old != null && old.threshold == threshold) {
+				return old;
+			}
+			return new Watch(threshold, old == null ? 0 : old.lastAlertMillis);
+		});
+	}
+
+	public boolean check(UUID productId, int available) {
+		return check(productId, available, System.currentTimeMillis());
+	}
+
+	/**
+	 * Mövcud stoku həddlə müqayisə edir
+	 *
+	 * @return xəbərdarlıq edildisə true
+	 */
+	public boolean check(UUID productId, int available, long nowMillis) {
+		Watch w = watches.get(productId);
+		if (w == null) {
+			return false;
+		}
+		if (available > w.threshold) {
+			if (w.low) {
+				w.low = false;
+			}
+			return false;
+		}
+		if (w.low) {
+			return false;
+		}
+		synchronized (w) {
+			if (w.low || (w.lastAlertMillis > 0
+					&& nowMillis - w.lastAlertMillis < Duration.ofMinutes(cooldownMinutes).toMillis())) {
+				return false;
+			}
+			w.low = true;
+			w.lastAlertMillis = nowMillis;
+		}
+		alert(productId, available, w.threshold);
+		return true;
+	}
+
+	public int alerts() {
+		return alerts.get();
+	}
+
+	private void alert(UUID productId, int available, int threshold) {
+		alerts.incrementAndGet();
+		if (meterRegistry != null) {
+			Counter.builder("products.low_stock.alerts").description("Minimum stok həddinə düşmüş məhsullar")
+					.register(meterRegistry).increment();
+		}
+		logger.warn("Məhsulun stoku minimum həddə düşdü: {} (mövcud {}, hədd {})", productId, available, threshold);
+		eventPublisher.publishEvent(new LowStockEvent(productId, available, threshold, LocalDateTime.now()));
+	}
+}
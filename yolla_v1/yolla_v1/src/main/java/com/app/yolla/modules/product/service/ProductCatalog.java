@@ -0,0 +1,293 @@
+package com.app.yolla.modules.product.service;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.app.yolla.modules.product.dto.ProductDTO;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Aktiv məhsulların yaddaşdakı dəyişməz kataloqu
+ * <p>
+ * Oxumalar bazaya getmir: volatile istinaddakı snapshot id üzrə xəritə və
+ * hazır sıralanmış siyahılardan ibarətdir, heç vaxt dəyişdirilmir, buna görə
+ * oxuyan thread-lər kilidsiz işləyir. Yazma (ProductChangedEvent, commit-dən
+ * sonra) yalnız dəyişən məhsulu köhnə snapshot-un surətində əvəz edib yeni
+ * snapshot-u dərc edir (copy-on-write); yazanlar öz aralarında sinxronlaşır.
+ * <p>
+ * stockQuantity son admin yeniləməsindəki qiymətdir - sifariş zamanı
+ * mövcudluq InventoryLedger-dən yoxlanılır. Kataloq açıq endpoint-lərə
+ * xidmət edir, buna görə daxili minimum stok həddi (reorderThreshold) burada
+ * saxlanılmır.
+ */
+@Component
+public class ProductCatalog {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductCatalog.class);
+
+	public static final int MAX_PAGE_SIZE = 100;
+
+	public enum Sort {
+		NAME(Comparator.comparing(ProductDTO::getName, Comparator.nullsLast(NAMES))),
+		PRICE(Comparator.comparing(ProductDTO::getPrice, Comparator.nullsLast(Comparator.naturalOrder()))),
+		NEWEST(Comparator.comparing(ProductDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+		// id ilə tamamlanır ki, sıra tam olsun və binary search məhsulu dəqiq tapsın
+		private final Comparator<ProductDTO> order;
+
+		Sort(Comparator<ProductDTO> order) {
+			this.order = order.thenComparing(ProductDTO::getId);
+		}
+	}
+
+	/**
+	 * Azərbaycan əlifbası sırası (ç c-dən, ş s-dən sonra), böyük-kiçik hərf
+	 * fərqi nəzərə alınmır. Collator yalnız sinxronlaşmış yazma yolunda işlənir.
+	 */
+	private static final Collator NAMES = nameCollator();
+
+	private static Collator nameCollator() {
+		Collator collator = Collator.getInstance(Locale.forLanguageTag("az"));
+		collator.setStrength(Collator.SECONDARY);
+		return collator;
+	}
+
+	private record Snapshot(Map<UUID, ProductDTO> byId, Map<Sort, List<ProductDTO>> views) {
+	}
+
+	private record NameKey(String name, CollationKey key) {
+	}
+
+	/**
+	 * Collator.compare hər müqayisədə adları yenidən çevirir; ad bir dəfə
+	 * CollationKey-ə çevrilib ad dəyişənədək saxlanılır və NAME sırası baytlarla
+	 * müqayisə olunur (CollationKey.compareTo Collator.compare ilə eyni nəticə
+	 * verir). Yalnız sinxronlaşmış yazma yolunda işlənir.
+	 */
+	private final Map<UUID, NameKey> nameKeys = new HashMap<>();
+
+	private final Comparator<ProductDTO> byNameKey = Comparator
+			.comparing(this::nameKey, Comparator.nullsLast(Comparator.<CollationKey>naturalOrder()))
+			.thenComparing(ProductDTO::getId);
+
+	@Autowired
+	private ProductRepository repository;
+
+	private volatile Snapshot snapshot = new Snapshot(Map.of(), emptyViews());
+
+	/**
+	 * Başlanğıcda kataloqu bazadan bir dəfə qurur
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized int load() {
+		nameKeys.clear();
+		Map<UUID, ProductDTO> byId = new HashMap<>();
+		for (Product p : repository.findAll()) {
+			if (Boolean.TRUE.equals(p.getActive())) {
+				byId.put(p.getId(), toDTO(p));
+			}
+		}
+		Map<Sort, List<ProductDTO>> views = new HashMap<>();
+		for (Sort sort : Sort.values()) {
+			List<ProductDTO> view = new ArrayList<>(byId.values());
+			view.sort(order(sort));
+			views.put(sort, Collections.unmodifiableList(view));
+		}
+		snapshot = new Snapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(views));
+		logger.info("Məhsul kataloqu quruldu: {} məhsul", byId.size());
+		return byId.size();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onProductChanged(ProductChangedEvent event) {
+		ProductDTO current = event.product() != null && Boolean.TRUE.equals(event.product().getActive())
+				? publicView(event.product())
+				: null;
+		Snapshot s = snapshot;
+		ProductDTO previous = s.byId().get(event.productId());
+		if (previous == null && current == null) {
+			return;
+		}
+		Map<UUID, ProductDTO> byId = new HashMap<>(s.byId());
+		if (current == null) {
+			byId.remove(event.productId());
+		} else {
+			byId.put(event.productId(), current);
+		}
+		Map<Sort, List<ProductDTO>> views = new HashMap<>();
+		for (Sort sort : Sort.values()) {
+			views.put(sort, replace(s.views().get(sort), previous, current, order(sort)));
+		}
+		if (current == null) {
+			nameKeys.remove(event.productId());
+		}
+		snapshot = new Snapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(views));
+	}
+
+	/**
+	 * İdxal hissəsi: snapshot bir dəfə köçürülür, sıralanmış yeni elementlər
+	 * mövcud siyahılarla birləşdirilir (merge) - O(n + k·log k)
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onProductsImported(ProductsImportedEvent event) {
+		Snapshot s = snapshot;
+		Map<UUID, ProductDTO> byId = new HashMap<>(s.byId());
+		Set<ProductDTO> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<ProductDTO> added = new ArrayList<>(event.products().size());
+		for (ProductDTO p : event.products()) {
+			ProductDTO previous = byId.get(p.getId());
+			if (previous != null) {
+				replaced.add(previous);
+				if (p.getCreatedAt() == null) {
+					p = new ProductDTO(p.getId(), p.getName(), p.getDescription(), p.getPrice(), p.getStockQuantity(),
+							p.getActive(), previous.getCreatedAt(), p.getUpdatedAt());
+				}
+			}
+			byId.put(p.getId(), p);
+			added.add(p);
+		}
+		Map<Sort, List<ProductDTO>> views = new HashMap<>();
+		for (Sort sort : Sort.values()) {
+			added.sort(order(sort));
+			views.put(sort, merge(s.views().get(sort), replaced, added, order(sort)));
+		}
+		snapshot = new Snapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(views));
+	}
+
+	public ProductDTO get(UUID id) {
+		ProductDTO dto = snapshot.byId().get(id);
+		if (dto == null) {
+			throw new MyException("Bu id'li məhsul yoxdur");
+		}
+		return dto;
+	}
+
+	/**
+	 * Verilən sıra ilə kataloqdakı məhsullar; kataloqda olmayan id-lər buraxılır
+	 */
+	public List<ProductDTO> findAll(List<UUID> ids) {
+		Map<UUID, ProductDTO> byId = snapshot.byId();
+		List<ProductDTO> result = new ArrayList<>(ids.size());
+		for (UUID id : ids) {
+			ProductDTO dto = byId.get(id);
+			if (dto != null) {
+				result.add(dto);
+			}
+		}
+		return result;
+	}
+
+	public List<ProductDTO> list(Sort sort, int page, int size) {
+		if (size <= 0 || size > MAX_PAGE_SIZE) {
+			throw new MyException("Səhifə ölçüsü 1-" + MAX_PAGE_SIZE + " aralığında olmalıdır");
+		}
+		if (page < 0) {
+			throw new MyException("Səhifə nömrəsi mənfi ola bilməz");
+		}
+		List<ProductDTO> view = snapshot.views().get(sort);
+		long from = (long) page * size;
+		if (from >= view.size()) {
+			return List.of();
+		}
+		return view.subList((int) from, (int) Math.min(view.size(), from + size));
+	}
+
+	public int size() {
+		return snapshot.byId().size();
+	}
+
+	/**
+	 * Sıralanmış siyahının surətində köhnə elementi silib yenisini yerinə qoyur
+	 */
+	private static List<ProductDTO> replace(List<ProductDTO> view, ProductDTO previous, ProductDTO current,
+			Comparator<ProductDTO> order) {
+		List<ProductDTO> copy = new ArrayList<>(view);
+		if (previous != null) {
+			int at = Collections.binarySearch(copy, previous, order);
+			if (at >= 0) {
+				copy.remove(at);
+			}
+		}
+		if (current != null) {
+			int at = Collections.binarySearch(copy, current, order);
+			copy.add(at >= 0 ? at : -at - 1, current);
+		}
+		return Collections.unmodifiableList(copy);
+	}
+
+	private Comparator<ProductDTO> order(Sort sort) {
+		return sort == Sort.NAME ? byNameKey : sort.order;
+	}
+
+	private CollationKey nameKey(ProductDTO p) {
+		if (p.getName() == null) {
+			return null;
+		}
+		NameKey cached = nameKeys.get(p.getId());
+		if (cached == null || !cached.name().equals(p.getName())) {
+			cached = new NameKey(p.getName(), NAMES.getCollationKey(p.getName()));
+			nameKeys.put(p.getId(), cached);
+		}
+		return cached.key();
+	}
+
+	private static List<ProductDTO> merge(List<ProductDTO> view, Set<ProductDTO> replaced, List<ProductDTO> added,
+			Comparator<ProductDTO> order) {
+		List<ProductDTO> merged = new ArrayList<>(view.size() + added.size());
+		int j = 0;
+		for (ProductDTO p : view) {
+			if (replaced.contains(p)) {
+				continue;
+			}
+			while (j < added.size() && order.compare(added.get(j), p) < 0) {
+				merged.add(added.get(j++));
+			}
+			merged.add(p);
+		}
+		while (j < added.size()) {
+			merged.add(added.get(j++));
+		}
+		return Collections.unmodifiableList(merged);
+	}
+
+	private static Map<Sort, List<ProductDTO>> emptyViews() {
+		Map<Sort, List<ProductDTO>> views = new HashMap<>();
+		for (Sort sort : Sort.values()) {
+			views.put(sort, List.of());
+		}
+		return Collections.unmodifiableMap(views);
+	}
+
+	private static ProductDTO toDTO(Product p) {
+		return new ProductDTO(p.getId(), p.getName(), p.getDescription(), p.getPrice(), p.getStockQuantity(),
+				p.getActive(), p.getCreatedAt(), p.getUpdatedAt());
+	}
+
+	private static ProductDTO publicView(ProductDTO p) {
+		if (p.getReorderThreshold() == null) {
+			return p;
+		}
+		return new ProductDTO(p.getId(), p.getName(), p.getDescription(), p.getPrice(), p.getStockQuantity(),
+				p.getActive(), p.getCreatedAt(), p.getUpdatedAt());
+	}
+}
@@ -0,0 +1,12 @@
+package com.app.yolla.modules.product.service;
+
+import java.util.UUID;
+
+import com.app.yolla.modules.product.dto.ProductDTO;
+
+/**
+ * Məhsul yaradıldıqda, dəyişdikdə və ya silindikdə ProductService tərəfindən
+ * dərc olunur. Silinmiş məhsul üçün product null-dur.
+ */
+public record ProductChangedEvent(UUID productId, ProductDTO product) {
+}
@@ -0,0 +1,401 @@
+package com.app.yolla.modules.product.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.UUID;
+
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Yaddaşa xəritələnmiş (mmap) CSV faylının bayt səviyyəsində oxunması
+ * <p>
+ * Sətirlər üçün String yaradılmır: hər sahə faylda [start, end) mövqeyi kimi
+ * qeyd olunur, dəyərlər yoxlama zamanı birbaşa baytlardan çevrilir - rəqəm
+ * və UUID String-siz, mətn yalnız ad və təsvir üçün. Format RFC 4180-dir:
+ * vergüllə ayrılır, sahə dırnaqlı ola bilər ("" - dırnaq simvolu), sətir sonu
+ * \n və ya \r\n; faylın əvvəlindəki UTF-8 BOM buraxılır.
+ * <p>
+ * next() yalnız bir thread-dən çağırılır; çevirmə metodları mütləq mövqeli
+ * oxu edir və paralel yoxlama thread-lərindən təhlükəsiz çağırıla bilər.
+ */
+final class ProductCsvReader implements Closeable {
+
+	static final int ID = 0;
+	static final int NAME = 1;
+	static final int DESCRIPTION = 2;
+	static final int PRICE = 3;
+	static final int STOCK = 4;
+	static final int FIELDS = 5;
+
+	private static final String[] HEADERS = { "id", "name", "description", "price", "stock_quantity" };
+
+	/**
+	 * Ardıcıl qeydlərin sahə mövqeləri; olmayan sahənin start-ı -1-dir
+	 */
+	static final class Chunk {
+		final int[] lines;
+		final int[] start;
+		final int[] end;
+		final boolean[] quoted;
+		final boolean[] broken;
+		int rows;
+
+		Chunk(int capacity) {
+			lines = new int[capacity];
+			start = new int[capacity * FIELDS];
+			end = new int[capacity * FIELDS];
+			quoted = new boolean[capacity * FIELDS];
+			broken = new boolean[capacity];
+		}
+	}
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer buf;
+
+	private final int limit;
+
+	private int pos;
+
+	private int line = 1;
+
+	// Son oxunmuş qeydin başladığı sətir
+	private int recordLine;
+
+	// Başlıqdakı sütun -> sahə, -1 - tanınmayan sütun
+	private int[] columnField;
+
+	// Cari qeydin xam sahələri
+	private int[] fs = new int[16];
+	private int[] fe = new int[16];
+	private boolean[] fq = new boolean[16];
+
+	ProductCsvReader(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new MyException("CSV faylı 2 GB-dan böyük ola bilməz");
+			}
+			buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			limit = (int) size;
+			if (limit >= 3 && (buf.get(0) & 0xFF) == 0xEF && (buf.get(1) & 0xFF) == 0xBB
+					&& (buf.get(2) & 0xFF) == 0xBF) {
+				pos = 3;
+			}
+			readHeader();
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	boolean hasColumn(int field) {
+		for (int f : columnField) {
+			if (f == field) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Növbəti ən çox maxRows qeyd; fayl bitibsə null
+	 */
+	Chunk next(int maxRows) {
+		Chunk c = new Chunk(maxRows);
+		while (c.rows < maxRows) {
+			int n = readRecord();
+			if (n < 0) {
+				break;
+			}
+			int r = c.rows++;
+			int base = r * FIELDS;
+			c.lines[r] = recordLine;
+			c.broken[r] = n != columnField.length;
+			Arrays.fill(c.start, base, base + FIELDS, -1);
+			if (!c.broken[r]) {
+				for (int i = 0; i < n; i++) {
+					int f = columnField[i];
+					if (f >= 0) {
+						c.start[base + f] = fs[i];
+						c.end[base + f] = fe[i];
+						c.quoted[base + f] = fq[i];
+					}
+				}
+			}
+		}
+		return c.rows == 0 ? null : c;
+	}
+
+	/**
+	 * Sahənin mətni, kənar boşluqlar atılmış; boşdursa null
+	 */
+	String text(Chunk c, int row, int field) {
+		int i = row * FIELDS + field;
+		int s = c.start[i], e = c.end[i];
+		if (s < 0) {
+			return null;
+		}
+		while (s < e && isSpace(buf.get(s))) {
+			s++;
+		}
+		while (e > s && isSpace(buf.get(e - 1))) {
+			e--;
+		}
+		if (s == e) {
+			return null;
+		}
+		byte[] bytes = new byte[e - s];
+		buf.get(s, bytes);
+		int len = bytes.length;
+		if (c.quoted[i]) {
+			// "" -> "
+			int w = 0;
+			for (int r = 0; r < len; r++) {
+				bytes[w++] = bytes[r];
+				if (bytes[r] == '"' && r + 1 < len && bytes[r + 1] == '"') {
+					r++;
+				}
+			}
+			len = w;
+		}
+		return new String(bytes, 0, len, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Onluq ədəd (ən çox maxInteger tam və maxFraction onluq rəqəm); boşdursa null
+	 *
+	 * @throws IllegalArgumentException format səhvdirsə
+	 */
+	BigDecimal decimal(Chunk c, int row, int field, int maxInteger, int maxFraction, String digitsMessage) {
+		int i = row * FIELDS + field;
+		int s = c.start[i], e = c.end[i];
+		if (s < 0) {
+			return null;
+		}
+		while (s < e && isSpace(buf.get(s))) {
+			s++;
+		}
+		while (e > s && isSpace(buf.get(e - 1))) {
+			e--;
+		}
+		if (s == e) {
+			return null;
+		}
+		long unscaled = 0;
+		int integer = 0, fraction = -1;
+		for (int p = s; p < e; p++) {
+			byte b = buf.get(p);
+			if (b == '.' && fraction < 0) {
+				fraction = 0;
+				continue;
+			}
+			if (b < '0' || b > '9') {
+				throw new IllegalArgumentException("düzgün ədəd deyil");
+			}
+			if (fraction >= 0) {
+				if (++fraction > maxFraction) {
+					throw new IllegalArgumentException(digitsMessage);
+				}
+			} else if (++integer > maxInteger) {
+				throw new IllegalArgumentException(digitsMessage);
+			}
+			unscaled = unscaled * 10 + (b - '0');
+		}
+		if (integer == 0 && fraction <= 0) {
+			throw new IllegalArgumentException("düzgün ədəd deyil");
+		}
+		return BigDecimal.valueOf(unscaled, Math.max(fraction, 0));
+	}
+
+	/**
+	 * Mənfi olmayan tam ədəd; boşdursa -1
+	 *
+	 * @throws IllegalArgumentException format səhvdirsə
+	 */
+	int count(Chunk c, int row, int field) {
+		BigDecimal value = decimal(c, row, field, 10, 0, "tam ədəd olmalıdır");
+		if (value == null) {
+			return -1;
+		}
+		if (value.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+			throw new IllegalArgumentException("çox böyükdür");
+		}
+		return value.intValue();
+	}
+
+	/**
+	 * 8-4-4-4-12 formatında UUID; boşdursa null
+	 *
+	 * @throws IllegalArgumentException format səhvdirsə
+	 */
+	UUID uuid(Chunk c, int row, int field) {
+		int i = row * FIELDS + field;
+		int s = c.start[i], e = c.end[i];
+		if (s < 0) {
+			return null;
+		}
+		while (s < e && isSpace(buf.get(s))) {
+			s++;
+		}
+		while (e > s && isSpace(buf.get(e - 1))) {
+			e--;
+		}
+		if (s == e) {
+			return null;
+		}
+		if (e - s != 36) {
+			throw new IllegalArgumentException("düzgün UUID deyil");
+		}
+		long msb = 0, lsb = 0;
+		int digits = 0;
+		for (int p = 0; p < 36; p++) {
+			byte b = buf.get(s + p);
+			if (p == 8 || p == 13 || p == 18 || p == 23) {
+				if (b != '-') {
+					throw new IllegalArgumentException("düzgün UUID deyil");
+				}
+				continue;
+			}
+			int v = Character.digit(b, 16);
+			if (v < 0) {
+				throw new IllegalArgumentException("düzgün UUID deyil");
+			}
+			if (digits++ < 16) {
+				msb = (msb << 4) | v;
+			} else {
+				lsb = (lsb << 4) | v;
+			}
+		}
+		return new UUID(msb, lsb);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void readHeader() {
+		int n = readRecord();
+		if (n < 0) {
+			throw new MyException("CSV faylı boşdur");
+		}
+		columnField = new int[n];
+		for (int i = 0; i < n; i++) {
+			byte[] bytes = new byte[fe[i] - fs[i]];
+			buf.get(fs[i], bytes);
+			String name = new String(bytes, StandardCharsets.UTF_8).trim().toLowerCase(Locale.ROOT);
+			columnField[i] = -1;
+			for (int f = 0; f < HEADERS.length; f++) {
+				if (HEADERS[f].equals(name)) {
+					columnField[i] = f;
+				}
+			}
+		}
+		for (int f : new int[] { NAME, PRICE, STOCK }) {
+			if (!hasColumn(f)) {
+				throw new MyException("CSV başlığında '" + HEADERS[f] + "' sütunu yoxdur");
+			}
+		}
+	}
+
+	/**
+	 * Bir qeydi fs/fe/fq massivlərinə oxuyur
+	 *
+	 * @return sahə sayı, fayl bitibsə -1
+	 */
+	private int readRecord() {
+		// Boş sətirlər buraxılır
+		while (pos < limit) {
+			byte b = buf.get(pos);
+			if (b == '\n') {
+				line++;
+			} else if (b != '\r') {
+				break;
+			}
+			pos++;
+		}
+		if (pos >= limit) {
+			return -1;
+		}
+		recordLine = line;
+		int n = 0;
+		while (true) {
+			if (n == fs.length) {
+				fs = Arrays.copyOf(fs, n * 2);
+				fe = Arrays.copyOf(fe, n * 2);
+				fq = Arrays.copyOf(fq, n * 2);
+			}
+			int start, end;
+			boolean quoted = pos < limit && buf.get(pos) == '"';
+			if (quoted) {
+				start = ++pos;
+				while (true) {
+					if (pos >= limit) {
+						// Bağlanmamış dırnaq - faylın sonuna qədər
+						end = pos;
+						break;
+					}
+					byte b = buf.get(pos);
+					if (b == '"') {
+						if (pos + 1 < limit && buf.get(pos + 1) == '"') {
+							pos += 2;
+							continue;
+						}
+						end = pos++;
+						break;
+					}
+					if (b == '\n') {
+						line++;
+					}
+					pos++;
+				}
+				// Bağlanan dırnaqla ayırıcı arasındakı simvollar atılır
+				skipToDelimiter();
+			} else {
+				start = pos;
+				skipToDelimiter();
+				end = pos;
+			}
+			fs[n] = start;
+			fe[n] = end;
+			fq[n] = quoted;
+			n++;
+			if (pos >= limit) {
+				return n;
+			}
+			byte b = buf.get(pos++);
+			if (b == ',') {
+				continue;
+			}
+			if (b == '\r' && pos < limit && buf.get(pos) == '\n') {
+				pos++;
+			}
+			line++;
+			return n;
+		}
+	}
+
+	private void skipToDelimiter() {
+		while (pos < limit) {
+			byte b = buf.get(pos);
+			if (b == ',' || b == '\n' || b == '\r') {
+				return;
+			}
+			pos++;
+		}
+	}
+
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t';
+	}
+}
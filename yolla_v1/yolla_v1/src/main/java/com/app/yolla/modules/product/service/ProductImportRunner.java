@@ -0,0 +1,66 @@
+package com.app.yolla.modules.product.service;
+
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.app.yolla.modules.product.dto.ProductImportError;
+import com.app.yolla.modules.product.dto.ProductImportReport;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.service.UserService;
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Komanda sətrindən idxal: products.import.file verildikdə tətbiq faylı
+ * idxal edib çıxır (səhv sətir varsa çıxış kodu 1).
+ * <p>
+ * ./gradlew importProducts -Pfile=katalog.csv -Powner=+994501234567
+ */
+@Component
+@ConditionalOnProperty(name = "products.import.file")
+public class ProductImportRunner implements ApplicationRunner {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductImportRunner.class);
+
+	@Autowired
+	private ProductImporter importer;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ConfigurableApplicationContext context;
+
+	@Value("${products.import.file}")
+	private String file;
+
+	@Value("${products.import.owner-phone:}")
+	private String ownerPhone;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (file.isBlank() || ownerPhone.isBlank()) {
+			throw new MyException("products.import.file və products.import.owner-phone verilməlidir");
+		}
+		UserDTO owner = userService.findByPhoneNumber(ownerPhone);
+		ProductImportReport report = importer.importFile(Path.of(file), owner.getId());
+
+		for (ProductImportError error : report.errors()) {
+			logger.warn("Sətir {}: {}", error.line(), error.message());
+		}
+		logger.info("İdxal {}: {} sətir, {} əlavə, {} yeniləndi, {} səhv", report.status(), report.rows(),
+				report.inserted(), report.updated(), report.failed());
+
+		boolean ok = report.status() == ProductImportReport.Status.DONE && report.failed() == 0;
+		System.exit(SpringApplication.exit(context, () -> ok ? 0 : 1));
+	}
+}
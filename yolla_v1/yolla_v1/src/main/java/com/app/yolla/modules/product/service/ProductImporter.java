@@ -0,0 +1,411 @@
+package com.app.yolla.modules.product.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.app.yolla.modules.product.dto.ProductDTO;
+import com.app.yolla.modules.product.dto.ProductImportError;
+import com.app.yolla.modules.product.dto.ProductImportReport;
+import com.app.yolla.modules.product.repository.ProductImportRepository.ImportedProduct;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.service.UserService;
+import com.app.yolla.shared.exception.MyException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * CSV faylından məhsulların toplu idxalı
+ * <p>
+ * Fayl ProductCsvReader ilə mmap üzərindən hissə-hissə (chunk-size qeyd)
+ * oxunur. Hissələr paralel thread-lərdə yoxlanılır, yazıcı isə onları faylın
+ * sırası ilə götürür - hər hissə bir tranzaksiyadır: id verilmiş sətirlərdən
+ * bazada olanlar bir IN sorğusu ilə tapılıb JDBC batch UPDATE ilə yenilənir,
+ * qalanları və id-siz sətirlər çoxsətirli INSERT ilə əlavə olunur (upsert).
+ * Yenilənən məhsulların stok sayğacları eyni tranzaksiyada InventoryLedger-dən
+ * atılır (commit boyunca zolaq kilidi altında).
+ * <p>
+ * Yazılmış məhsullar hər publish-rows sətirdən bir ProductsImportedEvent ilə
+ * dərc olunur - kataloq onları snapshot-a qrup şəklində birləşdirir (hər hissə
+ * üçün bütün snapshot-u köçürmək çox baha olardı). Yoldakı hissələrin və
+ * dərc gözləyən məhsulların sayı məhdudlaşdırılıb, ona görə idxalçının
+ * yaddaşı faylın ölçüsündən asılı deyil. Səhv sətirlər idxalı dayandırmır,
+ * hesabatda sətir nömrəsi ilə göstərilir.
+ */
+@Component
+public class ProductImporter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductImporter.class);
+
+	public static final int MAX_ERRORS = 1000;
+
+	private static final int MAX_JOBS = 20;
+
+	private static final String PRICE_DIGITS = "Qiymət maksimum 10 tam və 2 onluq rəqəm ola bilər";
+
+	private record Validated(int firstLine, int lastLine, int rows, List<ImportedProduct> upserts,
+			List<ImportedProduct> inserts, List<ProductImportError> errors) {
+	}
+
+	private static final class Job {
+		final UUID id = UUID.randomUUID();
+		final LocalDateTime startedAt = LocalDateTime.now();
+		final AtomicLong rows = new AtomicLong();
+		final AtomicLong inserted = new AtomicLong();
+		final AtomicLong updated = new AtomicLong();
+		final AtomicLong failed = new AtomicLong();
+		final List<ProductImportError> errors = Collections.synchronizedList(new ArrayList<>());
+		// Dərc gözləyən yazılmış məhsullar - yalnız yazıcı thread-i dəyişir
+		List<ProductDTO> unpublished = new ArrayList<>();
+		volatile ProductImportReport.Status status = ProductImportReport.Status.RUNNING;
+		volatile LocalDateTime finishedAt;
+
+		void fail(ProductImportError error) {
+			failed.incrementAndGet();
+			if (errors.size() < MAX_ERRORS) {
+				errors.add(error);
+			}
+		}
+
+		ProductImportReport report() {
+			List<ProductImportError> copy;
+			synchronized (errors) {
+				copy = List.copyOf(errors);
+			}
+			return new ProductImportReport(id, status, rows.get(), inserted.get(), updated.get(), failed.get(), copy,
+					startedAt, finishedAt);
+		}
+	}
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private InventoryLedger inventoryLedger;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${products.import.chunk-size:5000}")
+	private int chunkSize;
+
+	@Value("${products.import.parallelism:0}")
+	private int parallelism;
+
+	@Value("${products.import.publish-rows:50000}")
+	private int publishRows;
+
+	private final TransactionTemplate tx;
+
+	// Eyni anda bir idxal - hər biri bazaya ağır yazır
+	private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "product-import");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final Map<UUID, Job> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<UUID, Job> eldest) {
+			return size() > MAX_JOBS;
+		}
+	});
+
+	public ProductImporter(PlatformTransactionManager transactionManager) {
+		this.tx = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Yüklənmiş faylı müvəqqəti fayla köçürüb fonda idxal edir; gedişat
+	 * report(jobId) ilə izlənilir
+	 */
+	public ProductImportReport start(MultipartFile file) {
+		if (file == null || file.isEmpty()) {
+			throw new MyException("CSV faylı boşdur");
+		}
+		String phone = (String) userService.findPhone();
+		UserDTO owner = userService.findByPhoneNumber(phone);
+		Path temp;
+		try {
+			temp = Files.createTempFile("product-import-", ".csv");
+			file.transferTo(temp);
+		} catch (IOException e) {
+			throw new MyException("Fayl saxlanıla bilmədi: " + e.getMessage());
+		}
+		Job job = register();
+		runner.execute(() -> {
+			try {
+				run(job, temp, owner.getId());
+			} finally {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException e) {
+					logger.warn("Müvəqqəti idxal faylı silinmədi: {}", temp);
+				}
+			}
+		});
+		return job.report();
+	}
+
+	public ProductImportReport report(UUID jobId) {
+		Job job = jobs.get(jobId);
+		if (job == null) {
+			throw new MyException("Bu id'li idxal yoxdur");
+		}
+		return job.report();
+	}
+
+	/**
+	 * Sinxron idxal - CLI tapşırığı üçün
+	 */
+	public ProductImportReport importFile(Path file, UUID ownerId) {
+		Job job = register();
+		run(job, file, ownerId);
+		return job.report();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		runner.shutdownNow();
+	}
+
+	private Job register() {
+		Job job = new Job();
+		jobs.put(job.id, job);
+		return job;
+	}
+
+	private void run(Job job, Path file, UUID ownerId) {
+		int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		AtomicInteger names = new AtomicInteger();
+		ExecutorService validators = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "product-import-validate-" + names.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		long started = System.nanoTime();
+		try (ProductCsvReader reader = new ProductCsvReader(file)) {
+			Deque<Future<Validated>> inFlight = new ArrayDeque<>();
+			ProductCsvReader.Chunk chunk;
+			while ((chunk = reader.next(chunkSize)) != null) {
+				ProductCsvReader.Chunk c = chunk;
+				inFlight.add(validators.submit(() -> validate(reader, c)));
+				if (inFlight.size() > threads * 2) {
+					write(job, inFlight.poll().get(), ownerId, started);
+				}
+			}
+			while (!inFlight.isEmpty()) {
+				write(job, inFlight.poll().get(), ownerId, started);
+			}
+			job.status = ProductImportReport.Status.DONE;
+		} catch (IOException | ExecutionException | RuntimeException e) {
+			Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+			logger.error("Məhsul idxalı dayandı: {}", cause.getMessage(), cause);
+			job.errors.add(new ProductImportError(0, "İdxal dayandı: " + cause.getMessage()));
+			job.status = ProductImportReport.Status.FAILED;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			job.status = ProductImportReport.Status.FAILED;
+		} finally {
+			validators.shutdownNow();
+			publish(job);
+			job.finishedAt = LocalDateTime.now();
+		}
+		long ms = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+		logger.info("Məhsul idxalı bitdi ({}): {} sətir, {} əlavə, {} yeniləndi, {} səhv, {} ms ({} sətir/s)",
+				job.status, job.rows.get(), job.inserted.get(), job.updated.get(), job.failed.get(), ms,
+				job.rows.get() * 1000 / ms);
+	}
+
+	private Validated validate(ProductCsvReader reader, ProductCsvReader.Chunk c) {
+		boolean hasId = reader.hasColumn(ProductCsvReader.ID);
+		// Eyni id faylda təkrarlanırsa sonuncu qalır
+		Map<UUID, ImportedProduct> upserts = new LinkedHashMap<>();
+		List<ImportedProduct> inserts = new ArrayList<>(c.rows);
+		List<ProductImportError> errors = new ArrayList<>();
+		for (int r = 0; r < c.rows; r++) {
+			int line = c.lines[r];
+			if (c.broken[r]) {
+				errors.add(new ProductImportError(line, "Sütun sayı başlıqdakı ilə eyni deyil"));
+				continue;
+			}
+			try {
+				UUID id = hasId ? reader.uuid(c, r, ProductCsvReader.ID) : null;
+
+				String name = reader.text(c, r, ProductCsvReader.NAME);
+				if (name == null) {
+					throw new IllegalArgumentException("Məhsulun adı boş ola bilməz");
+				}
+				if (name.length() > 100) {
+					throw new IllegalArgumentException("Məhsulun adı ən çox 100 simvol ola bilər");
+				}
+
+				String description = reader.text(c, r, ProductCsvReader.DESCRIPTION);
+				if (description != null && description.length() > 500) {
+					throw new IllegalArgumentException("Təsvir ən çox 500 simvol ola bilər");
+				}
+
+				BigDecimal price = decimal(reader, c, r);
+				if (price == null) {
+					throw new IllegalArgumentException("Qiymət boş ola bilməz");
+				}
+				if (price.signum() <= 0) {
+					throw new IllegalArgumentException("Qiymət 0-dan böyük olmalıdır");
+				}
+
+				int stock = count(reader, c, r);
+				if (stock < 0) {
+					throw new IllegalArgumentException("Stok miqdarı boş ola bilməz");
+				}
+
+				if (id != null) {
+					upserts.remove(id);
+					upserts.put(id, new ImportedProduct(id, name, description, price, stock));
+				} else {
+					inserts.add(new ImportedProduct(UUID.randomUUID(), name, description, price, stock));
+				}
+			} catch (IllegalArgumentException e) {
+				errors.add(new ProductImportError(line, e.getMessage()));
+			}
+		}
+		return new Validated(c.lines[0], c.lines[c.rows - 1], c.rows, new ArrayList<>(upserts.values()), inserts,
+				errors);
+	}
+
+	private static BigDecimal decimal(ProductCsvReader reader, ProductCsvReader.Chunk c, int r) {
+		try {
+			return reader.decimal(c, r, ProductCsvReader.PRICE, 10, 2, PRICE_DIGITS);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(
+					e.getMessage().equals(PRICE_DIGITS) ? PRICE_DIGITS : "Qiymət " + e.getMessage());
+		}
+	}
+
+	private static int count(ProductCsvReader reader, ProductCsvReader.Chunk c, int r) {
+		try {
+			return reader.count(c, r, ProductCsvReader.STOCK);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Stok miqdarı " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Yazılmış məhsulları kataloq və axtarış indeksinə ötürür
+	 */
+	private void publish(Job job) {
+		if (job.unpublished.isEmpty()) {
+			return;
+		}
+		eventPublisher.publishEvent(new ProductsImportedEvent(job.unpublished));
+		job.unpublished = new ArrayList<>();
+	}
+
+	private static ProductDTO toDTO(ImportedProduct p, LocalDateTime createdAt, LocalDateTime now) {
+		return new ProductDTO(p.id(), p.name(), p.description(), p.price(), p.stockQuantity(), true, createdAt, now);
+	}
+
+	private void write(Job job, Validated v, UUID ownerId, long started) {
+		for (ProductImportError error : v.errors()) {
+			job.fail(error);
+		}
+		if (!v.upserts().isEmpty() || !v.inserts().isEmpty()) {
+			LocalDateTime now = LocalDateTime.now();
+			try {
+				List<ProductDTO> written = tx.execute(status -> {
+					List<ImportedProduct> updates = new ArrayList<>();
+					List<ImportedProduct> inserts = new ArrayList<>(v.upserts().size() + v.inserts().size());
+					if (!v.upserts().isEmpty()) {
+						List<UUID> ids = new ArrayList<>(v.upserts().size());
+						for (ImportedProduct p : v.upserts()) {
+							ids.add(p.id());
+						}
+						Set<UUID> existing = new HashSet<>(repository.findExistingIds(ids));
+						for (ImportedProduct p : v.upserts()) {
+							(existing.contains(p.id()) ? updates : inserts).add(p);
+						}
+					}
+					inserts.addAll(v.inserts());
+
+					List<ProductDTO> dtos = new ArrayList<>(updates.size() + inserts.size());
+					int[] counts = repository.updateImported(updates, now);
+					for (int i = 0; i < counts.length; i++) {
+						ImportedProduct p = updates.get(i);
+						if (counts[i] > 0) {
+							// Stok birbaşa dəyişdi - sayğac commit-dən sonra bazadan yüklənsin
+							inventoryLedger.evict(p.id());
+							// createdAt null - kataloq əvvəlki dəyəri saxlayır
+							dtos.add(toDTO(p, null, now));
+						} else {
+							// Yoxlamadan sonra silinib
+							inserts.add(p);
+						}
+					}
+					repository.insertImported(inserts, ownerId, now);
+					for (ImportedProduct p : inserts) {
+						dtos.add(toDTO(p, now, now));
+					}
+					return dtos;
+				});
+				int updated = 0;
+				for (ProductDTO p : written) {
+					if (p.getCreatedAt() == null) {
+						updated++;
+					}
+				}
+				job.updated.addAndGet(updated);
+				job.inserted.addAndGet(written.size() - updated);
+				job.unpublished.addAll(written);
+				if (job.unpublished.size() >= publishRows) {
+					publish(job);
+				}
+			} catch (DataAccessException e) {
+				logger.warn("İdxal hissəsi yazılmadı ({}-{} sətirlər): {}", v.firstLine(), v.lastLine(),
+						e.getMessage());
+				long count = v.upserts().size() + v.inserts().size();
+				job.failed.addAndGet(count - 1);
+				job.fail(new ProductImportError(v.firstLine(), v.firstLine() + "-" + v.lastLine()
+						+ " sətirləri yazıla bilmədi: " + e.getMostSpecificCause().getMessage()));
+			}
+		}
+		long rows = job.rows.addAndGet(v.rows());
+		// Hər ~50 000 sətirdən bir gedişat
+		if (rows / 50_000 != (rows - v.rows()) / 50_000) {
+			long ms = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+			logger.info("Məhsul idxalı: {} sətir oxundu, {} səhv ({} sətir/s)", rows, job.failed.get(),
+					rows * 1000 / ms);
+		}
+	}
+}
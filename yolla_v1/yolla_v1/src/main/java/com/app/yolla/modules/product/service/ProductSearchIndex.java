@@ -0,0 +1,450 @@
+package com.app.yolla.modules.product.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.app.yolla.modules.product.dto.ProductDTO;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Məhsul adı və təsviri üzrə yaddaşda trigram axtarışı
+ * <p>
+ * Hər aktiv məhsula sıx int nömrə verilir; hər trigram üçün həmin nömrələrin
+ * artan sıralı int massivi (posting list) saxlanılır. Sorğu sözlərinin
+ * trigramlarının siyahıları kəsişdirilir, namizədlər mətnə qarşı yoxlanılır
+ * və sıralanır: ad sözünün əvvəlində uyğunluq, adda uyğunluq, yalnız təsvirdə
+ * uyğunluq; bərabərlikdə əvvəl indekslənmiş məhsul öndədir. Namizədlər artan
+ * nömrə ilə gəzildiyi üçün nəticə maksimal balla dolan kimi skan dayanır.
+ * <p>
+ * Mətn normallaşdırılır: kiçik hərf, Azərbaycan hərfləri latın qarşılığına
+ * (ə→e, ı→i, ş→s, ç→c, ğ→g, ö→o, ü→u), ona görə "cay" "çay"-ı tapır. Hər söz
+ * qarşısına boşluq qoyularaq indekslənir - " al" trigramı "al" ilə başlayan
+ * sözləri verir, iki hərfli sorğu və avtotamamlama bunun üzərində işləyir.
+ * <p>
+ * ProductChangedEvent ilə commit-dən sonra artımlı yenilənir; oxuyanlar
+ * paylaşılan, yazanlar müstəsna kilid tutur. İndeks yalnız id, ad və
+ * normallaşdırılmış mətni saxlayır - məhsulun özü ProductCatalog-dan alınır.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	public static final int MAX_LIMIT = 50;
+
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * Artan sıralı doc nömrələri; yalnız yazma kilidi altında dəyişir
+	 */
+	private static final class Postings {
+		int[] docs = new int[4];
+		int size;
+
+		void add(int doc) {
+			int at = Arrays.binarySearch(docs, 0, size, doc);
+			if (at >= 0) {
+				return;
+			}
+			at = -at - 1;
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+			}
+			System.arraycopy(docs, at, docs, at + 1, size - at);
+			docs[at] = doc;
+			size++;
+		}
+
+		void remove(int doc) {
+			int at = Arrays.binarySearch(docs, 0, size, doc);
+			if (at >= 0) {
+				System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+				size--;
+			}
+		}
+	}
+
+	private record Hit(int doc, int score) {
+	}
+
+	// Ən yaxşı nəticə axırda çıxsın deyə heap tərs sıra ilə saxlanılır
+	private static final Comparator<Hit> WORST_FIRST = Comparator.comparingInt(Hit::score)
+			.thenComparing(Comparator.comparingInt(Hit::doc).reversed());
+
+	@Autowired
+	private ProductRepository repository;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Long, Postings> postings = new HashMap<>();
+
+	private final Map<UUID, Integer> docOf = new HashMap<>();
+
+	private final Deque<Integer> freeDocs = new ArrayDeque<>();
+
+	private UUID[] ids = new UUID[1024];
+
+	private String[] names = new String[1024];
+
+	// " ad təsvir" normallaşdırılmış şəkildə; nameEnd adın bitdiyi yerdir
+	private String[] texts = new String[1024];
+
+	private int[] nameEnd = new int[1024];
+
+	private int nextDoc;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public int load() {
+		int n = 0;
+		for (Product p : repository.findAll()) {
+			ProductDTO dto = new ProductDTO(p.getId(), p.getName(), p.getDescription(), p.getPrice(),
+					p.getStockQuantity(), p.getActive(), p.getCreatedAt(), p.getUpdatedAt());
+			if (put(dto)) {
+				n++;
+			}
+		}
+		logger.info("Məhsul axtarış indeksi quruldu: {} məhsul, {} trigram", n, trigramCount());
+		return n;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.product() == null) {
+			remove(event.productId());
+		} else {
+			put(event.product());
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductsImported(ProductsImportedEvent event) {
+		for (ProductDTO product : event.products()) {
+			put(product);
+		}
+	}
+
+	/**
+	 * Məhsulu indeksə əlavə edir və ya yeniləyir; aktiv deyilsə çıxarır
+	 *
+	 * @return məhsul indeksdədirsə true
+	 */
+	public boolean put(ProductDTO product) {
+		if (!Boolean.TRUE.equals(product.getActive())) {
+			remove(product.getId());
+			return false;
+		}
+		String name = normalize(product.getName());
+		String text = " " + name + " " + normalize(product.getDescription());
+		lock.writeLock().lock();
+		try {
+			Integer existing = docOf.get(product.getId());
+			int doc;
+			if (existing != null) {
+				doc = existing;
+				for (long key : trigrams(texts[doc])) {
+					Postings p = postings.get(key);
+					if (p != null) {
+						p.remove(doc);
+					}
+				}
+			} else {
+				doc = freeDocs.isEmpty() ? nextDoc++ : freeDocs.pop();
+				ensureCapacity(doc);
+				docOf.put(product.getId(), doc);
+			}
+			ids[doc] = product.getId();
+			names[doc] = product.getName();
+			texts[doc] = text;
+			nameEnd[doc] = name.length() + 1;
+			for (long key : trigrams(text)) {
+				postings.computeIfAbsent(key, k -> new Postings()).add(doc);
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(UUID productId) {
+		lock.writeLock().lock();
+		try {
+			Integer doc = docOf.remove(productId);
+			if (doc == null) {
+				return;
+			}
+			for (long key : trigrams(texts[doc])) {
+				Postings p = postings.get(key);
+				if (p != null) {
+					p.remove(doc);
+					if (p.size == 0) {
+						postings.remove(key);
+					}
+				}
+			}
+			ids[doc] = null;
+			names[doc] = null;
+			texts[doc] = null;
+			freeDocs.push(doc);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Bütün sorğu sözlərini ehtiva edən məhsulların id-ləri, uyğunluğa görə
+	 * sıralanmış
+	 */
+	public List<UUID> search(String query, int limit) {
+		lock.readLock().lock();
+		try {
+			int[] docs = query(query, limit, false);
+			List<UUID> result = new ArrayList<>(docs.length);
+			for (int doc : docs) {
+				result.add(ids[doc]);
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Avtotamamlama: son söz məhsul adındakı sözün əvvəli kimi axtarılır,
+	 * təkrarsız adlar qaytarılır
+	 */
+	public List<String> suggest(String query, int limit) {
+		lock.readLock().lock();
+		try {
+			Set<String> result = new LinkedHashSet<>();
+			for (int doc : query(query, limit, true)) {
+				result.add(names[doc]);
+			}
+			return new ArrayList<>(result);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return docOf.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Oxuma kilidi altında çağırılır
+	 */
+	private int[] query(String query, int limit, boolean prefixLast) {
+		if (limit <= 0 || limit > MAX_LIMIT) {
+			throw new MyException("Nəticə sayı 1-" + MAX_LIMIT + " aralığında olmalıdır");
+		}
+		String[] words = normalize(query).trim().split(" +");
+		List<String> tokens = new ArrayList<>(words.length);
+		List<long[]> keys = new ArrayList<>(words.length);
+		for (int i = 0; i < words.length; i++) {
+			String word = words[i];
+			boolean last = prefixLast && i == words.length - 1;
+			boolean prefix = word.length() == 2 || last;
+			// Bir hərfli söz trigram vermir: avtotamamlamada yalnız namizədləri
+			// süzür, axtarışda nəzərə alınmır
+			if (word.isEmpty() || (word.length() == 1 && !last)) {
+				continue;
+			}
+			String token = prefix ? " " + word : word;
+			tokens.add(token);
+			keys.add(trigrams(token));
+		}
+		List<Postings> lists = new ArrayList<>();
+		for (long[] tokenKeys : keys) {
+			for (long key : tokenKeys) {
+				Postings p = postings.get(key);
+				if (p == null) {
+					return EMPTY;
+				}
+				lists.add(p);
+			}
+		}
+		if (lists.isEmpty()) {
+			return EMPTY;
+		}
+		// Ən qısa siyahıdan başlamaq kəsişməni namizəd sayı ilə məhdudlaşdırır
+		lists.sort(Comparator.comparingInt(p -> p.size));
+		int[] candidates = lists.get(0).docs;
+		int size = lists.get(0).size;
+		for (int i = 1; i < lists.size() && size > 0; i++) {
+			candidates = intersect(candidates, size, lists.get(i).docs, lists.get(i).size);
+			size = candidates.length;
+		}
+		return rank(candidates, size, tokens, limit);
+	}
+
+	private int[] rank(int[] candidates, int size, List<String> tokens, int limit) {
+		int best = 3 * tokens.size();
+		PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+		for (int i = 0; i < size; i++) {
+			int doc = candidates[i];
+			String text = texts[doc];
+			int end = nameEnd[doc];
+			int score = 0;
+			for (String token : tokens) {
+				int at = text.indexOf(token);
+				if (at < 0) {
+					score = -1;
+					break;
+				}
+				if (at >= end) {
+					score += 1;
+				} else if (token.charAt(0) == ' ' || text.charAt(at - 1) == ' ') {
+					score += 3;
+				} else {
+					score += 2;
+				}
+			}
+			if (score < 0) {
+				continue;
+			}
+			top.add(new Hit(doc, score));
+			if (top.size() > limit) {
+				top.poll();
+			}
+			// Sonrakı namizədlər daha böyük nömrəlidir - bərabər balla da irəli keçə bilməz
+			if (top.size() == limit && top.peek().score() == best) {
+				break;
+			}
+		}
+		int[] result = new int[top.size()];
+		for (int i = result.length - 1; i >= 0; i--) {
+			result[i] = top.poll().doc();
+		}
+		return result;
+	}
+
+	private int trigramCount() {
+		lock.readLock().lock();
+		try {
+			return postings.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void ensureCapacity(int doc) {
+		if (doc >= ids.length) {
+			int capacity = Math.max(doc + 1, ids.length * 2);
+			ids = Arrays.copyOf(ids, capacity);
+			names = Arrays.copyOf(names, capacity);
+			texts = Arrays.copyOf(texts, capacity);
+			nameEnd = Arrays.copyOf(nameEnd, capacity);
+		}
+	}
+
+	/**
+	 * Kiçik siyahının hər elementi böyük siyahıda sıçrayışlı (galloping)
+	 * axtarışla tapılır: O(a·log(b/a))
+	 */
+	private static int[] intersect(int[] a, int aSize, int[] b, int bSize) {
+		int[] out = new int[aSize];
+		int n = 0, lo = 0;
+		for (int i = 0; i < aSize && lo < bSize; i++) {
+			int x = a[i];
+			int hi = lo, step = 1;
+			while (hi < bSize && b[hi] < x) {
+				lo = hi + 1;
+				hi += step;
+				step <<= 1;
+			}
+			int at = Arrays.binarySearch(b, lo, Math.min(hi + 1, bSize), x);
+			if (at >= 0) {
+				out[n++] = x;
+				lo = at + 1;
+			} else {
+				lo = -at - 1;
+			}
+		}
+		return n == out.length ? out : Arrays.copyOf(out, n);
+	}
+
+	/**
+	 * Mətnin bütün trigramları, hər biri üç simvol bir long-a yığılmış şəkildə
+	 */
+	private static long[] trigrams(String text) {
+		if (text.length() < 3) {
+			return new long[0];
+		}
+		long[] keys = new long[text.length() - 2];
+		int n = 0;
+		for (int i = 0; i + 2 < text.length(); i++) {
+			char c = text.charAt(i + 2);
+			// Söz sərhədini keçən trigramlar ("x y") lazım deyil
+			if (c == ' ' || text.charAt(i + 1) == ' ') {
+				continue;
+			}
+			keys[n++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | c;
+		}
+		return n == keys.length ? keys : Arrays.copyOf(keys, n);
+	}
+
+	static String normalize(String s) {
+		if (s == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(s.length());
+		boolean space = false;
+		for (int i = 0; i < s.length(); i++) {
+			char c = fold(Character.toLowerCase(s.charAt(i)));
+			if (Character.isLetterOrDigit(c)) {
+				sb.append(c);
+				space = false;
+			} else if (!space) {
+				sb.append(' ');
+				space = true;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static char fold(char c) {
+		switch (c) {
+		case 'ə':
+			return 'e';
+		case 'ı':
+			return 'i';
+		case 'ş':
+			return 's';
+		case 'ç':
+			return 'c';
+		case 'ğ':
+			return 'g';
+		case 'ö':
+			return 'o';
+		case 'ü':
+			return 'u';
+		default:
+			return c;
+		}
+	}
+}
@@ -1,11 +1,16 @@
 package com.app.yolla.modules.product.service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.app.yolla.modules.product.dto.ProductAddRequest;
@@ -33,6 +38,12 @@ public class ProductService {
 	@Autowired
 	private UserService userService;
 
+	@Autowired
+	private InventoryLedger inventoryLedger;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
 	public ProductDTO createdProduct(@Valid ProductAddRequest req) {
 		String phone = (String) userService.findPhone();
 		UserDTO en = userService.findByPhoneNumber(phone);
@@ -44,20 +55,26 @@ public class ProductService {
 		product.setActive(true);
 		repository.save(product);
 
-		return convertToDTO(product);
+		ProductDTO dto = convertToDTO(product);
+		eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), dto));
+		return dto;
 
 	}
 
 	private ProductDTO convertToDTO(Product product) {
-		return new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
-				product.getStockQuantity(),
+		ProductDTO dto = new ProductDTO(product.getId(), product.getName(), product.getDescription(),
+				product.getPrice(), product.getStockQuantity(),
 				product.getActive(), product.getCreatedAt(), product.getUpdatedAt());
+		dto.setReorderThreshold(product.getReorderThreshold());
+		return dto;
 	}
 
 
 
 	public ProductDTO updateProduct(UUID id, ProductUpdateRequest req) {
-		Product p = findProduct(id);
+		Product p = req.getStockQuantity() != null
+				? repository.findByIdForUpdate(id).orElseThrow(() -> new MyException("Bu id'li məhsul yoxdur"))
+				: findProduct(id);
 
 		if (req.getDescription() != null && !req.getDescription().trim().isEmpty()) {
 			p.setDescription(req.getDescription());
@@ -68,11 +85,20 @@ public class ProductService {
 		if (req.getPrice() != null) {
 			p.setPrice(req.getPrice());
 		}
+		if (req.getReorderThreshold() != null) {
+			if (req.getReorderThreshold() < 0) {
+				throw new MyException("Minimum stok həddi mənfi ola bilməz");
+			}
+			p.setReorderThreshold(req.getReorderThreshold());
+		}
 		if (req.getStockQuantity() != null) {
+			int old = p.getStockQuantity() == null ? 0 : p.getStockQuantity();
 			p.setStockQuantity(req.getStockQuantity());
+			inventoryLedger.adjust(id, req.getStockQuantity() - old);
 		}
 		repository.save(p);
 		ProductDTO dto = convertToDTO(p);
+		eventPublisher.publishEvent(new ProductChangedEvent(id, dto));
 		return dto;
 	}
 
@@ -86,9 +112,36 @@ public class ProductService {
 
 	}
 
+	/**
+	 * Verilən id-lərə aid bütün məhsulları bir sorğu ilə yükləyir.
+	 * Hər hansı id tapılmazsa xəta atılır.
+	 */
+	public Map<UUID, Product> findProducts(Collection<UUID> ids) {
+		Map<UUID, Product> byId = findExistingProducts(ids);
+		if (byId.size() != ids.size()) {
+			throw new MyException("Bu id'li məhsul yoxdur");
+		}
+		return byId;
+	}
+
+	/**
+	 * findProducts kimi, amma tapılmayan id-lər üçün xəta atmır - toplu
+	 * sifarişdə hər sifariş ayrıca yoxlanılır.
+	 */
+	public Map<UUID, Product> findExistingProducts(Collection<UUID> ids) {
+		List<Product> products = repository.findAllById(ids);
+		Map<UUID, Product> byId = new HashMap<>(products.size() * 2);
+		for (Product p : products) {
+			byId.put(p.getId(), p);
+		}
+		return byId;
+	}
+
 	public void deleteById(UUID id) {
 		Product p = findProduct(id);
 		repository.deleteById(id);
+		inventoryLedger.evict(id);
+		eventPublisher.publishEvent(new ProductChangedEvent(id, null));
 	}
 
 	public void savePro(Product product) {
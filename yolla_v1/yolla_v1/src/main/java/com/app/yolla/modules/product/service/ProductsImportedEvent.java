@@ -0,0 +1,13 @@
+package com.app.yolla.modules.product.service;
+
+import java.util.List;
+
+import com.app.yolla.modules.product.dto.ProductDTO;
+
+/**
+ * CSV idxalında hər products.import.publish-rows yazılmış məhsuldan bir (və
+ * sonda qalanlarla) ProductImporter tərəfindən dərc olunur. Yenilənmiş
+ * məhsulların createdAt-ı null-dur - əvvəlki dəyər qalır.
+ */
+public record ProductsImportedEvent(List<ProductDTO> products) {
+}
@@ -0,0 +1,178 @@
+package com.app.yolla.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.service.OrderCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Primary və replika əvəzinə iki ayrı H2 bazası: hər birində öz adını
+ * qaytaran cədvəl var, sorğunun hansı bazaya getdiyi buradan görünür.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = { "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa", "datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+		"datasource.replica.username=sa", "datasource.replica.read-your-writes-ms=300" })
+@ActiveProfiles("test")
+@Import({ ReadReplicaConfig.class, OrderCache.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaConfigTest {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primary;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replica;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private OrderCache orderCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		for (DataSource ds : List.of(primary, replica)) {
+			JdbcTemplate jdbc = new JdbcTemplate(ds);
+			jdbc.execute("create table if not exists route_marker (name varchar(16))");
+			jdbc.update("delete from route_marker");
+			jdbc.update("insert into route_marker values (?)", ds == primary ? "primary" : "replica");
+		}
+		jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() {
+		assertThat(route(true)).isEqualTo("replica");
+		assertThat(route(false)).isEqualTo("primary");
+		assertThat(marker()).isEqualTo("primary");
+
+		assertThat(meterRegistry.get("datasource.routing").tag("route", "replica").tag("reason", "read").counter()
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void ownWritesAreReadFromPrimaryForAWhile() throws InterruptedException {
+		login("+994501111111");
+		assertThat(route(true)).isEqualTo("replica");
+		assertThat(route(false)).isEqualTo("primary");
+		assertThat(route(true)).isEqualTo("primary");
+
+		login("+994502222222");
+		assertThat(route(true)).isEqualTo("replica");
+
+		Thread.sleep(500);
+		login("+994501111111");
+		assertThat(route(true)).isEqualTo("replica");
+	}
+
+	@Test
+	void cachedEntriesAreLoadedFromPrimary() {
+		UUID id = UUID.randomUUID();
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(true);
+
+		// Xarici readOnly tranzaksiya replikadadır, keşə düşən dəyər isə primary-dən oxunur
+		OrderDTO cached = tx.execute(status -> {
+			assertThat(marker()).isEqualTo("replica");
+			return orderCache.order(id, k -> {
+				OrderDTO dto = new OrderDTO();
+				dto.setNotes(marker());
+				return dto;
+			});
+		});
+
+		assertThat(cached.getNotes()).isEqualTo("primary");
+		assertThat(route(true)).isEqualTo("replica");
+	}
+
+	@Test
+	void writeAfterReadOnlyInOneRequestGoesToPrimary() {
+		// open-in-view kimi: sorğu boyu bir EntityManager tranzaksiyalar arasında paylaşılır
+		EntityManager em = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(em));
+		try {
+			assertThat(route(true)).isEqualTo("replica");
+			assertThat(route(false)).isEqualTo("primary");
+			assertThat(route(true)).isEqualTo("replica");
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			em.close();
+		}
+	}
+
+	private String route(boolean readOnly) {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(readOnly);
+		return tx.execute(status -> marker());
+	}
+
+	private String marker() {
+		return jdbcTemplate.queryForObject("select name from route_marker", String.class);
+	}
+
+	private static void login(String phone) {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(phone, null, List.of()));
+	}
+
+	@TestConfiguration
+	static class MetricsConfig {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
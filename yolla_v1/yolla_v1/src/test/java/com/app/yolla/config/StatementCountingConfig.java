@@ -0,0 +1,85 @@
+package com.app.yolla.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.ClassUtils;
+
+/**
+ * DataSource-u proxy ilə bükərək hazırlanan SQL statement-lərini sayır.
+ * JDBC batch bir statement kimi sayılır - testlər sorğu sayının sətir
+ * sayından asılı olmadığını yoxlamaq üçün istifadə edir.
+ */
+@TestConfiguration
+public class StatementCountingConfig {
+
+	public static class StatementCounter {
+		private final AtomicInteger count = new AtomicInteger();
+
+		public void reset() {
+			count.set(0);
+		}
+
+		public int get() {
+			return count.get();
+		}
+
+		void increment() {
+			count.incrementAndGet();
+		}
+	}
+
+	@Bean
+	public StatementCounter statementCounter() {
+		return new StatementCounter();
+	}
+
+	@Bean
+	public static BeanPostProcessor statementCountingPostProcessor(
+			ObjectProvider<StatementCounter> counter) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource)) {
+					return bean;
+				}
+				return proxy(bean, ClassUtils.getAllInterfaces(bean), (target, method, args) -> {
+					Object result = invoke(bean, method, args);
+					if (result instanceof Connection) {
+						return proxy(result, new Class<?>[] { Connection.class }, (c, m, a) -> {
+							String name = m.getName();
+							if (name.equals("prepareStatement") || name.equals("prepareCall")
+									|| name.equals("createStatement")) {
+								counter.getObject().increment();
+							}
+							return invoke(result, m, a);
+						});
+					}
+					return result;
+				});
+			}
+		};
+	}
+
+	private static Object proxy(Object target, Class<?>[] interfaces, InvocationHandler handler) {
+		return Proxy.newProxyInstance(target.getClass().getClassLoader(), interfaces, handler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+}
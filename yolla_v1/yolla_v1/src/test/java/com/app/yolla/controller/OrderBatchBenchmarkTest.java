@@ -0,0 +1,162 @@
+package com.app.yolla.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.modules.order.dto.OrderItemRequest;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Ardıcıl POST /orders çağırışları ilə bir POST /orders/batch sorğusunun
+ * müqayisəsi (saniyədə sifariş). Hər tək çağırış ayrıca HTTP sorğusu,
+ * autentifikasiya və tranzaksiyadır.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Tag("benchmark")
+@WithMockUser(roles = "CUSTOMER")
+class OrderBatchBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderBatchBenchmarkTest.class);
+
+	private static final String PHONE = "+994501234567";
+	private static final int SEQUENTIAL_ORDERS = 500;
+	private static final int BATCH_ORDERS = 5000;
+	private static final int LINES = 3;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private UserService userService;
+
+	private List<Product> products;
+
+	@BeforeEach
+	void setUp() {
+		UserDTO user = new UserDTO();
+		user.setId(UUID.randomUUID());
+		user.setPhoneNumber(PHONE);
+		user.setFullName("B2B Partner");
+		user.setRole(UserRole.CUSTOMER);
+
+		when(userService.findPhone()).thenReturn(PHONE);
+		when(userService.findByPhoneNumber(PHONE)).thenReturn(user);
+		when(userService.findById(any(UUID.class))).thenReturn(user);
+
+		products = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Product p = new Product();
+			p.setName("Məhsul " + i);
+			p.setPrice(new BigDecimal("2.50"));
+			p.setStockQuantity(1_000_000);
+			p.setActive(true);
+			p.setCreatedAt(LocalDateTime.now());
+			products.add(productRepository.save(p));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		for (String table : List.of("stock_reservations", "order_items", "orders", "inventory_deltas", "products")) {
+			jdbcTemplate.update("delete from " + table);
+		}
+	}
+
+	@Test
+	void batchIntakeIsTenTimesFasterThanSequentialCalls() throws Exception {
+		// JIT və keşlərin isinməsi - hər iki yol bir dəfə tam işlədilir
+		sequential(requests(SEQUENTIAL_ORDERS));
+		batch(requests(BATCH_ORDERS));
+
+		List<OrderCreateRequest> single = requests(SEQUENTIAL_ORDERS);
+		long start = System.nanoTime();
+		sequential(single);
+		double sequentialRate = rate(SEQUENTIAL_ORDERS, start);
+
+		List<OrderCreateRequest> many = requests(BATCH_ORDERS);
+		start = System.nanoTime();
+		batch(many);
+		double batchRate = rate(BATCH_ORDERS, start);
+
+		logger.info("ardıcıl: {} sifariş/s, batch: {} sifariş/s ({}x)", (long) sequentialRate, (long) batchRate,
+				String.format("%.1f", batchRate / sequentialRate));
+
+		assertThat(batchRate).isGreaterThanOrEqualTo(10 * sequentialRate);
+	}
+
+	private void sequential(List<OrderCreateRequest> requests) throws Exception {
+		for (OrderCreateRequest r : requests) {
+			mockMvc.perform(post("/orders").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+					.content(objectMapper.writeValueAsBytes(r))).andExpect(status().isCreated());
+		}
+	}
+
+	private void batch(List<OrderCreateRequest> requests) throws Exception {
+		mockMvc.perform(post("/orders/batch").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsBytes(requests))).andExpect(status().isCreated())
+				.andExpect(jsonPath("$.data.created").value(requests.size()));
+	}
+
+	private List<OrderCreateRequest> requests(int count) {
+		List<OrderCreateRequest> requests = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			OrderCreateRequest request = new OrderCreateRequest();
+			request.setDeliveryAddress("Bakı, anbar " + i);
+			List<OrderItemRequest> items = new ArrayList<>(LINES);
+			for (int l = 0; l < LINES; l++) {
+				items.add(new OrderItemRequest(products.get((i + l) % products.size()).getId(), 1));
+			}
+			request.setItems(items);
+			requests.add(request);
+		}
+		return requests;
+	}
+
+	private static double rate(int orders, long startNanos) {
+		return orders / ((System.nanoTime() - startNanos) / 1e9);
+	}
+}
@@ -1,9 +1,12 @@
 package com.app.yolla.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
@@ -19,6 +22,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.app.yolla.config.TestAuditingConfig;
 import com.app.yolla.modules.order.controller.OrderController;
@@ -27,12 +31,23 @@ import com.app.yolla.modules.order.dto.OrderDTO;
 import com.app.yolla.modules.order.dto.OrderItemDTO;
 import com.app.yolla.modules.order.dto.OrderItemRequest;
 import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.service.OrderBatchService;
+import com.app.yolla.modules.order.service.OrderChangedEvent;
+import com.app.yolla.modules.order.service.OrderDispatchQueue;
+import com.app.yolla.modules.order.service.OrderEventStream;
+import com.app.yolla.modules.order.service.OrderExportService;
+import com.app.yolla.modules.order.service.OrderIdempotencyService;
+import com.app.yolla.modules.order.service.OrderJournal;
 import com.app.yolla.modules.order.service.OrderService;
+import com.app.yolla.modules.order.service.OrderStatusCounters;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
 import com.app.yolla.shared.security.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @WebMvcTest(OrderController.class)
-@Import(TestAuditingConfig.class)
+@Import({ TestAuditingConfig.class, OrderEventStream.class })
 class OrderControllerTest {
 
 	@Autowired
@@ -41,9 +56,33 @@ class OrderControllerTest {
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private OrderEventStream eventStream;
+
 	@MockBean
 	private OrderService orderService;
 
+	@MockBean
+	private OrderIdempotencyService idempotencyService;
+
+	@MockBean
+	private OrderBatchService batchService;
+
+	@MockBean
+	private OrderExportService exportService;
+
+	@MockBean
+	private OrderStatusCounters statusCounters;
+
+	@MockBean
+	private OrderJournal journal;
+
+	@MockBean
+	private OrderDispatchQueue dispatchQueue;
+
+	@MockBean
+	private UserService userService;
+
 	@MockBean
 	private JwtUtil jwtUtil;
 
@@ -101,5 +140,40 @@ class OrderControllerTest {
 				.content(objectMapper.writeValueAsString(request))).andExpect(status().isCreated());
 	}
 
+	@WithMockUser(username = "preparer", roles = "PREPARER")
+	@Test
+	void streamPushesMatchingTransitionsAndResumesFromLastEventId() throws Exception {
+		UserDTO preparer = new UserDTO();
+		preparer.setId(UUID.randomUUID());
+		preparer.setRole(UserRole.PREPARER);
+		when(userService.findByPhoneNumber("preparer")).thenReturn(preparer);
+
+		UUID missed = UUID.randomUUID();
+		UUID shipped = UUID.randomUUID();
+		UUID live = UUID.randomUUID();
+		eventStream.onOrderChanged(new OrderChangedEvent(missed, UUID.randomUUID(), OrderStatus.PENDING,
+				OrderStatus.CONFIRMED));
+
+		MvcResult result = mockMvc.perform(get("/orders/stream").param("status", "CONFIRMED")
+				.header("Last-Event-ID", "0")).andExpect(request().asyncStarted()).andReturn();
+
+		eventStream.onOrderChanged(new OrderChangedEvent(shipped, UUID.randomUUID(), OrderStatus.CONFIRMED,
+				OrderStatus.SHIPPED));
+		eventStream.onOrderChanged(new OrderChangedEvent(live, UUID.randomUUID(), OrderStatus.PENDING,
+				OrderStatus.CONFIRMED));
+
+		String body = awaitContent(result, live.toString());
+		assertThat(body).contains(missed.toString()).doesNotContain(shipped.toString());
+		assertThat(body.indexOf(missed.toString())).isLessThan(body.indexOf(live.toString()));
+	}
 
-}
\ No newline at end of file
+	private static String awaitContent(MvcResult result, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String body = result.getResponse().getContentAsString();
+		while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+			body = result.getResponse().getContentAsString();
+		}
+		return body;
+	}
+}
@@ -23,6 +23,9 @@ import com.app.yolla.config.TestAuditingConfig;
 import com.app.yolla.modules.product.controller.ProductController;
 import com.app.yolla.modules.product.dto.ProductAddRequest;
 import com.app.yolla.modules.product.dto.ProductDTO;
+import com.app.yolla.modules.product.service.ProductCatalog;
+import com.app.yolla.modules.product.service.ProductImporter;
+import com.app.yolla.modules.product.service.ProductSearchIndex;
 import com.app.yolla.modules.product.service.ProductService;
 import com.app.yolla.shared.security.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -40,6 +43,15 @@ class ProductControllerTest {
 	@MockBean
 	private ProductService productService;
 
+	@MockBean
+	private ProductCatalog productCatalog;
+
+	@MockBean
+	private ProductSearchIndex productSearchIndex;
+
+	@MockBean
+	private ProductImporter productImporter;
+
 	@MockBean
 	private JwtUtil jwtUtil;
 
@@ -0,0 +1,180 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.modules.product.service.LowStockWatcher;
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Eyni məhsula çoxlu paralel rezerv zamanı stokun artıq satılmadığını
+ * yoxlayır. Hər cəhd ayrıca tranzaksiyada işləyir.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ InventoryLedger.class, LowStockWatcher.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryLedgerConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int ATTEMPTS_PER_THREAD = 50;
+	private static final int STOCK = 200;
+
+	@Autowired
+	private InventoryLedger ledger;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate tx;
+	private UUID productId;
+
+	@BeforeEach
+	void setUp() {
+		tx = new TransactionTemplate(transactionManager);
+		Product p = new Product();
+		p.setName("Flash sale");
+		p.setPrice(new BigDecimal("1.00"));
+		p.setStockQuantity(STOCK);
+		p.setActive(true);
+		p.setCreatedAt(LocalDateTime.now());
+		productId = repository.save(p).getId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		ledger.evict(productId);
+		jdbcTemplate.update("delete from inventory_deltas");
+		jdbcTemplate.update("delete from products");
+	}
+
+	@Test
+	void concurrentReservationsNeverOversell() throws Exception {
+		int sold = hammer(() -> tx.execute(s -> {
+			reserveOne();
+			return true;
+		}));
+
+		assertThat(sold).isEqualTo(STOCK);
+		assertRemaining(0);
+	}
+
+	@Test
+	void rolledBackReservationsReturnStock() throws Exception {
+		// Hər ikinci tranzaksiya rezervdən sonra geri qaytarılır
+		AtomicInteger attempts = new AtomicInteger();
+		int sold = hammer(() -> tx.execute(s -> {
+			reserveOne();
+			if (attempts.incrementAndGet() % 2 == 0) {
+				s.setRollbackOnly();
+				return false;
+			}
+			return true;
+		}));
+
+		assertThat(sold).isLessThanOrEqualTo(STOCK);
+		assertRemaining(STOCK - sold);
+	}
+
+	@Test
+	void reserveNeverOversellsWhileCounterIsEvicted() throws Exception {
+		AtomicBoolean done = new AtomicBoolean();
+		ExecutorService evictor = Executors.newSingleThreadExecutor();
+		// Məhsul dəyişikliyi kimi: sayğac commit-də çıxarılır, növbəti rezerv onu bazadan yenidən yükləyir
+		Future<?> evictions = evictor.submit(() -> {
+			while (!done.get()) {
+				tx.executeWithoutResult(s -> ledger.evict(productId));
+				Thread.yield();
+			}
+		});
+
+		int sold;
+		try {
+			sold = hammer(() -> tx.execute(s -> {
+				reserveOne();
+				// Rezerv sayğacdan götürülüb, jurnal sətri isə hələ commit olunmayıb
+				Thread.yield();
+				return true;
+			}));
+		} finally {
+			done.set(true);
+			evictions.get(1, TimeUnit.MINUTES);
+			evictor.shutdown();
+		}
+
+		assertThat(sold).isEqualTo(STOCK);
+		assertRemaining(STOCK - sold);
+	}
+
+	private void reserveOne() {
+		ledger.reserve(Map.of(productId, 1));
+	}
+
+	private void assertRemaining(int remaining) {
+		ledger.evict(productId);
+		assertThat(ledger.available(productId)).isEqualTo(remaining);
+		while (ledger.flush() > 0) {
+			// jurnal tam tətbiq olunur
+		}
+		assertThat(repository.findById(productId).orElseThrow().getStockQuantity()).isEqualTo(remaining);
+	}
+
+	private int hammer(BooleanSupplier attempt) throws InterruptedException {
+		AtomicInteger sold = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					try {
+						if (attempt.getAsBoolean()) {
+							sold.incrementAndGet();
+						}
+					} catch (MyException e) {
+						// stok bitib
+					}
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+		return sold.get();
+	}
+}
@@ -0,0 +1,77 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.LowStockWatcher;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(LowStockWatcher.class)
+class LowStockWatcherTest {
+
+	private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+	@Autowired
+	private LowStockWatcher watcher;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Test
+	void crossingAlertsOnceAndIsRateLimited() {
+		UUID id = UUID.randomUUID();
+		long now = System.currentTimeMillis();
+		int before = watcher.alerts();
+		watcher.watch(id, 5);
+
+		assertThat(watcher.check(id, 6, now)).isFalse();
+		assertThat(watcher.check(id, 5, now)).isTrue();
+		assertThat(watcher.check(id, 3, now)).isFalse();
+
+		// Stok qalxdı və yenidən düşdü - cooldown (30 dəq) bitməyib
+		assertThat(watcher.check(id, 8, now + MINUTE)).isFalse();
+		assertThat(watcher.check(id, 4, now + 2 * MINUTE)).isFalse();
+		// Buraxılmış keçid növbəti dəyişiklikdə xəbər verilir
+		assertThat(watcher.check(id, 4, now + 31 * MINUTE)).isTrue();
+		assertThat(watcher.alerts() - before).isEqualTo(2);
+
+		watcher.watch(id, null);
+		assertThat(watcher.check(id, 0, now + 120 * MINUTE)).isFalse();
+		assertThat(watcher.check(UUID.randomUUID(), 0, now)).isFalse();
+	}
+
+	@Test
+	void loadReadsThresholdsFromProducts() {
+		Product watched = save(3);
+		Product plain = save(null);
+
+		assertThat(watcher.load()).isEqualTo(1);
+
+		assertThat(watcher.check(watched.getId(), 2)).isTrue();
+		assertThat(watcher.check(plain.getId(), 0)).isFalse();
+	}
+
+	private Product save(Integer threshold) {
+		Product p = new Product();
+		p.setName("Məhsul");
+		p.setPrice(new BigDecimal("1.00"));
+		p.setStockQuantity(10);
+		p.setReorderThreshold(threshold);
+		p.setActive(true);
+		p.setCreatedAt(LocalDateTime.now());
+		return repository.save(p);
+	}
+}
@@ -0,0 +1,108 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import com.app.yolla.modules.order.dto.OrderBatchResponse;
+import com.app.yolla.modules.order.dto.OrderBatchResult;
+import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.modules.order.service.OrderBatchService;
+import com.app.yolla.modules.order.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringJUnitConfig
+@TestPropertySource(properties = "orders.batch.chunk-size=2")
+class OrderBatchServiceTest {
+
+	private static final String ORDER = "{\"deliveryAddress\":\"Bakı\",\"items\":[{\"productId\":\""
+			+ UUID.randomUUID() + "\",\"quantity\":1}]}";
+
+	@Configuration
+	@Import(OrderBatchService.class)
+	static class Config {
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return Jackson2ObjectMapperBuilder.json().build();
+		}
+
+		@Bean
+		LocalValidatorFactoryBean validator() {
+			return new LocalValidatorFactoryBean();
+		}
+	}
+
+	@Autowired
+	private OrderBatchService batchService;
+
+	@MockBean
+	private OrderService orderService;
+
+	@BeforeEach
+	void setUp() {
+		when(orderService.createdOrders(anyList())).thenAnswer(inv -> {
+			List<OrderCreateRequest> requests = inv.getArgument(0);
+			List<OrderBatchResult> results = new ArrayList<>();
+			for (int i = 0; i < requests.size(); i++) {
+				results.add(OrderBatchResult.created(i, UUID.randomUUID(), new BigDecimal("5.00")));
+			}
+			return results;
+		});
+	}
+
+	@Test
+	void nonObjectAndUnreadableElementsFailOnTheirOwn() {
+		OrderBatchResponse response = importOrders("[" + ORDER + ", 42, [1, 2], {\"items\": \"yox\"}, " + ORDER
+				+ ", {\"deliveryAddress\": \"\", \"items\": []}, " + ORDER + "]");
+
+		assertThat(response.getError()).isNull();
+		assertThat(response.getTotal()).isEqualTo(7);
+		assertThat(response.getCreated()).isEqualTo(3);
+		assertThat(byIndex(response)).extracting(OrderBatchResult::isSuccess).containsExactly(true, false, false,
+				false, true, false, true);
+		assertThat(byIndex(response).get(1).getMessage()).isEqualTo("Element sifariş obyekti deyil");
+	}
+
+	@Test
+	void brokenBodyKeepsResultsOfWrittenChunks() {
+		// İlk iki sifariş bir hissə kimi yazılır, üçüncü pozulmuş JSON-dan əvvəl oxunub gözləyir
+		OrderBatchResponse response = importOrders("[" + ORDER + ", " + ORDER + ", " + ORDER + ", {\"items\": [");
+
+		assertThat(response.getError()).isNotNull();
+		assertThat(response.getCreated()).isEqualTo(2);
+		assertThat(byIndex(response)).extracting(OrderBatchResult::isSuccess).containsExactly(true, true, false);
+		verify(orderService, times(1)).createdOrders(anyList());
+	}
+
+	private OrderBatchResponse importOrders(String json) {
+		return batchService.importOrders(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static List<OrderBatchResult> byIndex(OrderBatchResponse response) {
+		List<OrderBatchResult> results = new ArrayList<>(response.getResults());
+		results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+		return results;
+	}
+}
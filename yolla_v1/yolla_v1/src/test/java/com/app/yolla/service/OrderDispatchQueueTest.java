@@ -0,0 +1,201 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.yolla.modules.order.dto.OrderClaim;
+import com.app.yolla.modules.order.entity.Order;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.OrderRepository;
+import com.app.yolla.modules.order.service.OrderDispatchQueue;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+
+/**
+ * Götürmələr paralel thread-lərdən commit olunmalı olduğu üçün testlər tranzaksiyasız işləyir
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OrderDispatchQueue.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OrderDispatchQueueTest {
+
+	@Autowired
+	private OrderDispatchQueue queue;
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private UserService userService;
+
+	private final Map<String, UUID> preparers = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		when(userService.findByPhoneNumber(anyString())).thenAnswer(inv -> {
+			UserDTO user = new UserDTO();
+			user.setId(preparers.computeIfAbsent(inv.getArgument(0), k -> UUID.randomUUID()));
+			user.setRole(UserRole.PREPARER);
+			return user;
+		});
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("delete from orders");
+	}
+
+	@Test
+	void concurrentPreparersNeverClaimTheSameOrder() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			save(LocalDateTime.now().minusMinutes(i));
+		}
+		assertThat(queue.rebuild()).isEqualTo(20);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<List<OrderClaim>>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			String phone = "+99450000000" + i;
+			futures.add(pool.submit(() -> {
+				start.await();
+				return queue.claim(phone, 5);
+			}));
+		}
+		start.countDown();
+
+		List<UUID> claimed = new ArrayList<>();
+		for (Future<List<OrderClaim>> f : futures) {
+			f.get(10, TimeUnit.SECONDS).forEach(c -> claimed.add(c.orderId()));
+		}
+		pool.shutdown();
+
+		assertThat(claimed).hasSize(20).doesNotHaveDuplicates();
+		assertThat(queue.size()).isZero();
+		assertThat(jdbcTemplate.queryForObject("select count(distinct id) from orders where claimed_by is not null",
+				Integer.class)).isEqualTo(20);
+	}
+
+	@Test
+	void oldestOrderComesFirstAndExpiredClaimReturnsToQueue() {
+		Order newer = save(LocalDateTime.now().minusMinutes(5));
+		Order oldest = save(LocalDateTime.now().minusMinutes(30));
+		queue.rebuild();
+
+		assertThat(queue.claim("+994500000001", 1)).singleElement()
+				.satisfies(c -> assertThat(c.orderId()).isEqualTo(oldest.getId()));
+		assertThat(queue.size()).isEqualTo(1);
+
+		// Götürmə müddəti keçib: bazadakı götürmə də artıq etibarsızdır
+		jdbcTemplate.update("update orders set claim_expires_at = ? where id = ?", LocalDateTime.now().minusMinutes(1),
+				oldest.getId().toString());
+		assertThat(queue.expireClaims(System.currentTimeMillis() + 16 * 60_000)).isEqualTo(1);
+		assertThat(queue.claim("+994500000002", 2)).extracting(OrderClaim::orderId).containsExactly(oldest.getId(),
+				newer.getId());
+	}
+
+	@Test
+	void orderClaimedByAnotherInstanceIsSkipped() {
+		Order taken = save(LocalDateTime.now().minusMinutes(30));
+		Order free = save(LocalDateTime.now().minusMinutes(5));
+		queue.rebuild();
+		jdbcTemplate.update("update orders set claimed_by = ?, claim_expires_at = ? where id = ?",
+				UUID.randomUUID().toString(), LocalDateTime.now().plusMinutes(10), taken.getId().toString());
+
+		assertThat(queue.claim("+994500000001", 2)).extracting(OrderClaim::orderId).containsExactly(free.getId());
+
+		// Başqasının götürməsi müddəti bitəndə sifariş növbəyə qayıdır
+		assertThat(queue.size()).isZero();
+		jdbcTemplate.update("update orders set claim_expires_at = ? where id = ?", LocalDateTime.now().minusMinutes(1),
+				taken.getId().toString());
+		assertThat(queue.expireClaims(System.currentTimeMillis() + 11 * 60_000)).isEqualTo(1);
+		assertThat(queue.claim("+994500000001", 2)).extracting(OrderClaim::orderId).containsExactly(taken.getId());
+	}
+
+	@Test
+	void rebuildKeepsOrdersClaimedInDatabaseOutOfTheQueue() {
+		Order taken = save(LocalDateTime.now().minusMinutes(30));
+		Order stale = save(LocalDateTime.now().minusMinutes(20));
+		Order free = save(LocalDateTime.now().minusMinutes(5));
+		jdbcTemplate.update("update orders set claimed_by = ?, claim_expires_at = ? where id = ?",
+				UUID.randomUUID().toString(), LocalDateTime.now().plusMinutes(10), taken.getId().toString());
+		jdbcTemplate.update("update orders set claimed_by = ?, claim_expires_at = ? where id = ?",
+				UUID.randomUUID().toString(), LocalDateTime.now().minusMinutes(1), stale.getId().toString());
+
+		assertThat(queue.rebuild()).isEqualTo(2);
+		assertThat(queue.claim("+994500000001", 3)).extracting(OrderClaim::orderId).containsExactly(stale.getId(),
+				free.getId());
+
+		// Yalnız başqasının götürməsi bitib - bizimkilər hələ 15 dəqiqəlikdir
+		assertThat(queue.expireClaims(System.currentTimeMillis() + 11 * 60_000)).isEqualTo(1);
+		assertThat(queue.size()).isEqualTo(1);
+	}
+
+	@Test
+	void savingStaleLoadedOrderKeepsClaimAndSlaBreach() {
+		Order order = save(LocalDateTime.now().minusMinutes(30));
+		Order loaded = repository.findById(order.getId()).orElseThrow();
+		queue.rebuild();
+		assertThat(queue.claim("+994500000001", 1)).hasSize(1);
+		jdbcTemplate.update("update orders set sla_breached_at = ? where id = ?", LocalDateTime.now(),
+				order.getId().toString());
+
+		// Götürmədən əvvəl yüklənmiş sifariş tam saxlanılır
+		loaded.setNotes("Qapıya qədər");
+		repository.save(loaded);
+
+		Map<String, Object> row = jdbcTemplate.queryForMap(
+				"select notes, claimed_by, claim_expires_at, sla_breached_at from orders where id = ?",
+				order.getId().toString());
+		assertThat(row.get("notes")).isEqualTo("Qapıya qədər");
+		assertThat(row.get("claimed_by")).isEqualTo(preparers.get("+994500000001").toString());
+		assertThat(row.get("claim_expires_at")).isNotNull();
+		assertThat(row.get("sla_breached_at")).isNotNull();
+	}
+
+	private Order save(LocalDateTime confirmedAt) {
+		Order order = new Order();
+		order.setUserId(UUID.randomUUID());
+		order.setStatus(OrderStatus.CONFIRMED);
+		order.setTotalAmount(new BigDecimal("10.00"));
+		order.setDeliveryAddress("Bakı");
+		order.setCreatedAt(confirmedAt);
+		order = repository.save(order);
+		jdbcTemplate.update("update orders set status_changed_at = ? where id = ?", confirmedAt,
+				order.getId().toString());
+		return order;
+	}
+}
@@ -0,0 +1,230 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.service.OrderChangedEvent;
+import com.app.yolla.modules.order.service.OrderEventStream;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Çərçivələr HTTP-siz, göndərişi saxlanıla bilən emitter ilə yoxlanılır
+ */
+@SpringJUnitConfig
+@TestPropertySource(properties = { "orders.stream.history-size=3", "orders.stream.buffer-size=4",
+		"orders.stream.sender-threads=1", "orders.stream.send-timeout-ms=200" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OrderEventStreamTest {
+
+	private static final String PREPARER = "+994500000001";
+
+	private static final String CUSTOMER = "+994500000002";
+
+	private static final Pattern FRAME_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+	@Configuration
+	static class Config {
+
+		@Bean
+		OrderEventStream orderEventStream() {
+			return new OrderEventStream() {
+
+				@Override
+				protected SseEmitter createEmitter(long timeoutMs) {
+					return new RecordingEmitter(timeoutMs);
+				}
+			};
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return Jackson2ObjectMapperBuilder.json().build();
+		}
+	}
+
+	@Autowired
+	private OrderEventStream stream;
+
+	@MockBean
+	private UserService userService;
+
+	private final UUID customerId = UUID.randomUUID();
+
+	@BeforeEach
+	void setUp() {
+		UserDTO preparer = new UserDTO();
+		preparer.setId(UUID.randomUUID());
+		preparer.setRole(UserRole.PREPARER);
+		when(userService.findByPhoneNumber(PREPARER)).thenReturn(preparer);
+
+		UserDTO customer = new UserDTO();
+		customer.setId(customerId);
+		customer.setRole(UserRole.CUSTOMER);
+		when(userService.findByPhoneNumber(CUSTOMER)).thenReturn(customer);
+	}
+
+	@Test
+	void slowSubscriberLosesOldestFramesOnly() throws Exception {
+		RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(PREPARER, null, null);
+		emitter.hold();
+
+		confirm(UUID.randomUUID());
+		// Birinci çərçivə göndərilir və ilişir - qalanları 4 yerlik növbəyə düşür
+		assertThat(emitter.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < 7; i++) {
+			confirm(UUID.randomUUID());
+		}
+		emitter.release();
+
+		assertThat(emitter.await(5)).containsExactly("1", "5", "6", "7", "8");
+	}
+
+	@Test
+	void stalledSubscriberIsDroppedAndOthersKeepReceiving() throws Exception {
+		RecordingEmitter stuck = (RecordingEmitter) stream.subscribe(PREPARER, null, null);
+		RecordingEmitter healthy = (RecordingEmitter) stream.subscribe(PREPARER, null, null);
+		stuck.hold();
+
+		// Tək göndərici thread-i ilişmiş müştəridədir
+		confirm(UUID.randomUUID());
+		assertThat(stuck.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(stream.dropStalled(System.currentTimeMillis() + 1000)).isEqualTo(1);
+		assertThat(stream.subscriberCount()).isEqualTo(1);
+		confirm(UUID.randomUUID());
+
+		assertThat(healthy.await(2)).containsExactly("1", "2");
+		// Sağlam müştəri ilişmiş göndəriş hələ bitmədən çatdırılıb
+		assertThat(stuck.frames).isEmpty();
+		stuck.release();
+		assertThat(stuck.await(1)).containsExactly("1");
+	}
+
+	@Test
+	void lastEventIdResumesAfterRememberedFrame() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			confirm(UUID.randomUUID());
+		}
+
+		RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(PREPARER, null, 1L);
+		confirm(UUID.randomUUID());
+
+		assertThat(emitter.await(3)).containsExactly("2", "3", "4");
+	}
+
+	@Test
+	void gapLargerThanHistorySendsResetFirst() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			confirm(UUID.randomUUID());
+		}
+
+		// Yaddaşda 3, 4, 5 qalıb - 1-dən sonrakı 2 itib
+		RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(PREPARER, null, 1L);
+
+		assertThat(emitter.await(4)).containsExactly("reset", "3", "4", "5");
+	}
+
+	@Test
+	void customerSeesOnlyOwnOrders() throws Exception {
+		UUID own = UUID.randomUUID();
+		UUID foreign = UUID.randomUUID();
+		RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(CUSTOMER, null, null);
+
+		stream.onOrderChanged(new OrderChangedEvent(foreign, UUID.randomUUID(), OrderStatus.PENDING,
+				OrderStatus.CONFIRMED));
+		stream.onOrderChanged(new OrderChangedEvent(own, customerId, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+
+		assertThat(emitter.await(1)).containsExactly("2");
+		assertThat(String.join("", emitter.frames)).contains(own.toString()).doesNotContain(foreign.toString());
+	}
+
+	private void confirm(UUID orderId) {
+		stream.onOrderChanged(new OrderChangedEvent(orderId, UUID.randomUUID(), OrderStatus.PENDING,
+				OrderStatus.CONFIRMED));
+	}
+
+	/**
+	 * Göndərilən çərçivələri mətn kimi yazır; hold() ilə göndəriş release()-ə qədər gözləyir
+	 */
+	static class RecordingEmitter extends SseEmitter {
+
+		final List<String> frames = new CopyOnWriteArrayList<>();
+
+		final CountDownLatch entered = new CountDownLatch(1);
+
+		private volatile CountDownLatch gate = new CountDownLatch(0);
+
+		RecordingEmitter(long timeoutMs) {
+			super(timeoutMs);
+		}
+
+		void hold() {
+			gate = new CountDownLatch(1);
+		}
+
+		void release() {
+			gate.countDown();
+		}
+
+		@Override
+		public void send(Set<DataWithMediaType> items) throws IOException {
+			entered.countDown();
+			try {
+				gate.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			StringBuilder frame = new StringBuilder();
+			for (DataWithMediaType item : items) {
+				frame.append(item.getData());
+			}
+			frames.add(frame.toString());
+		}
+
+		/**
+		 * count çərçivə gələnə qədər gözləyir, sonra hər çərçivənin id-sini
+		 * (id-siz olanlar üçün hadisə adını) qaytarır
+		 */
+		List<String> await(int count) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 5000;
+			while (frames.size() < count && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			// Artıq çərçivə gəlmədiyini görmək üçün qısa gözləmə
+			Thread.sleep(50);
+			List<String> ids = new ArrayList<>();
+			for (String frame : frames) {
+				Matcher m = FRAME_ID.matcher(frame);
+				ids.add(m.find() ? m.group(1) : frame.contains("event:reset") ? "reset" : frame);
+			}
+			return ids;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.order.dto.OrderExportFormat;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.service.OrderExportService;
+
+/**
+ * Böyük sifariş həcminin kiçik heap-də (lowMemoryTest, -Xmx128m) ixracı.
+ * Data fayl əsaslı H2-də saxlanılır ki, heap-i baza özü doldurmasın; ixrac
+ * olunan həcm bütün heap-dən böyükdür, yəni cavab yaddaşda toplana bilməz.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = { "spring.datasource.url=jdbc:h2:file:./build/h2/order-export;CACHE_SIZE=4096",
+		"spring.datasource.username=sa", "spring.datasource.password=" })
+@ActiveProfiles("test")
+@Import({ OrderExportService.class, JacksonAutoConfiguration.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("low-memory")
+class OrderExportServiceTest {
+
+	private static final int ORDERS = 300_000;
+	private static final int LINES = 3;
+	private static final int PRODUCTS = 10;
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+	@Autowired
+	private OrderExportService exportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setUp() {
+		List<String> products = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			String id = UUID.randomUUID().toString();
+			jdbcTemplate.update("INSERT INTO products (id, name, price, stock_quantity, active, created_at) "
+					+ "VALUES (?, ?, ?, ?, ?, ?)", id, "Məhsul, \"" + i + "\"", new BigDecimal("2.50"), 100, true,
+					Timestamp.valueOf(LocalDateTime.now()));
+			products.add(id);
+		}
+
+		UUID userId = UUID.randomUUID();
+		int chunk = 20_000;
+		List<Object[]> orders = new ArrayList<>(chunk);
+		List<Object[]> items = new ArrayList<>(chunk * LINES);
+		for (int i = 0; i < ORDERS; i++) {
+			// Ardıcıl id-lər - B-tree-yə sona əlavə olunur, generasiya sürətli qalır
+			String id = new UUID(i, 0).toString();
+			// Ay boyunca paylanır, hər üçüncü sifariş CANCELLED
+			LocalDateTime createdAt = DAY.atStartOfDay().plusSeconds(i * 8L);
+			String status = i % 3 == 0 ? OrderStatus.CANCELLED.name() : OrderStatus.PENDING.name();
+			orders.add(new Object[] { id, userId, status, new BigDecimal("7.50"), "Bakı, anbar " + i,
+					Timestamp.valueOf(createdAt) });
+			for (int l = 0; l < LINES; l++) {
+				items.add(new Object[] { new UUID(i, l + 1).toString(), id, products.get((i + l) % PRODUCTS), 1,
+						new BigDecimal("2.50") });
+			}
+			if (orders.size() == chunk) {
+				insert(orders, items);
+			}
+		}
+		insert(orders, items);
+	}
+
+	@Test
+	void exportsLargeMonthWithConstantHeap() throws IOException {
+		LocalDate to = DAY.plusMonths(1).minusDays(1);
+
+		CountingStream ndjson = new CountingStream();
+		assertThat(exportService.export(DAY, to, null, OrderExportFormat.NDJSON, ndjson)).isEqualTo(ORDERS);
+		assertThat(ndjson.lines).isEqualTo(ORDERS);
+		assertThat(ndjson.bytes).isGreaterThan(Runtime.getRuntime().maxMemory());
+
+		CountingStream csv = new CountingStream();
+		assertThat(exportService.export(DAY, to, OrderStatus.CANCELLED, OrderExportFormat.CSV, csv))
+				.isEqualTo(ORDERS / 3);
+		assertThat(csv.lines).isEqualTo(1 + (long) ORDERS / 3 * LINES);
+
+		CountingStream firstDay = new CountingStream();
+		assertThat(exportService.export(DAY, DAY, null, OrderExportFormat.NDJSON, firstDay))
+				.isEqualTo(24 * 3600 / 8);
+	}
+
+	private void insert(List<Object[]> orders, List<Object[]> items) {
+		// Hər hissə bir commit - H2 faylı hər sətir üçün ayrıca böyüməsin
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			jdbcTemplate.batchUpdate("INSERT INTO orders (id, user_id, status, total_amount, delivery_address, "
+					+ "created_at) VALUES (?, ?, ?, ?, ?, ?)", orders);
+			jdbcTemplate.batchUpdate(
+					"INSERT INTO order_items (id, order_id, product_id, quantity, price) VALUES (?, ?, ?, ?, ?)",
+					items);
+		});
+		orders.clear();
+		items.clear();
+	}
+
+	/**
+	 * Çıxışı saxlamadan yalnız bayt və sətir sayır
+	 */
+	private static class CountingStream extends OutputStream {
+
+		long bytes;
+		long lines;
+
+		@Override
+		public void write(int b) {
+			bytes++;
+			if (b == '\n') {
+				lines++;
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+			for (int i = off; i < off + len; i++) {
+				if (b[i] == '\n') {
+					lines++;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.IdempotencyRecordRepository;
+import com.app.yolla.modules.order.service.OrderIdempotencyService;
+import com.app.yolla.modules.user.service.UserService;
+import com.app.yolla.shared.exception.MyException;
+
+/**
+ * Eyni Idempotency-Key ilə təkrar və paralel sorğuların sifarişi bir dəfə
+ * yaratdığını yoxlayır. Hər çağırış öz tranzaksiyasında commit olunur.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ OrderIdempotencyService.class, JacksonAutoConfiguration.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdempotencyServiceTest {
+
+	@Autowired
+	private OrderIdempotencyService idempotencyService;
+
+	@Autowired
+	private IdempotencyRecordRepository repository;
+
+	@MockBean
+	private UserService userService;
+
+	private final AtomicInteger created = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		when(userService.findPhone()).thenReturn("+994501234567");
+	}
+
+	@AfterEach
+	void tearDown() {
+		repository.deleteAll();
+	}
+
+	@Test
+	void replayReturnsStoredResponse() {
+		OrderDTO first = idempotencyService.execute("replay", this::createOrder);
+		OrderDTO second = idempotencyService.execute("replay", this::createOrder);
+
+		assertThat(second.getId()).isEqualTo(first.getId());
+		assertThat(second.getTotalAmount()).isEqualByComparingTo(first.getTotalAmount());
+		assertThat(created).hasValue(1);
+		assertThat(repository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentRequestsWithSameKeyRunOnce() throws Exception {
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<OrderDTO>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return idempotencyService.execute("parallel", slow(this::createOrder));
+				}));
+			}
+			start.countDown();
+
+			UUID id = results.get(0).get().getId();
+			for (Future<OrderDTO> f : results) {
+				assertThat(f.get().getId()).isEqualTo(id);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertThat(created).hasValue(1);
+	}
+
+	@Test
+	void failedAttemptDoesNotBlockRetry() {
+		assertThatThrownBy(() -> idempotencyService.execute("retry", () -> {
+			throw new MyException("Stokda kifayət qədər məhsul yoxdur");
+		})).isInstanceOf(MyException.class);
+
+		OrderDTO retried = idempotencyService.execute("retry", this::createOrder);
+
+		assertThat(retried.getId()).isNotNull();
+		assertThat(created).hasValue(1);
+	}
+
+	private OrderDTO createOrder() {
+		created.incrementAndGet();
+		OrderDTO dto = new OrderDTO();
+		dto.setId(UUID.randomUUID());
+		dto.setStatus(OrderStatus.PENDING);
+		dto.setTotalAmount(new BigDecimal("25.50"));
+		return dto;
+	}
+
+	private static Supplier<OrderDTO> slow(Supplier<OrderDTO> action) {
+		return () -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return action.get();
+		};
+	}
+}
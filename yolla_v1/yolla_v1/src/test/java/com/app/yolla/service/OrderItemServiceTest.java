@@ -0,0 +1,152 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.yolla.config.MyConfig;
+import com.app.yolla.config.StatementCountingConfig;
+import com.app.yolla.config.StatementCountingConfig.StatementCounter;
+import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.dto.OrderItemRequest;
+import com.app.yolla.modules.order.dto.OrderItemResponse;
+import com.app.yolla.modules.order.dto.OrderItemResponseDTO;
+import com.app.yolla.modules.order.service.OrderCache;
+import com.app.yolla.modules.order.service.OrderItemService;
+import com.app.yolla.modules.order.service.OrderService;
+import com.app.yolla.modules.order.service.StockReservationService;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.modules.product.service.LowStockWatcher;
+import com.app.yolla.modules.product.service.ProductService;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+import com.app.yolla.shared.exception.MyException;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ OrderItemService.class, OrderService.class, OrderCache.class, StockReservationService.class,
+		ProductService.class, InventoryLedger.class, LowStockWatcher.class, MyConfig.class,
+		StatementCountingConfig.class })
+class OrderItemServiceTest {
+
+	private static final String PHONE = "+994501234567";
+	private static final int LINES = 45;
+
+	@Autowired
+	private OrderItemService orderItemService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private StatementCounter statementCounter;
+
+	@MockBean
+	private UserService userService;
+
+	private UserDTO user;
+
+	private OrderDTO order;
+
+	@BeforeEach
+	void setUp() {
+		user = new UserDTO();
+		user.setId(UUID.randomUUID());
+		user.setPhoneNumber(PHONE);
+		user.setFullName("Test User");
+		user.setRole(UserRole.CUSTOMER);
+
+		when(userService.findPhone()).thenReturn(PHONE);
+		when(userService.findByPhoneNumber(PHONE)).thenReturn(user);
+		when(userService.findById(any(UUID.class))).thenReturn(user);
+
+		OrderCreateRequest request = new OrderCreateRequest();
+		request.setDeliveryAddress("Bakı, Nizami küç. 1");
+		List<OrderItemRequest> items = new ArrayList<>();
+		for (int i = 0; i < LINES; i++) {
+			Product p = new Product();
+			p.setName("Məhsul " + i);
+			p.setPrice(new BigDecimal("5.00"));
+			p.setStockQuantity(10);
+			p.setActive(true);
+			p.setCreatedAt(LocalDateTime.now());
+			items.add(new OrderItemRequest(productRepository.save(p).getId(), 2));
+		}
+		request.setItems(items);
+		order = orderService.createdOrder(request);
+		orderService.confirmOrder(order.getId(), PHONE);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void pagesThroughItemsWithOneQueryEach() {
+		Set<UUID> seen = new HashSet<>();
+		for (int begin = 0; begin < LINES; begin += 20) {
+			statementCounter.reset();
+			OrderItemResponse page = orderItemService.getOrderItems(order.getId(), 20, begin);
+			assertThat(statementCounter.get()).isEqualTo(1);
+
+			assertThat(page.getStatus()).isEqualTo("CONFIRMED");
+			assertThat(page.getTotalAmount()).isEqualByComparingTo(order.getTotalAmount());
+			assertThat(page.getItems()).hasSize(Math.min(20, LINES - begin));
+			for (OrderItemResponseDTO item : page.getItems()) {
+				assertThat(seen.add(item.getProductId())).isTrue();
+				assertThat(item.getProductName()).startsWith("Məhsul");
+				assertThat(item.getQuantity()).isEqualTo(2);
+			}
+			entityManager.clear();
+		}
+		assertThat(seen).hasSize(LINES);
+	}
+
+	@Test
+	void pagePastTheEndStillReturnsHeader() {
+		OrderItemResponse page = orderItemService.getOrderItems(order.getId(), 20, LINES);
+
+		assertThat(page.getItems()).isEmpty();
+		assertThat(page.getStatus()).isEqualTo("CONFIRMED");
+	}
+
+	@Test
+	void otherUsersOrderIsRejected() {
+		UserDTO other = new UserDTO();
+		other.setId(UUID.randomUUID());
+		other.setPhoneNumber(PHONE);
+		when(userService.findByPhoneNumber(PHONE)).thenReturn(other);
+
+		assertThatThrownBy(() -> orderItemService.getOrderItems(order.getId(), 20, 0))
+				.isInstanceOf(MyException.class);
+		assertThatThrownBy(() -> orderItemService.getOrderItems(order.getId(), 0, 0))
+				.isInstanceOf(MyException.class);
+	}
+}
@@ -0,0 +1,184 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.app.yolla.modules.order.dto.OrderJournalEntry;
+import com.app.yolla.modules.order.dto.OrderStatusRow;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.service.OrderChangedEvent;
+import com.app.yolla.modules.order.service.OrderJournal;
+
+class OrderJournalTest {
+
+	// Bir jurnal qeydinin ölçüsü: 8 bayt başlıq + 50 bayt məlumat
+	private static final int RECORD = 58;
+
+	@TempDir
+	Path dir;
+
+	private OrderJournal journal;
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
+	@Test
+	void replayReturnsHistoryOfOneOrderInOrder() throws Exception {
+		journal = open(RECORD * 100);
+		UUID order = UUID.randomUUID();
+		UUID other = UUID.randomUUID();
+		UUID user = UUID.randomUUID();
+
+		journal.append(order, user, null, OrderStatus.PENDING);
+		journal.append(other, null, null, OrderStatus.PENDING);
+		journal.append(order, user, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+		journal.append(order, user, OrderStatus.CONFIRMED, null);
+
+		List<OrderJournalEntry> history = journal.replay(order).toList();
+		assertThat(history).extracting(OrderJournalEntry::sequence).containsExactly(1L, 3L, 4L);
+		assertThat(history).extracting(OrderJournalEntry::to).containsExactly(OrderStatus.PENDING,
+				OrderStatus.CONFIRMED, null);
+		assertThat(history).allSatisfy(e -> assertThat(e.userId()).isEqualTo(user));
+		assertThat(journal.replay(other).toList()).singleElement().satisfies(e -> assertThat(e.userId()).isNull());
+	}
+
+	@Test
+	void appendAllWritesConsecutiveSequencesAcrossSegments() throws Exception {
+		journal = open(RECORD * 10);
+		UUID order = UUID.randomUUID();
+		List<OrderChangedEvent> events = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			events.add(new OrderChangedEvent(order, null, OrderStatus.PENDING, OrderStatus.CANCELLED));
+		}
+
+		assertThat(journal.appendAll(events)).isEqualTo(25);
+		assertThat(journal.append(order, null, OrderStatus.CANCELLED, null)).isEqualTo(26);
+		assertThat(journal.replay(order).map(OrderJournalEntry::sequence).toList()).hasSize(26).isSorted();
+	}
+
+	@Test
+	void segmentsRollAndSurviveReopen() throws Exception {
+		journal = open(RECORD * 10);
+		UUID order = UUID.randomUUID();
+		for (int i = 0; i < 35; i++) {
+			journal.append(order, null, OrderStatus.PENDING, OrderStatus.PENDING);
+		}
+		journal.close();
+
+		try (Stream<Path> files = Files.list(dir)) {
+			assertThat(files.count()).isEqualTo(4);
+		}
+
+		journal = open(RECORD * 10);
+		assertThat(journal.replay(order).map(OrderJournalEntry::sequence).toList()).hasSize(35)
+				.isSorted().startsWith(1L).endsWith(35L);
+		assertThat(journal.append(order, null, OrderStatus.PENDING, OrderStatus.SHIPPED)).isEqualTo(36);
+	}
+
+	@Test
+	void replayOfOneOrderSpansSegmentsAfterReopen() throws Exception {
+		journal = open(RECORD * 10);
+		List<UUID> orders = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			orders.add(UUID.randomUUID());
+		}
+		for (OrderStatus to : List.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.SHIPPED)) {
+			for (UUID order : orders) {
+				journal.append(order, null, null, to);
+			}
+		}
+		journal.close();
+
+		journal = open(RECORD * 10);
+		for (int i = 0; i < orders.size(); i++) {
+			assertThat(journal.replay(orders.get(i)).map(OrderJournalEntry::sequence).toList())
+					.containsExactly(i + 1L, i + 41L, i + 81L);
+		}
+		assertThat(journal.replay(UUID.randomUUID()).toList()).isEmpty();
+	}
+
+	@Test
+	void tornRecordIsDroppedOnRecovery() throws Exception {
+		journal = open(RECORD * 100);
+		UUID order = UUID.randomUUID();
+		for (int i = 0; i < 3; i++) {
+			journal.append(order, null, null, OrderStatus.PENDING);
+		}
+		journal.close();
+
+		// Üçüncü qeydin ortası yarımçıq yazılmış kimi korlanır
+		try (Stream<Path> files = Files.list(dir);
+				RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+			file.seek(RECORD * 2 + 30);
+			file.write(0x7f);
+		}
+
+		journal = open(RECORD * 100);
+		assertThat(journal.replay(order).map(OrderJournalEntry::sequence).toList()).containsExactly(1L, 2L);
+		assertThat(journal.append(order, null, null, OrderStatus.CANCELLED)).isEqualTo(3);
+		assertThat(journal.replay(order).toList()).last()
+				.satisfies(e -> assertThat(e.to()).isEqualTo(OrderStatus.CANCELLED));
+	}
+
+	@Test
+	void replayByTimeRangeSkipsOtherEntries() throws Exception {
+		journal = open(RECORD * 100);
+		LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+		journal.append(UUID.randomUUID(), null, null, OrderStatus.PENDING);
+		journal.append(UUID.randomUUID(), null, null, OrderStatus.PENDING);
+
+		assertThat(journal.replay(before, LocalDateTime.now().plusSeconds(1)).toList()).hasSize(2);
+		assertThat(journal.replay(before.minusDays(1), before).toList()).isEmpty();
+	}
+
+	@Test
+	void repairAppendsStatusesCommittedButNotJournaled() throws Exception {
+		journal = open(RECORD * 100);
+		UUID journaled = UUID.randomUUID();
+		UUID behind = UUID.randomUUID();
+		UUID missing = UUID.randomUUID();
+		journal.append(journaled, null, null, OrderStatus.PENDING);
+		journal.append(behind, null, null, OrderStatus.PENDING);
+
+		// behind CONFIRMED, missing isə yaradılıb - hər ikisi commit-dən sonra jurnala yazılmadan çöküb
+		List<OrderStatusRow> current = List.of(new OrderStatusRow(journaled, null, OrderStatus.PENDING),
+				new OrderStatusRow(behind, null, OrderStatus.CONFIRMED),
+				new OrderStatusRow(missing, null, OrderStatus.PENDING));
+
+		assertThat(journal.repair(current)).isEqualTo(2);
+		assertThat(journal.replay(behind).toList()).last().satisfies(e -> {
+			assertThat(e.from()).isEqualTo(OrderStatus.PENDING);
+			assertThat(e.to()).isEqualTo(OrderStatus.CONFIRMED);
+		});
+		assertThat(journal.replay(missing).toList()).singleElement().satisfies(e -> {
+			assertThat(e.from()).isNull();
+			assertThat(e.to()).isEqualTo(OrderStatus.PENDING);
+		});
+		assertThat(journal.replay(journaled).toList()).hasSize(1);
+
+		// Təkrar bərpa heç nə yazmır
+		assertThat(journal.repair(current)).isZero();
+	}
+
+	private OrderJournal open(int segmentBytes) throws Exception {
+		OrderJournal j = new OrderJournal(dir.toString(), segmentBytes, 5, true, 0);
+		j.open();
+		return j;
+	}
+}
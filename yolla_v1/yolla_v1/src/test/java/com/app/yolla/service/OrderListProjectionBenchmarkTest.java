@@ -0,0 +1,224 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.config.MyConfig;
+import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.dto.OrderItemDTO;
+import com.app.yolla.modules.order.dto.OrderItemRequest;
+import com.app.yolla.modules.order.entity.Order;
+import com.app.yolla.modules.order.entity.OrderItem;
+import com.app.yolla.modules.order.service.OrderCache;
+import com.app.yolla.modules.order.service.OrderChangedEvent;
+import com.app.yolla.modules.order.service.OrderService;
+import com.app.yolla.modules.order.service.StockReservationService;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.modules.product.service.LowStockWatcher;
+import com.app.yolla.modules.product.service.ProductService;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Sifariş siyahısının proyeksiya yolu ilə köhnə entity + convertToDTO yolunun
+ * müqayisəsi: səhifə başına ayrılan yaddaş (cari thread üzrə) və gecikmə.
+ * Hər iki yol eyni iki sorğunu edir, fərq yalnız entity yaradılması, dirty
+ * checking snapshot-ları və flush-dadır.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import({ OrderService.class, OrderCache.class, StockReservationService.class, ProductService.class,
+		InventoryLedger.class, LowStockWatcher.class, MyConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+class OrderListProjectionBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderListProjectionBenchmarkTest.class);
+
+	private static final String PHONE = "+994501234567";
+	private static final int ORDERS = 100;
+	private static final int LINES = 5;
+	private static final int PAGE_SIZE = 50;
+	private static final int ITERATIONS = 300;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderCache orderCache;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockBean
+	private UserService userService;
+
+	private UserDTO user;
+
+	@BeforeEach
+	void setUp() {
+		user = new UserDTO();
+		user.setId(UUID.randomUUID());
+		user.setPhoneNumber(PHONE);
+		user.setFullName("Test User");
+		user.setRole(UserRole.CUSTOMER);
+
+		when(userService.findPhone()).thenReturn(PHONE);
+		when(userService.findByPhoneNumber(PHONE)).thenReturn(user);
+		when(userService.findById(any(UUID.class))).thenReturn(user);
+
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < LINES; i++) {
+			Product p = new Product();
+			p.setName("Məhsul " + i);
+			p.setPrice(new BigDecimal("5.00"));
+			p.setStockQuantity(1_000_000);
+			p.setActive(true);
+			p.setCreatedAt(LocalDateTime.now());
+			products.add(productRepository.save(p));
+		}
+		for (int i = 0; i < ORDERS; i++) {
+			OrderCreateRequest request = new OrderCreateRequest();
+			request.setDeliveryAddress("Bakı, Nizami küç. " + i);
+			List<OrderItemRequest> items = new ArrayList<>();
+			for (Product p : products) {
+				items.add(new OrderItemRequest(p.getId(), 1));
+			}
+			request.setItems(items);
+			orderService.createdOrder(request);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		for (String table : List.of("stock_reservations", "order_items", "orders", "inventory_deltas", "products")) {
+			jdbcTemplate.update("delete from " + table);
+		}
+	}
+
+	@Test
+	void projectionPageAllocatesLessThanEntityPage() {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		// İlk səhifə keşlənir - ölçmə sorğuların özünə aid olsun deyə hər dəfə keş boşaldılır
+		Supplier<Integer> projection = () -> {
+			orderCache.onOrderChanged(new OrderChangedEvent(null, user.getId(), null, null));
+			return orderService.getPage(null, PAGE_SIZE).getList().size();
+		};
+		Supplier<Integer> entities = () -> tx.execute(status -> entityPage().size());
+
+		// JIT isinməsi
+		measure(projection);
+		measure(entities);
+
+		long[] viaProjection = measure(projection);
+		long[] viaEntities = measure(entities);
+
+		logger.info("proyeksiya: {} KB/səhifə, {} µs/səhifə; entity: {} KB/səhifə, {} µs/səhifə",
+				viaProjection[0] / 1024, viaProjection[1] / 1000, viaEntities[0] / 1024, viaEntities[1] / 1000);
+
+		assertThat(viaProjection[0]).isLessThan(viaEntities[0]);
+	}
+
+	/**
+	 * Köhnə yol: səhifənin entity-ləri, sonra sətirlər və məhsullar join fetch
+	 * ilə, sonda hər sifariş OrderDTO-ya köçürülür.
+	 */
+	private List<OrderDTO> entityPage() {
+		List<Order> orders = entityManager
+				.createQuery("select o from Order o where o.userId = :userId order by o.createdAt desc, o.id desc",
+						Order.class)
+				.setParameter("userId", user.getId()).setMaxResults(PAGE_SIZE).getResultList();
+		List<UUID> ids = new ArrayList<>(orders.size());
+		for (Order order : orders) {
+			ids.add(order.getId());
+		}
+		entityManager.createQuery(
+				"select distinct o from Order o left join fetch o.items i left join fetch i.product where o.id in :ids",
+				Order.class).setParameter("ids", ids).getResultList();
+
+		List<OrderDTO> list = new ArrayList<>(orders.size());
+		for (Order order : orders) {
+			List<OrderItemDTO> itemDTOs = new ArrayList<>();
+			for (OrderItem o : order.getItems()) {
+				OrderItemDTO dto = new OrderItemDTO();
+				dto.setProductId(o.getProduct().getId());
+				dto.setProductName(o.getProduct().getName());
+				dto.setQuantity(o.getQuantity());
+				dto.setUnitPrice(o.getProduct().getPrice());
+				itemDTOs.add(dto);
+			}
+			OrderDTO dto = new OrderDTO();
+			dto.setId(order.getId());
+			dto.setUserId(order.getUserId());
+			dto.setUserFullName(user.getFullName());
+			dto.setUserPhone(user.getPhoneNumber());
+			dto.setStatus(order.getStatus());
+			dto.setTotalAmount(order.getTotalAmount());
+			dto.setCreatedAt(order.getCreatedAt());
+			dto.setNotes(order.getNotes());
+			dto.setDeliveryAddress(order.getDeliveryAddress());
+			dto.setItems(itemDTOs);
+			dto.setDeliveryTime(order.getDeliveryTime());
+			list.add(dto);
+		}
+		return list;
+	}
+
+	/**
+	 * Səhifə başına orta ayrılan bayt və nanosaniyə
+	 */
+	private static long[] measure(Supplier<Integer> page) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long bytes = threads.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			assertThat(page.get()).isEqualTo(PAGE_SIZE);
+		}
+		long elapsed = System.nanoTime() - start;
+		bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+		return new long[] { bytes / ITERATIONS, elapsed / ITERATIONS };
+	}
+}
@@ -0,0 +1,206 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.config.MyConfig;
+import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.dto.OrderEventMessage;
+import com.app.yolla.modules.order.dto.OrderItemRequest;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.service.OrderCache;
+import com.app.yolla.modules.order.service.OrderEventPublisher;
+import com.app.yolla.modules.order.service.OrderOutbox;
+import com.app.yolla.modules.order.service.OrderOutboxRelay;
+import com.app.yolla.modules.order.service.OrderService;
+import com.app.yolla.modules.order.service.OrderStatusCounters;
+import com.app.yolla.modules.order.service.StockReservationService;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.modules.product.service.LowStockWatcher;
+import com.app.yolla.modules.product.service.ProductService;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+
+/**
+ * Outbox real commit tələb etdiyi üçün testlər tranzaksiyasız işləyir, broker
+ * yerinə isə yaddaşda hadisələri toplayan InMemoryBroker istifadə olunur.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ OrderService.class, OrderCache.class, OrderStatusCounters.class, StockReservationService.class,
+		ProductService.class, InventoryLedger.class, LowStockWatcher.class, MyConfig.class, OrderOutbox.class,
+		OrderOutboxRelay.class, OrderOutboxTest.InMemoryBroker.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderOutboxTest {
+
+	private static final String PHONE = "+994501234567";
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderOutboxRelay relay;
+
+	@Autowired
+	private InMemoryBroker broker;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockBean
+	private UserService userService;
+
+	@BeforeEach
+	void setUp() {
+		UserDTO user = new UserDTO();
+		user.setId(UUID.randomUUID());
+		user.setPhoneNumber(PHONE);
+		user.setFullName("Test User");
+		user.setRole(UserRole.CUSTOMER);
+
+		when(userService.findPhone()).thenReturn(PHONE);
+		when(userService.findByPhoneNumber(PHONE)).thenReturn(user);
+		when(userService.findById(any(UUID.class))).thenReturn(user);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		broker.received.clear();
+		broker.failing = false;
+		for (String table : List.of("order_outbox", "stock_reservations", "order_items", "orders",
+				"inventory_deltas", "products")) {
+			jdbcTemplate.update("delete from " + table);
+		}
+	}
+
+	@Test
+	void lifecycleEventsAreRelayedInOrder() {
+		OrderDTO dto = orderService.createdOrder(request(seedProduct(), 1));
+		orderService.confirmOrder(dto.getId(), PHONE);
+		orderService.cancelOrder(dto.getId(), PHONE);
+
+		assertThat(relay.relay()).isEqualTo(3);
+
+		assertThat(broker.received).allSatisfy(m -> assertThat(m.orderId()).isEqualTo(dto.getId()));
+		assertThat(broker.received).extracting(OrderEventMessage::routingKey)
+				.containsExactly("order.created", "order.confirmed", "order.cancelled");
+		assertThat(outboxSize()).isZero();
+		assertThat(relay.relay()).isZero();
+	}
+
+	@Test
+	void bulkTransitionWritesOneEventPerOrder() {
+		Product product = seedProduct();
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			ids.add(orderService.createdOrder(request(product, 1)).getId());
+		}
+		jdbcTemplate.update("delete from order_outbox");
+
+		orderService.transitionAll(ids, OrderStatus.CANCELLED, PHONE);
+
+		assertThat(outboxSize()).isEqualTo(5);
+		relay.relay();
+		assertThat(broker.received).extracting(OrderEventMessage::orderId).containsExactlyInAnyOrderElementsOf(ids);
+		assertThat(broker.received).allSatisfy(m -> assertThat(m.from()).isEqualTo(OrderStatus.PENDING));
+	}
+
+	@Test
+	void rolledBackChangeLeavesNoEvent() {
+		Product product = seedProduct();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			orderService.createdOrder(request(product, 1));
+			status.setRollbackOnly();
+		});
+
+		assertThat(outboxSize()).isZero();
+	}
+
+	@Test
+	void failedPublishKeepsEventsForRetry() {
+		OrderDTO dto = orderService.createdOrder(request(seedProduct(), 1));
+		orderService.cancelOrder(dto.getId(), PHONE);
+
+		broker.failing = true;
+		assertThat(relay.relay()).isZero();
+		assertThat(outboxSize()).isEqualTo(2);
+
+		broker.failing = false;
+		assertThat(relay.relay()).isEqualTo(2);
+		assertThat(broker.received).extracting(OrderEventMessage::routingKey)
+				.containsExactly("order.created", "order.cancelled");
+		assertThat(outboxSize()).isZero();
+	}
+
+	private int outboxSize() {
+		return jdbcTemplate.queryForObject("select count(*) from order_outbox", Integer.class);
+	}
+
+	private Product seedProduct() {
+		Product p = new Product();
+		p.setName("Məhsul");
+		p.setPrice(new BigDecimal("5.00"));
+		p.setStockQuantity(100);
+		p.setActive(true);
+		p.setCreatedAt(LocalDateTime.now());
+		return productRepository.save(p);
+	}
+
+	private OrderCreateRequest request(Product product, int quantity) {
+		OrderCreateRequest request = new OrderCreateRequest();
+		request.setDeliveryAddress("Bakı, Nizami küç. 1");
+		request.setItems(List.of(new OrderItemRequest(product.getId(), quantity)));
+		return request;
+	}
+
+	/**
+	 * RabbitMQ əvəzi: hadisələri yaddaşda toplayır, failing olduqda isə broker
+	 * təsdiq verməmiş kimi xəta atır.
+	 */
+	static class InMemoryBroker implements OrderEventPublisher {
+
+		final List<OrderEventMessage> received = new ArrayList<>();
+
+		volatile boolean failing;
+
+		@Override
+		public void publish(List<OrderEventMessage> events) {
+			if (failing) {
+				throw new IllegalStateException("broker təsdiq vermədi");
+			}
+			received.addAll(events);
+		}
+	}
+}
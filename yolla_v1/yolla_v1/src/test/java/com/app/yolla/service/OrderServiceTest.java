@@ -0,0 +1,670 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.config.MyConfig;
+import com.app.yolla.config.StatementCountingConfig;
+import com.app.yolla.config.StatementCountingConfig.StatementCounter;
+import com.app.yolla.modules.order.dto.OrderBatchResult;
+import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.modules.order.dto.OrderDTO;
+import com.app.yolla.modules.order.dto.OrderItemRequest;
+import com.app.yolla.modules.order.dto.OrderResponse;
+import com.app.yolla.modules.order.dto.OrderStatusRow;
+import com.app.yolla.modules.order.dto.OrderTransitionResult;
+import com.app.yolla.modules.order.dto.OrderUpdateRequest;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.entity.ReservationStatus;
+import com.app.yolla.modules.order.repository.OrderRepository;
+import com.app.yolla.modules.order.service.OrderCache;
+import com.app.yolla.modules.order.service.OrderChangedEvent;
+import com.app.yolla.modules.order.service.OrderService;
+import com.app.yolla.modules.order.service.OrderStatusCounters;
+import com.app.yolla.modules.order.service.StockReservationService;
+import com.app.yolla.modules.product.dto.ProductUpdateRequest;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.modules.product.service.LowStockWatcher;
+import com.app.yolla.modules.product.service.ProductService;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+import com.app.yolla.shared.exception.MyException;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ OrderService.class, OrderCache.class, OrderStatusCounters.class, StockReservationService.class,
+		ProductService.class, InventoryLedger.class, LowStockWatcher.class, MyConfig.class,
+		StatementCountingConfig.class })
+@RecordApplicationEvents
+class OrderServiceTest {
+
+	private static final String PHONE = "+994501234567";
+
+	private static final String ADMIN_PHONE = "+994501112233";
+
+	private static final String PREPARER_PHONE = "+994504445566";
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private InventoryLedger inventoryLedger;
+
+	@Autowired
+	private StockReservationService reservationService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private StatementCounter statementCounter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OrderStatusCounters statusCounters;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@SpyBean
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private LowStockWatcher lowStockWatcher;
+
+	@MockBean
+	private UserService userService;
+
+	@BeforeEach
+	void setUp() {
+		UserDTO user = new UserDTO();
+		user.setId(UUID.randomUUID());
+		user.setPhoneNumber(PHONE);
+		user.setFullName("Test User");
+		user.setRole(UserRole.CUSTOMER);
+
+		when(userService.findPhone()).thenReturn(PHONE);
+		when(userService.findByPhoneNumber(PHONE)).thenReturn(user);
+		when(userService.findById(any(UUID.class))).thenReturn(user);
+
+		UserDTO admin = new UserDTO();
+		admin.setId(UUID.randomUUID());
+		admin.setPhoneNumber(ADMIN_PHONE);
+		admin.setFullName("Admin");
+		admin.setRole(UserRole.ADMIN);
+		when(userService.findByPhoneNumber(ADMIN_PHONE)).thenReturn(admin);
+
+		UserDTO preparer = new UserDTO();
+		preparer.setId(UUID.randomUUID());
+		preparer.setPhoneNumber(PREPARER_PHONE);
+		preparer.setFullName("Hazırlayıcı");
+		preparer.setRole(UserRole.PREPARER);
+		when(userService.findByPhoneNumber(PREPARER_PHONE)).thenReturn(preparer);
+	}
+
+	@Test
+	void createdOrderStatementCountDoesNotGrowWithLines() {
+		int single = statementsForOrder(1);
+		int basket = statementsForOrder(30);
+
+		// products select + stok sayğaclarının yüklənməsi + jurnal batch + orders insert
+		// + order_items batch + stock_reservations batch; products cədvəli write-behind ilə yenilənir
+		assertThat(basket).isEqualTo(single).isBetween(1, 6);
+	}
+
+	@Test
+	void createdOrderDecrementsStockForEveryLine() {
+		List<Product> products = seedProducts(3, 10);
+
+		OrderDTO dto = orderService.createdOrder(request(products, 4));
+		entityManager.flush();
+		for (Product p : products) {
+			assertThat(inventoryLedger.available(p.getId())).isEqualTo(6);
+		}
+
+		assertThat(inventoryLedger.flush()).isEqualTo(3);
+		entityManager.clear();
+
+		assertThat(dto.getTotalAmount()).isEqualByComparingTo("60.00");
+		for (Product p : products) {
+			assertThat(productRepository.findById(p.getId()).orElseThrow().getStockQuantity()).isEqualTo(6);
+		}
+	}
+
+	@Test
+	void cancelOrderReturnsStockThroughJournal() {
+		List<Product> products = seedProducts(2, 10);
+
+		OrderDTO dto = orderService.createdOrder(request(products, 4));
+		entityManager.flush();
+		entityManager.clear();
+		orderService.cancelOrder(dto.getId(), PHONE);
+		entityManager.flush();
+		inventoryLedger.flush();
+		entityManager.clear();
+
+		for (Product p : products) {
+			assertThat(productRepository.findById(p.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+		}
+	}
+
+	@Test
+	void updateOrderChangesStatusOnlyThroughTransitionTable() {
+		List<Product> products = seedProducts(2, 10);
+		OrderDTO dto = orderService.createdOrder(request(products, 4));
+
+		// Müştəri sifarişi birbaşa çatdırılmış edə bilməz, rezervlər toxunulmaz qalır
+		assertThatThrownBy(() -> orderService.updateOrder(dto.getId(),
+				new OrderUpdateRequest(OrderStatus.DELIVERED, null, "Bakı", null))).isInstanceOf(MyException.class);
+		assertThat(orderRepository.findById(dto.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(reservationStatuses(dto.getId())).containsOnly(ReservationStatus.HELD);
+
+		orderService.updateOrder(dto.getId(), new OrderUpdateRequest(OrderStatus.CONFIRMED, null, "Bakı", null));
+		assertThat(orderRepository.findById(dto.getId()).orElseThrow().getStatus())
+				.isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(reservationStatuses(dto.getId())).containsOnly(ReservationStatus.CONFIRMED);
+	}
+
+	@Test
+	void createdOrderRejectsWhenAnyLineIsShort() {
+		List<Product> products = seedProducts(2, 3);
+
+		assertThatThrownBy(() -> orderService.createdOrder(request(products, 5))).isInstanceOf(MyException.class);
+	}
+
+	@Test
+	void expiredHoldsAreReleasedInBulk() {
+		List<Product> products = seedProducts(3, 10);
+
+		OrderDTO dto = orderService.createdOrder(request(products, 4));
+		entityManager.flush();
+		entityManager.createQuery("update StockReservation r set r.expiresAt = :past where r.orderId = :orderId")
+				.setParameter("past", LocalDateTime.now().minusMinutes(1)).setParameter("orderId", dto.getId())
+				.executeUpdate();
+
+		assertThat(reservationService.releaseExpired()).isEqualTo(3);
+		assertThat(reservationService.releaseExpired()).isZero();
+		entityManager.flush();
+		inventoryLedger.flush();
+		entityManager.clear();
+
+		for (Product p : products) {
+			assertThat(productRepository.findById(p.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+		}
+		assertThatThrownBy(() -> orderService.confirmOrder(dto.getId(), PHONE)).isInstanceOf(MyException.class);
+	}
+
+	@Test
+	void confirmedHoldsSurviveExpirySweep() {
+		List<Product> products = seedProducts(2, 10);
+
+		OrderDTO dto = orderService.createdOrder(request(products, 4));
+		orderService.confirmOrder(dto.getId(), PHONE);
+		entityManager.flush();
+		entityManager.createQuery("update StockReservation r set r.expiresAt = :past")
+				.setParameter("past", LocalDateTime.now().minusMinutes(1)).executeUpdate();
+
+		assertThat(reservationService.releaseExpired()).isZero();
+		inventoryLedger.flush();
+		entityManager.clear();
+
+		for (Product p : products) {
+			assertThat(productRepository.findById(p.getId()).orElseThrow().getStockQuantity()).isEqualTo(6);
+		}
+	}
+
+	@Test
+	void createdOrdersReportsResultPerOrder() {
+		List<Product> products = seedProducts(2, 5);
+		OrderCreateRequest missing = request(List.of(), 1);
+		missing.setItems(List.of(new OrderItemRequest(UUID.randomUUID(), 1)));
+
+		List<OrderBatchResult> results = orderService.createdOrders(
+				List.of(request(products, 3), missing, request(products, 3), request(products.subList(0, 1), 2)));
+
+		assertThat(results).extracting(OrderBatchResult::isSuccess).containsExactly(true, false, false, true);
+		assertThat(results.get(0).getTotalAmount()).isEqualByComparingTo("30.00");
+		assertThat(inventoryLedger.available(products.get(0).getId())).isZero();
+		assertThat(inventoryLedger.available(products.get(1).getId())).isEqualTo(2);
+	}
+
+	@Test
+	void getPageWalksEveryOrderOnceByCursor() {
+		List<Product> products = seedProducts(1, 100);
+		Set<UUID> created = new HashSet<>();
+		for (int i = 0; i < 5; i++) {
+			created.add(orderService.createdOrder(request(products, 1)).getId());
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		Set<UUID> seen = new HashSet<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			OrderResponse page = orderService.getPage(cursor, 2);
+			page.getList().forEach(o -> assertThat(seen.add(o.id())).isTrue());
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(seen).isEqualTo(created);
+		assertThat(pages).isEqualTo(3);
+	}
+
+	@Test
+	void orderListStatementCountDoesNotGrowWithPageSize() {
+		List<Product> products = seedProducts(5, 1000);
+		for (int i = 0; i < 20; i++) {
+			orderService.createdOrder(request(products, 1));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		clearInvocations(userService);
+
+		int small = statementsForPage(2);
+		int large = statementsForPage(20);
+
+		// sifariş səhifəsi + sətirlər və məhsullar; istifadəçi səhifə başına bir dəfə
+		assertThat(large).isEqualTo(small).isEqualTo(2);
+		verify(userService, never()).findById(any(UUID.class));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void cachedOrdersAreInvalidatedOnCommittedChange() {
+		List<Product> products = seedProducts(1, 10);
+		OrderDTO dto = orderService.createdOrder(request(products, 1));
+
+		OrderResponse first = orderService.getPage(null, 5);
+		orderService.getById(dto.getId());
+		statementCounter.reset();
+		assertThat(orderService.getPage(null, 5)).isSameAs(first);
+		assertThat(orderService.getById(dto.getId()).getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(statementCounter.get()).isZero();
+
+		orderService.cancelOrder(dto.getId(), PHONE);
+
+		assertThat(orderService.getPage(null, 5).getList()).singleElement()
+				.satisfies(o -> assertThat(o.status()).isEqualTo(OrderStatus.CANCELLED));
+		assertThat(orderService.getById(dto.getId()).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void statusCountersFollowCommittedTransitions() {
+		assertThat(statusCounters.reconcile()).isTrue();
+		List<Product> products = seedProducts(1, 10);
+
+		OrderDTO first = orderService.createdOrder(request(products, 1));
+		OrderDTO second = orderService.createdOrder(request(products, 1));
+		orderService.confirmOrder(first.getId(), PHONE);
+		orderService.cancelOrder(second.getId(), PHONE);
+		assertThatThrownBy(() -> orderService.confirmOrder(second.getId(), PHONE)).isInstanceOf(MyException.class);
+
+		assertThat(statusCounters.snapshot()).containsEntry(OrderStatus.PENDING, 0L)
+				.containsEntry(OrderStatus.CONFIRMED, 1L).containsEntry(OrderStatus.CANCELLED, 1L);
+
+		// Bazadan kənar dəyişiklik uyğunlaşdırma ilə düzəlir
+		jdbcTemplate.update("update orders set status = 'SHIPPED' where status = 'CONFIRMED'");
+		assertThat(statusCounters.reconcile()).isTrue();
+		assertThat(statusCounters.snapshot()).containsEntry(OrderStatus.CONFIRMED, 0L)
+				.containsEntry(OrderStatus.SHIPPED, 1L);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void reconcileSkipsCommitsNotYetCounted() {
+		assertThat(statusCounters.reconcile()).isTrue();
+		List<Product> products = seedProducts(1, 10);
+
+		// Sifariş bazada görünür, sayğac hələ artırılmayıb - uyğunlaşdırma onu iki dəfə saymasın
+		AtomicBoolean reconciledInGap = new AtomicBoolean(true);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			orderService.createdOrder(request(products, 1));
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					reconciledInGap.set(statusCounters.reconcile());
+				}
+			});
+		});
+
+		assertThat(reconciledInGap).isFalse();
+		assertThat(statusCounters.snapshot()).containsEntry(OrderStatus.PENDING, 1L);
+		assertThat(statusCounters.reconcile()).isTrue();
+		assertThat(statusCounters.snapshot()).containsEntry(OrderStatus.PENDING, 1L);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void committedOrderCrossingReorderThresholdAlertsOnce() {
+		List<Product> products = seedProducts(1, 10);
+		ProductUpdateRequest threshold = new ProductUpdateRequest();
+		threshold.setReorderThreshold(5);
+		productService.updateProduct(products.get(0).getId(), threshold);
+		int before = lowStockWatcher.alerts();
+
+		orderService.createdOrder(request(products, 4));
+		assertThat(lowStockWatcher.alerts()).isEqualTo(before);
+
+		assertThatThrownBy(() -> orderService.createdOrder(request(products, 7))).isInstanceOf(MyException.class);
+		OrderDTO crossing = orderService.createdOrder(request(products, 2));
+		orderService.createdOrder(request(products, 1));
+		assertThat(lowStockWatcher.alerts()).isEqualTo(before + 1);
+
+		// Ləğv stoku həddən yuxarı qaytarır, təkrar düşmə isə cooldown-dadır
+		orderService.cancelOrder(crossing.getId(), PHONE);
+		orderService.createdOrder(request(products, 2));
+		assertThat(lowStockWatcher.alerts()).isEqualTo(before + 1);
+	}
+
+	@Test
+	void bulkTransitionStatementCountDoesNotGrowWithOrders() {
+		int few = statementsForShip(3);
+		int many = statementsForShip(40);
+
+		// statuslar select + bir UPDATE ... WHERE id IN (...) AND status IN (...)
+		assertThat(many).isEqualTo(few).isBetween(1, 3);
+	}
+
+	@Test
+	void bulkTransitionReportsOutcomePerOrder() {
+		List<Product> products = seedProducts(1, 100);
+		OrderDTO pending = orderService.createdOrder(request(products, 1));
+		OrderDTO confirmed = orderService.createdOrder(request(products, 1));
+		OrderDTO foreign = orderService.createdOrder(request(products, 1));
+		entityManager.flush();
+		orderService.confirmOrder(confirmed.getId(), PHONE);
+		entityManager.flush();
+		jdbcTemplate.update("update orders set user_id = ? where id = ?", UUID.randomUUID(),
+				foreign.getId().toString());
+		entityManager.clear();
+		UUID missing = UUID.randomUUID();
+
+		List<OrderTransitionResult> results = orderService.transitionAll(
+				List.of(pending.getId(), confirmed.getId(), foreign.getId(), missing), OrderStatus.CONFIRMED, PHONE);
+		entityManager.clear();
+
+		assertThat(results).extracting(OrderTransitionResult::getOrderId)
+				.containsExactly(pending.getId(), confirmed.getId(), foreign.getId(), missing);
+		assertThat(results).extracting(OrderTransitionResult::isSuccess).containsExactly(true, false, false, false);
+		assertThat(results.get(1).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(results.get(2).getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(results.get(3).getStatus()).isNull();
+		assertThat(orderService.findByOrder(pending.getId()).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(orderService.findByOrder(foreign.getId()).getStatus()).isEqualTo(OrderStatus.PENDING);
+
+		// Müştəri sifarişi göndərə bilməz - cədvəldə icazəsi yoxdur
+		assertThat(orderService.transitionAll(List.of(pending.getId()), OrderStatus.SHIPPED, PHONE))
+				.extracting(OrderTransitionResult::isSuccess).containsExactly(false);
+		assertThatThrownBy(() -> orderService.shipOrder(pending.getId(), PHONE)).isInstanceOf(MyException.class);
+	}
+
+	@Test
+	void bulkCancelReturnsStockForEveryOrder() {
+		List<Product> products = seedProducts(2, 20);
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			ids.add(orderService.createdOrder(request(products, 3)).getId());
+		}
+		entityManager.flush();
+		orderService.confirmOrder(ids.get(0), PHONE);
+		entityManager.flush();
+		entityManager.clear();
+
+		List<OrderTransitionResult> results = orderService.transitionAll(ids, OrderStatus.CANCELLED, PHONE);
+		entityManager.flush();
+		inventoryLedger.flush();
+		entityManager.clear();
+
+		assertThat(results).allSatisfy(r -> assertThat(r.isSuccess()).isTrue());
+		for (Product p : products) {
+			assertThat(productRepository.findById(p.getId()).orElseThrow().getStockQuantity()).isEqualTo(20);
+		}
+		assertThat(jdbcTemplate.queryForObject("select count(*) from stock_reservations where status = 'HELD'",
+				Integer.class)).isZero();
+	}
+
+	@Test
+	void customerCannotCancelAnotherUsersOrderInBulk() {
+		List<Product> products = seedProducts(1, 10);
+		OrderDTO own = orderService.createdOrder(request(products, 2));
+		OrderDTO foreign = orderService.createdOrder(request(products, 2));
+		entityManager.flush();
+		jdbcTemplate.update("update orders set user_id = ? where id = ?", UUID.randomUUID(),
+				foreign.getId().toString());
+		entityManager.clear();
+
+		List<OrderTransitionResult> results = orderService.transitionAll(List.of(own.getId(), foreign.getId()),
+				OrderStatus.CANCELLED, PHONE);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertThat(results).extracting(OrderTransitionResult::isSuccess).containsExactly(true, false);
+		assertThat(results.get(1).getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(orderService.findByOrder(foreign.getId()).getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThatThrownBy(() -> orderService.cancelOrder(foreign.getId(), PHONE)).isInstanceOf(MyException.class);
+		assertThat(orderService.transitionAll(List.of(foreign.getId()), OrderStatus.CANCELLED, ADMIN_PHONE))
+				.extracting(OrderTransitionResult::isSuccess).containsExactly(true);
+	}
+
+	@Test
+	void preparerCannotBulkShipOrderClaimedByAnother() {
+		List<Product> products = seedProducts(1, 10);
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			ids.add(orderService.createdOrder(request(products, 1)).getId());
+		}
+		entityManager.flush();
+		orderService.transitionAll(ids, OrderStatus.CONFIRMED, PHONE);
+		entityManager.flush();
+		UUID me = userService.findByPhoneNumber(PREPARER_PHONE).getId();
+		LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+		jdbcTemplate.update("update orders set claimed_by = ?, claim_expires_at = ? where id = ?",
+				UUID.randomUUID().toString(), expiresAt, ids.get(0).toString());
+		jdbcTemplate.update("update orders set claimed_by = ?, claim_expires_at = ? where id = ?", me.toString(),
+				expiresAt, ids.get(1).toString());
+		entityManager.clear();
+
+		List<OrderTransitionResult> results = orderService.transitionAll(ids, OrderStatus.SHIPPED, PREPARER_PHONE);
+		entityManager.clear();
+
+		assertThat(results).extracting(OrderTransitionResult::isSuccess).containsExactly(false, true, true);
+		assertThat(results.get(0).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(orderService.findByOrder(ids.get(0)).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThatThrownBy(() -> orderService.shipOrder(ids.get(0), PREPARER_PHONE))
+				.isInstanceOf(MyException.class);
+	}
+
+	@Test
+	void transitionedOrdersAreThoseThisUpdateWrote() {
+		List<Product> products = seedProducts(1, 10);
+		UUID mine = orderService.createdOrder(request(products, 1)).getId();
+		UUID theirs = orderService.createdOrder(request(products, 1)).getId();
+		entityManager.flush();
+		LocalDateTime earlier = LocalDateTime.now().minusSeconds(1).truncatedTo(ChronoUnit.MICROS);
+		orderRepository.transition(List.of(theirs), Set.of(OrderStatus.PENDING), OrderStatus.CANCELLED, null,
+				earlier);
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+		// İkinci sifarişi arada başqa sorğu ləğv edib - hər ikisi CANCELLED-dir,
+		// bu UPDATE isə yalnız birincini dəyişib
+		assertThat(orderRepository.transition(List.of(mine, theirs), Set.of(OrderStatus.PENDING),
+				OrderStatus.CANCELLED, null, now)).isEqualTo(1);
+		assertThat(orderRepository.findTransitioned(List.of(mine, theirs), OrderStatus.CANCELLED, now))
+				.containsExactly(mine);
+	}
+
+	@Test
+	void bulkCancelPublishesStatusTheUpdateMovedFrom() {
+		List<Product> products = seedProducts(1, 10);
+		UUID kept = orderService.createdOrder(request(products, 1)).getId();
+		UUID raced = orderService.createdOrder(request(products, 1)).getId();
+		entityManager.flush();
+		List<OrderStatusRow> snapshot = orderRepository.findStatuses(List.of(kept, raced));
+		UUID owner = snapshot.get(0).userId();
+		// Statuslar oxunandan sonra ikinci sifarişi başqa sorğu təsdiqləyir
+		doAnswer(inv -> {
+			jdbcTemplate.update("update orders set status = 'CONFIRMED' where id = ?", raced.toString());
+			return snapshot;
+		}).doReturn(List.of(new OrderStatusRow(raced, owner, OrderStatus.CONFIRMED))).when(orderRepository)
+				.findStatuses(any());
+
+		List<OrderTransitionResult> results = orderService.transitionAll(List.of(kept, raced),
+				OrderStatus.CANCELLED, ADMIN_PHONE);
+
+		assertThat(results).extracting(OrderTransitionResult::isSuccess).containsExactly(true, false);
+		assertThat(results.get(1).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(events.stream(OrderChangedEvent.class).filter(e -> e.to() == OrderStatus.CANCELLED))
+				.singleElement().satisfies(e -> {
+					assertThat(e.orderId()).isEqualTo(kept);
+					assertThat(e.from()).isEqualTo(OrderStatus.PENDING);
+				});
+	}
+
+	private int statementsForShip(int orders) {
+		List<Product> products = seedProducts(1, 1000);
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < orders; i++) {
+			ids.add(orderService.createdOrder(request(products, 1)).getId());
+		}
+		entityManager.flush();
+		orderService.transitionAll(ids, OrderStatus.CONFIRMED, PHONE);
+		entityManager.flush();
+		entityManager.clear();
+
+		statementCounter.reset();
+		List<OrderTransitionResult> results = orderService.transitionAll(ids, OrderStatus.SHIPPED, ADMIN_PHONE);
+		entityManager.flush();
+		int count = statementCounter.get();
+		entityManager.clear();
+
+		assertThat(results).hasSize(orders).allSatisfy(r -> assertThat(r.isSuccess()).isTrue());
+		return count;
+	}
+
+	private int statementsForPage(int size) {
+		statementCounter.reset();
+		OrderResponse page = orderService.getPage(null, size);
+		int count = statementCounter.get();
+		assertThat(page.getList()).hasSize(size).allSatisfy(o -> assertThat(o.items()).hasSize(5));
+		entityManager.clear();
+		return count;
+	}
+
+	private int statementsForOrder(int lines) {
+		OrderCreateRequest request = request(seedProducts(lines, 100), 2);
+
+		statementCounter.reset();
+		orderService.createdOrder(request);
+		entityManager.flush();
+		int count = statementCounter.get();
+		entityManager.clear();
+		return count;
+	}
+
+	private List<ReservationStatus> reservationStatuses(UUID orderId) {
+		entityManager.flush();
+		return entityManager
+				.createQuery("select r.status from StockReservation r where r.orderId = :orderId",
+						ReservationStatus.class)
+				.setParameter("orderId", orderId).getResultList();
+	}
+
+	/**
+	 * NOT_SUPPORTED testlərinin commit etdiyi sətirləri silir. Tranzaksiyalı
+	 * testlər onsuz da geri qaytarılır.
+	 */
+	@AfterEach
+	void cleanUpCommitted() {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return;
+		}
+		for (String table : List.of("stock_reservations", "order_items", "orders", "inventory_deltas", "products")) {
+			jdbcTemplate.update("delete from " + table);
+		}
+		statusCounters.reconcile();
+	}
+
+	private List<Product> seedProducts(int count, int stock) {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Product p = new Product();
+			p.setName("Məhsul " + i);
+			p.setPrice(new BigDecimal("5.00"));
+			p.setStockQuantity(stock);
+			p.setActive(true);
+			p.setCreatedAt(LocalDateTime.now());
+			products.add(productRepository.save(p));
+		}
+		// Tranzaksiyasız testlərdə save artıq commit olunub
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			entityManager.flush();
+			entityManager.clear();
+		}
+		return products;
+	}
+
+	private OrderCreateRequest request(List<Product> products, int quantity) {
+		OrderCreateRequest request = new OrderCreateRequest();
+		request.setDeliveryAddress("Bakı, Nizami küç. 1");
+		List<OrderItemRequest> items = new ArrayList<>();
+		for (Product p : products) {
+			items.add(new OrderItemRequest(p.getId(), quantity));
+		}
+		request.setItems(items);
+		return request;
+	}
+}
@@ -0,0 +1,121 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.yolla.modules.order.entity.Order;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.repository.OrderRepository;
+import com.app.yolla.modules.order.service.OrderChangedEvent;
+import com.app.yolla.modules.order.service.OrderSlaWatchdog;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OrderSlaWatchdog.class)
+class OrderSlaWatchdogTest {
+
+	private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+	@Autowired
+	private OrderSlaWatchdog watchdog;
+
+	@Autowired
+	private OrderRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	// Çarx saatları irəli fırladılır - sonrakı testlər təzə çarxla başlasın
+	@Test
+	@DirtiesContext
+	void transitionsMoveTheDeadlineAndFinalStatusClearsIt() {
+		UUID id = UUID.randomUUID();
+		long now = System.currentTimeMillis();
+
+		watchdog.onOrderChanged(new OrderChangedEvent(id, null, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+		watchdog.onOrderChanged(new OrderChangedEvent(id, null, OrderStatus.CONFIRMED, OrderStatus.SHIPPED));
+		assertThat(watchdog.pending()).isEqualTo(1);
+
+		// CONFIRMED müddəti (60 dəq) artıq aid deyil, SHIPPED isə 240 dəqiqədir
+		assertThat(watchdog.check(now + 61 * MINUTE)).isZero();
+		assertThat(watchdog.check(now + 241 * MINUTE)).isEqualTo(1);
+		assertThat(watchdog.breaches()).containsEntry(OrderStatus.SHIPPED, 1);
+
+		UUID delivered = UUID.randomUUID();
+		watchdog.onOrderChanged(new OrderChangedEvent(delivered, null, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+		watchdog.onOrderChanged(new OrderChangedEvent(delivered, null, OrderStatus.CONFIRMED, OrderStatus.CANCELLED));
+		assertThat(watchdog.pending()).isZero();
+	}
+
+	@Test
+	void rebuildRestoresDeadlinesFromStatusChangeTime() {
+		Order late = save(OrderStatus.CONFIRMED);
+		Order fresh = save(OrderStatus.SHIPPED);
+		save(OrderStatus.PENDING);
+		save(OrderStatus.DELIVERED);
+		entityManager.flush();
+		jdbcTemplate.update("update orders set status_changed_at = ? where id = ?",
+				LocalDateTime.now().minusHours(2), late.getId().toString());
+		entityManager.clear();
+
+		assertThat(watchdog.rebuild()).isEqualTo(2);
+
+		assertThat(watchdog.check(System.currentTimeMillis() + 2000)).isEqualTo(1);
+		assertThat(watchdog.breaches()).containsEntry(OrderStatus.CONFIRMED, 1);
+		assertThat(watchdog.pending()).isEqualTo(1);
+		assertThat(fresh.getStatusChangedAt()).isNotNull();
+	}
+
+	@Test
+	@DirtiesContext
+	void recordedBreachIsNotRaisedAgainAfterRebuild() {
+		int before = watchdog.breaches().get(OrderStatus.CONFIRMED);
+		Order late = save(OrderStatus.CONFIRMED);
+		entityManager.flush();
+		jdbcTemplate.update("update orders set status_changed_at = ? where id = ?",
+				LocalDateTime.now().minusHours(2), late.getId().toString());
+		entityManager.clear();
+
+		assertThat(watchdog.rebuild()).isEqualTo(1);
+		assertThat(watchdog.check(System.currentTimeMillis() + MINUTE)).isEqualTo(1);
+		entityManager.clear();
+		assertThat(repository.findById(late.getId()).orElseThrow().getSlaBreachedAt()).isNotNull();
+
+		// Yenidən başlama: pozuntusu qeyd olunmuş sifariş üçün taymer qoyulmur
+		assertThat(watchdog.rebuild()).isZero();
+		assertThat(watchdog.check(System.currentTimeMillis() + 2 * MINUTE)).isZero();
+		assertThat(watchdog.breaches()).containsEntry(OrderStatus.CONFIRMED, before + 1);
+
+		// Yeni statusda SLA yenidən izlənir
+		jdbcTemplate.update("update orders set status = ?, status_changed_at = ? where id = ?",
+				OrderStatus.SHIPPED.name(), LocalDateTime.now(), late.getId().toString());
+		assertThat(watchdog.rebuild()).isEqualTo(1);
+	}
+
+	private Order save(OrderStatus status) {
+		Order order = new Order();
+		order.setUserId(UUID.randomUUID());
+		order.setStatus(status);
+		order.setTotalAmount(new BigDecimal("10.00"));
+		order.setDeliveryAddress("Bakı");
+		order.setCreatedAt(LocalDateTime.now());
+		return repository.save(order);
+	}
+}
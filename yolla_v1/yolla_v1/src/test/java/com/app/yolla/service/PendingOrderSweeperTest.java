@@ -0,0 +1,131 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.app.yolla.config.MyConfig;
+import com.app.yolla.modules.order.dto.OrderCreateRequest;
+import com.app.yolla.modules.order.dto.OrderItemRequest;
+import com.app.yolla.modules.order.entity.OrderStatus;
+import com.app.yolla.modules.order.service.OrderCache;
+import com.app.yolla.modules.order.service.OrderService;
+import com.app.yolla.modules.order.service.OrderStatusCounters;
+import com.app.yolla.modules.order.service.PendingOrderSweeper;
+import com.app.yolla.modules.order.service.StockReservationService;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.modules.product.service.LowStockWatcher;
+import com.app.yolla.modules.product.service.ProductService;
+import com.app.yolla.modules.user.dto.UserDTO;
+import com.app.yolla.modules.user.entity.UserRole;
+import com.app.yolla.modules.user.service.UserService;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = { "orders.pending-sweep.chunk-size=2", "orders.pending-sweep.pause-ms=0" })
+@Import({ PendingOrderSweeper.class, OrderService.class, OrderCache.class, OrderStatusCounters.class,
+		StockReservationService.class, ProductService.class, InventoryLedger.class, LowStockWatcher.class,
+		MyConfig.class })
+class PendingOrderSweeperTest {
+
+	private static final String PHONE = "+994501234567";
+
+	@Autowired
+	private PendingOrderSweeper sweeper;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private InventoryLedger inventoryLedger;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@MockBean
+	private UserService userService;
+
+	@BeforeEach
+	void setUp() {
+		UserDTO user = new UserDTO();
+		user.setId(UUID.randomUUID());
+		user.setPhoneNumber(PHONE);
+		user.setFullName("Test User");
+		user.setRole(UserRole.CUSTOMER);
+
+		when(userService.findPhone()).thenReturn(PHONE);
+		when(userService.findByPhoneNumber(PHONE)).thenReturn(user);
+		when(userService.findById(any(UUID.class))).thenReturn(user);
+	}
+
+	@Test
+	void stalePendingOrdersAreCancelledInChunksAndStockReturned() {
+		Product product = new Product();
+		product.setName("Məhsul");
+		product.setPrice(new BigDecimal("5.00"));
+		product.setStockQuantity(50);
+		product.setActive(true);
+		product.setCreatedAt(LocalDateTime.now());
+		product = productRepository.save(product);
+
+		List<UUID> stale = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			stale.add(orderService.createdOrder(request(product, 2)).getId());
+		}
+		UUID confirmed = orderService.createdOrder(request(product, 2)).getId();
+		UUID fresh = orderService.createdOrder(request(product, 2)).getId();
+		entityManager.flush();
+		orderService.confirmOrder(confirmed, PHONE);
+		entityManager.flush();
+		jdbcTemplate.update("update orders set created_at = ? where id <> ?", LocalDateTime.now().minusHours(3),
+				fresh.toString());
+		entityManager.clear();
+
+		// 2 ölçülü hissələrlə 6 köhnə sifariş: 5 PENDING ləğv olunur, CONFIRMED toxunulmur
+		assertThat(sweeper.sweep()).isEqualTo(5);
+		entityManager.flush();
+		inventoryLedger.flush();
+		entityManager.clear();
+
+		for (UUID id : stale) {
+			assertThat(orderService.findByOrder(id).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+		}
+		assertThat(orderService.findByOrder(confirmed).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(orderService.findByOrder(fresh).getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(46);
+		assertThat(sweeper.sweep()).isZero();
+	}
+
+	private OrderCreateRequest request(Product product, int quantity) {
+		OrderCreateRequest request = new OrderCreateRequest();
+		request.setDeliveryAddress("Bakı, Nizami küç. 1");
+		request.setItems(List.of(new OrderItemRequest(product.getId(), quantity)));
+		return request;
+	}
+}
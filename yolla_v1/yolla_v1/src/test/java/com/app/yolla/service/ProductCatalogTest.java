@@ -0,0 +1,103 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.app.yolla.modules.product.dto.ProductDTO;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.ProductCatalog;
+import com.app.yolla.modules.product.service.ProductCatalog.Sort;
+import com.app.yolla.modules.product.service.ProductChangedEvent;
+import com.app.yolla.shared.exception.MyException;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ProductCatalog.class)
+class ProductCatalogTest {
+
+	@Autowired
+	private ProductCatalog catalog;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Test
+	void loadBuildsSortedViewsOfActiveProducts() {
+		Product bread = save("çörək", "1.20", true, 3);
+		Product apple = save("Alma", "2.50", true, 1);
+		save("köhnə", "0.50", false, 2);
+		Product cheese = save("pendir", "9.90", true, 2);
+
+		assertThat(catalog.load()).isEqualTo(3);
+
+		assertThat(catalog.list(Sort.NAME, 0, 10)).extracting(ProductDTO::getId).containsExactly(apple.getId(),
+				bread.getId(), cheese.getId());
+		assertThat(catalog.list(Sort.PRICE, 0, 10)).extracting(ProductDTO::getId).containsExactly(bread.getId(),
+				apple.getId(), cheese.getId());
+		assertThat(catalog.list(Sort.NEWEST, 0, 2)).extracting(ProductDTO::getId).containsExactly(apple.getId(),
+				cheese.getId());
+		assertThat(catalog.list(Sort.NEWEST, 1, 2)).extracting(ProductDTO::getId).containsExactly(bread.getId());
+		assertThat(catalog.list(Sort.NEWEST, 5, 2)).isEmpty();
+		assertThat(catalog.get(cheese.getId()).getName()).isEqualTo("pendir");
+	}
+
+	@Test
+	void changesAreAppliedIncrementally() {
+		Product bread = save("çörək", "1.20", true, 3);
+		Product apple = save("Alma", "2.50", true, 1);
+		catalog.load();
+
+		ProductDTO cheaperApple = dto(apple, "0.90", true);
+		cheaperApple.setReorderThreshold(5);
+		catalog.onProductChanged(new ProductChangedEvent(apple.getId(), cheaperApple));
+		assertThat(catalog.list(Sort.PRICE, 0, 10)).extracting(ProductDTO::getId).containsExactly(apple.getId(),
+				bread.getId());
+		assertThat(catalog.get(apple.getId()).getPrice()).isEqualByComparingTo("0.90");
+		// Minimum stok həddi açıq kataloqa düşmür
+		assertThat(catalog.get(apple.getId()).getReorderThreshold()).isNull();
+
+		UUID newId = UUID.randomUUID();
+		ProductDTO honey = new ProductDTO(newId, "bal", null, new BigDecimal("7.00"), 4, true, LocalDateTime.now(),
+				null);
+		catalog.onProductChanged(new ProductChangedEvent(newId, honey));
+		assertThat(catalog.list(Sort.NAME, 0, 10)).extracting(ProductDTO::getId).containsExactly(apple.getId(), newId,
+				bread.getId());
+
+		catalog.onProductChanged(new ProductChangedEvent(bread.getId(), null));
+		catalog.onProductChanged(new ProductChangedEvent(newId, dto(honey, "7.00", false)));
+		assertThat(catalog.size()).isEqualTo(1);
+		assertThat(catalog.list(Sort.NEWEST, 0, 10)).extracting(ProductDTO::getId).containsExactly(apple.getId());
+		assertThatThrownBy(() -> catalog.get(bread.getId())).isInstanceOf(MyException.class);
+	}
+
+	private Product save(String name, String price, boolean active, int ageMinutes) {
+		Product p = new Product();
+		p.setName(name);
+		p.setPrice(new BigDecimal(price));
+		p.setStockQuantity(10);
+		p.setActive(active);
+		p.setCreatedAt(LocalDateTime.now().minusMinutes(ageMinutes));
+		return repository.save(p);
+	}
+
+	private static ProductDTO dto(Product p, String price, boolean active) {
+		return new ProductDTO(p.getId(), p.getName(), p.getDescription(), new BigDecimal(price), p.getStockQuantity(),
+				active, p.getCreatedAt(), p.getUpdatedAt());
+	}
+
+	private static ProductDTO dto(ProductDTO p, String price, boolean active) {
+		return new ProductDTO(p.getId(), p.getName(), p.getDescription(), new BigDecimal(price), p.getStockQuantity(),
+				active, p.getCreatedAt(), p.getUpdatedAt());
+	}
+}
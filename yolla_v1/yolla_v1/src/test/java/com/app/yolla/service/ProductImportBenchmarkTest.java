@@ -0,0 +1,127 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.yolla.modules.product.dto.ProductImportReport;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.modules.product.service.ProductCatalog;
+import com.app.yolla.modules.product.service.ProductImporter;
+import com.app.yolla.modules.product.service.ProductSearchIndex;
+import com.app.yolla.modules.user.service.UserService;
+
+/**
+ * 500 000 sətirlik CSV-nin H2-yə idxalı (oxuma, paralel yoxlama, batch yazma,
+ * kataloq və axtarış indeksinin yenilənməsi daxil) məhsulların bir-bir, hər
+ * biri öz tranzaksiyasında JPA ilə saxlanılması ilə müqayisə olunur.
+ * ./gradlew benchmark ilə işlədilir.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import({ ProductImporter.class, ProductCatalog.class, ProductSearchIndex.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+class ProductImportBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductImportBenchmarkTest.class);
+
+	private static final int ROWS = 500_000;
+
+	private static final int SEQUENTIAL_ROWS = 5_000;
+
+	@Autowired
+	private ProductImporter importer;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private UserService userService;
+
+	@MockBean
+	private InventoryLedger inventoryLedger;
+
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("delete from products");
+	}
+
+	@Test
+	void importIsTenTimesFasterThanSavingOneByOne() throws Exception {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		long start = System.nanoTime();
+		for (int i = 0; i < SEQUENTIAL_ROWS; i++) {
+			Product p = new Product();
+			p.setName("Tək məhsul " + i);
+			p.setDescription("Təsvir " + i);
+			p.setPrice(new BigDecimal("2.50"));
+			p.setStockQuantity(10);
+			p.setActive(true);
+			p.setCreatedAt(LocalDateTime.now());
+			tx.executeWithoutResult(status -> productRepository.save(p));
+		}
+		double sequentialRate = rate(SEQUENTIAL_ROWS, start);
+
+		Path file = dir.resolve("catalog.csv");
+		Random random = new Random(7);
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			out.write("id,name,description,price,stock_quantity\n");
+			for (int i = 0; i < ROWS; i++) {
+				out.write(i % 2 == 0 ? UUID.randomUUID().toString() : "");
+				out.write(",\"Məhsul " + i + "\",Təsvir " + random.nextInt(1000) + ",");
+				out.write((1 + random.nextInt(999)) + "." + random.nextInt(100) + "," + random.nextInt(500) + "\n");
+			}
+		}
+
+		start = System.nanoTime();
+		ProductImportReport report = importer.importFile(file, UUID.randomUUID());
+		double importRate = rate(ROWS, start);
+		logger.info("bir-bir: {} sətir/s, idxal: {} sətir/s ({}x), fayl {} MB, {} nüvə", (long) sequentialRate,
+				(long) importRate, String.format("%.1f", importRate / sequentialRate),
+				Files.size(file) / (1024 * 1024), Runtime.getRuntime().availableProcessors());
+
+		assertThat(report.status()).isEqualTo(ProductImportReport.Status.DONE);
+		assertThat(report.inserted()).isEqualTo(ROWS);
+		assertThat(importRate).isGreaterThanOrEqualTo(10 * sequentialRate);
+	}
+
+	private static double rate(int rows, long startNanos) {
+		return rows / ((System.nanoTime() - startNanos) / 1e9);
+	}
+}
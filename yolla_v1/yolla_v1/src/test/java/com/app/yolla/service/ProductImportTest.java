@@ -0,0 +1,145 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.yolla.modules.product.dto.ProductImportError;
+import com.app.yolla.modules.product.dto.ProductImportReport;
+import com.app.yolla.modules.product.entity.Product;
+import com.app.yolla.modules.product.repository.ProductRepository;
+import com.app.yolla.modules.product.service.InventoryLedger;
+import com.app.yolla.modules.product.service.ProductCatalog;
+import com.app.yolla.modules.product.service.ProductImporter;
+import com.app.yolla.modules.product.service.ProductSearchIndex;
+import com.app.yolla.modules.user.service.UserService;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ ProductImporter.class, ProductCatalog.class, ProductSearchIndex.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportTest {
+
+	private static final UUID OWNER = UUID.randomUUID();
+
+	@Autowired
+	private ProductImporter importer;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private ProductCatalog catalog;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private UserService userService;
+
+	@MockBean
+	private InventoryLedger inventoryLedger;
+
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("delete from products");
+		catalog.load();
+		searchIndex.load();
+	}
+
+	@Test
+	void validRowsAreImportedAndBadRowsReportedByLine() throws Exception {
+		String csv = "﻿name,price,stock_quantity,description\r\n"
+				+ "Alma,1.20,10,Quba alması\r\n"
+				+ "\"Çay, qara \"\"Azerçay\"\"\",4.5,3,\"iki\r\nsətirli təsvir\"\r\n"
+				+ ",2.00,1,adsız\r\n"
+				+ "Armud,-1,5,\r\n"
+				+ "Heyva,1.234,5,\r\n"
+				+ "Nar,3,çox,\r\n"
+				+ "Üzüm,3\r\n"
+				+ "\r\n"
+				+ "Gavalı, 0.80 , 7 ,\r\n";
+
+		ProductImportReport report = importer.importFile(write(csv), OWNER);
+
+		assertThat(report.status()).isEqualTo(ProductImportReport.Status.DONE);
+		assertThat(report.rows()).isEqualTo(8);
+		assertThat(report.inserted()).isEqualTo(3);
+		assertThat(report.failed()).isEqualTo(5);
+		assertThat(report.errors()).extracting(ProductImportError::line).containsExactly(5L, 6L, 7L, 8L, 9L);
+		assertThat(report.errors().get(0).message()).isEqualTo("Məhsulun adı boş ola bilməz");
+		assertThat(report.errors().get(2).message()).isEqualTo("Qiymət maksimum 10 tam və 2 onluq rəqəm ola bilər");
+
+		List<Product> products = repository.findAll();
+		products.sort(Comparator.comparing(Product::getName));
+		assertThat(products).extracting(Product::getName).containsExactly("Alma", "Gavalı", "Çay, qara \"Azerçay\"");
+		Product tea = products.get(2);
+		assertThat(tea.getDescription()).isEqualTo("iki\r\nsətirli təsvir");
+		assertThat(tea.getPrice()).isEqualByComparingTo("4.50");
+		assertThat(tea.getUserId()).isEqualTo(OWNER);
+		assertThat(products.get(1).getStockQuantity()).isEqualTo(7);
+
+		assertThat(catalog.size()).isEqualTo(3);
+		assertThat(searchIndex.search("azercay", 10)).containsExactly(tea.getId());
+	}
+
+	@Test
+	void rowsWithKnownIdUpdateExistingProducts() throws Exception {
+		Product existing = new Product();
+		existing.setName("Köhnə ad");
+		existing.setPrice(new BigDecimal("1.00"));
+		existing.setStockQuantity(1);
+		existing.setActive(true);
+		existing.setCreatedAt(LocalDateTime.now());
+		existing = repository.save(existing);
+		UUID fresh = UUID.randomUUID();
+
+		String csv = "id,name,price,stock_quantity\n"
+				+ existing.getId() + ",Yeni ad,2.00,20\n"
+				+ fresh + ",Təzə,3.00,30\n"
+				+ "bad-id,Səhv,1,1\n";
+
+		ProductImportReport report = importer.importFile(write(csv), OWNER);
+
+		assertThat(report.updated()).isEqualTo(1);
+		assertThat(report.inserted()).isEqualTo(1);
+		assertThat(report.errors()).singleElement().satisfies(e -> assertThat(e.line()).isEqualTo(4));
+		Product updated = repository.findById(existing.getId()).orElseThrow();
+		assertThat(updated.getName()).isEqualTo("Yeni ad");
+		assertThat(updated.getStockQuantity()).isEqualTo(20);
+		assertThat(repository.findById(fresh)).isPresent();
+		verify(inventoryLedger).evict(existing.getId());
+	}
+
+	private Path write(String csv) throws Exception {
+		Path file = dir.resolve("products.csv");
+		Files.writeString(file, csv, StandardCharsets.UTF_8);
+		return file;
+	}
+}
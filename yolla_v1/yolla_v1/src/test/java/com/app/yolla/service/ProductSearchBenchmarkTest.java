@@ -0,0 +1,110 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.app.yolla.modules.product.dto.ProductDTO;
+import com.app.yolla.modules.product.service.ProductSearchIndex;
+
+/**
+ * 1M süni məhsul üzərində axtarış və avtotamamlama gecikməsi. Adlar və
+ * təsvirlər 50 000 sözlük lüğətdən əyri (Zipf-ə yaxın) paylanma ilə seçilir -
+ * bəzi sözlər yüz minlərlə məhsulda olur, çoxu isə nadirdir, real kataloq
+ * kimi. Sorğular da eyni paylanma ilə seçildiyi üçün populyar sözlər tez-tez
+ * axtarılır. ./gradlew benchmark ilə işlədilir.
+ */
+@Tag("benchmark")
+class ProductSearchBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchBenchmarkTest.class);
+
+	private static final int PRODUCTS = 1_000_000;
+	private static final int VOCABULARY = 50_000;
+	private static final int QUERIES = 5_000;
+
+	private static final String ALPHABET = "abcçdeəfgğhxıijkqlmnoöprsştuüvyz";
+
+	@Test
+	void queriesOverOneMillionProductsStaySubMillisecond() {
+		Random random = new Random(42);
+		String[] words = new String[VOCABULARY];
+		for (int i = 0; i < words.length; i++) {
+			StringBuilder sb = new StringBuilder();
+			int n = 3 + random.nextInt(7);
+			for (int j = 0; j < n; j++) {
+				sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			}
+			words[i] = sb.toString();
+		}
+
+		ProductSearchIndex index = new ProductSearchIndex();
+		long start = System.nanoTime();
+		for (int i = 0; i < PRODUCTS; i++) {
+			String name = word(words, random) + " " + word(words, random);
+			String description = word(words, random) + " " + word(words, random) + " " + word(words, random) + " "
+					+ word(words, random);
+			index.put(new ProductDTO(UUID.randomUUID(), name, description, BigDecimal.ONE, 1, true,
+					LocalDateTime.now(), null));
+		}
+		logger.info("İndeks quruldu: {} məhsul, {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+		String[] searches = new String[QUERIES];
+		String[] prefixes = new String[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			String w = word(words, random);
+			searches[i] = i % 2 == 0 ? w : w + " " + word(words, random);
+			prefixes[i] = w + " " + word(words, random).substring(0, 2);
+		}
+
+		// Isınma
+		for (int i = 0; i < QUERIES; i++) {
+			index.search(searches[i], 20);
+			index.suggest(prefixes[i], 10);
+		}
+
+		long[] search = new long[QUERIES];
+		long[] suggest = new long[QUERIES];
+		long hits = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			long t = System.nanoTime();
+			List<UUID> found = index.search(searches[i], 20);
+			search[i] = System.nanoTime() - t;
+			t = System.nanoTime();
+			index.suggest(prefixes[i], 10);
+			suggest[i] = System.nanoTime() - t;
+			hits += found.size();
+		}
+
+		long searchP50 = percentile(search, 50), searchP99 = percentile(search, 99);
+		long suggestP50 = percentile(suggest, 50), suggestP99 = percentile(suggest, 99);
+		logger.info("search p50={} µs p99={} µs, suggest p50={} µs p99={} µs, orta nəticə={}", searchP50 / 1000,
+				searchP99 / 1000, suggestP50 / 1000, suggestP99 / 1000, hits / QUERIES);
+
+		assertThat(hits).isPositive();
+		assertThat(searchP50).isLessThan(1_000_000);
+		assertThat(suggestP50).isLessThan(1_000_000);
+	}
+
+	// Kiçik indekslər daha tez-tez seçilir
+	private static String word(String[] words, Random random) {
+		double u = random.nextDouble();
+		return words[(int) (words.length * u * u * u)];
+	}
+
+	private static long percentile(long[] values, int p) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)];
+	}
+}
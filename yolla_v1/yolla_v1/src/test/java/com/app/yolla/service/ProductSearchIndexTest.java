@@ -0,0 +1,72 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.app.yolla.modules.product.dto.ProductDTO;
+import com.app.yolla.modules.product.service.ProductChangedEvent;
+import com.app.yolla.modules.product.service.ProductSearchIndex;
+
+class ProductSearchIndexTest {
+
+	private final ProductSearchIndex index = new ProductSearchIndex();
+
+	@Test
+	void searchFoldsAzerbaijaniLettersAndRanksNameMatchesFirst() {
+		ProductDTO tea = put("Qara çay", "Lənkəran çayı, 100 q");
+		ProductDTO cup = put("Stəkan", "Çay üçün armudu stəkan");
+		ProductDTO herbal = put("Bitki çayı", "Kəklikotu ilə");
+		put("Qəhvə", "Ərəbika");
+
+		assertThat(index.search("cay", 10)).containsExactly(tea.getId(),
+				herbal.getId(), cup.getId());
+		assertThat(index.search("ÇAY stəkan", 10)).containsExactly(cup.getId());
+		assertThat(index.search("lenk", 10)).containsExactly(tea.getId());
+		assertThat(index.search("x", 10)).isEmpty();
+		assertThat(index.search("kofe", 10)).isEmpty();
+	}
+
+	@Test
+	void suggestCompletesWordPrefixes() {
+		put("Alma şirəsi", null);
+		put("Alma", "Quba alması");
+		put("Armud", "Qalma");
+
+		assertThat(index.suggest("al", 10)).containsExactly("Alma şirəsi", "Alma");
+		assertThat(index.suggest("alma ş", 10)).containsExactly("Alma şirəsi");
+		assertThat(index.suggest("alma q", 10)).containsExactly("Alma", "Armud");
+		assertThat(index.suggest("q", 10)).isEmpty();
+	}
+
+	@Test
+	void changesAreAppliedIncrementally() {
+		ProductDTO milk = put("Süd", "İnək südü");
+		assertThat(index.search("sud", 10)).hasSize(1);
+
+		index.onProductChanged(new ProductChangedEvent(milk.getId(), dto(milk.getId(), "Kefir", null, true)));
+		assertThat(index.search("sud", 10)).isEmpty();
+		assertThat(index.search("kefir", 10)).hasSize(1);
+
+		index.onProductChanged(new ProductChangedEvent(milk.getId(), dto(milk.getId(), "Kefir", null, false)));
+		assertThat(index.search("kefir", 10)).isEmpty();
+
+		ProductDTO butter = put("Kərə yağı", null);
+		index.onProductChanged(new ProductChangedEvent(butter.getId(), null));
+		assertThat(index.size()).isZero();
+	}
+
+	private ProductDTO put(String name, String description) {
+		ProductDTO dto = dto(UUID.randomUUID(), name, description, true);
+		index.onProductChanged(new ProductChangedEvent(dto.getId(), dto));
+		return dto;
+	}
+
+	private static ProductDTO dto(UUID id, String name, String description, boolean active) {
+		return new ProductDTO(id, name, description, BigDecimal.ONE, 1, active, LocalDateTime.now(), null);
+	}
+}
@@ -0,0 +1,69 @@
+package com.app.yolla.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.app.yolla.modules.order.service.TimingWheel;
+import com.app.yolla.modules.order.service.TimingWheel.Expired;
+
+class TimingWheelTest {
+
+	@Test
+	void timerFiresOnceAtItsDeadline() {
+		TimingWheel<String, Integer> wheel = new TimingWheel<>(8, 10, 0, 100);
+		wheel.schedule("a", 1, 35);
+
+		assertThat(wheel.advance(30)).isEmpty();
+		assertThat(wheel.advance(40)).extracting(Expired::key).containsExactly("a");
+		assertThat(wheel.advance(100)).isEmpty();
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void timersBeyondOneRevolutionWaitForTheirRound() {
+		TimingWheel<String, Integer> wheel = new TimingWheel<>(8, 10, 0, 100);
+		// 80 ms-lik çarxda eyni xanaya düşən iki taymer
+		wheel.schedule("near", 1, 20);
+		wheel.schedule("far", 2, 180);
+
+		assertThat(wheel.advance(20)).extracting(Expired::key).containsExactly("near");
+		assertThat(wheel.advance(170)).isEmpty();
+		assertThat(wheel.advance(180)).extracting(Expired::value).containsExactly(2);
+	}
+
+	@Test
+	void cancelledAndReplacedTimersDoNotFire() {
+		TimingWheel<String, Integer> wheel = new TimingWheel<>(8, 10, 0, 100);
+		wheel.schedule("a", 1, 30);
+		wheel.schedule("b", 1, 30);
+		wheel.schedule("b", 2, 60);
+		assertThat(wheel.cancel("a")).isTrue();
+		assertThat(wheel.scheduleIfAbsent("b", 3, 10)).isFalse();
+
+		assertThat(wheel.advance(50)).isEmpty();
+		assertThat(wheel.advance(60)).singleElement().satisfies(e -> assertThat(e.value()).isEqualTo(2));
+	}
+
+	@Test
+	void timerCountIsBounded() {
+		TimingWheel<Integer, Integer> wheel = new TimingWheel<>(8, 10, 0, 3);
+		for (int i = 0; i < 5; i++) {
+			wheel.schedule(i, i, 50);
+		}
+		assertThat(wheel.size()).isEqualTo(3);
+		// Mövcud açarın yenilənməsi limitə düşmür
+		assertThat(wheel.schedule(0, 9, 70)).isTrue();
+	}
+
+	@Test
+	void longPauseFiresEveryDueTimerInOnePass() {
+		TimingWheel<Integer, Integer> wheel = new TimingWheel<>(8, 10, 0, 1000);
+		for (int i = 0; i < 100; i++) {
+			wheel.schedule(i, i, 10L * (i + 1));
+		}
+
+		assertThat(wheel.advance(500)).hasSize(50);
+		assertThat(wheel.advance(100_000)).hasSize(50);
+	}
+}